@@ -0,0 +1,93 @@
+package com.bankfraud.fraud_detection_service.benchmarks;
+
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+
+ // Realistic inputs for the evaluation benchmarks, shaped like the README examples.
+ // Every scenario uses the same account profile (avg txn 20,000, home country PK).
+
+public final class BenchmarkFixtures {
+
+    public enum Scenario {
+
+        // Daytime, in-country, normal amount, no recent activity
+        NO_RULES,
+
+        // Same as NO_RULES but spent abroad: only GEO_MISMATCH fires
+        SINGLE_RULE,
+
+        // 150,000 abroad at 01:30 during a burst: every rule fires
+        ALL_RULES
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    public static AccountProfiles profile() {
+        AccountProfiles profile = new AccountProfiles();
+        profile.setAccountId("acc-101");
+        profile.setAvgDailySpend(new BigDecimal("50000.00"));
+        profile.setAvgTxnAmount(new BigDecimal("20000.00"));
+        profile.setHomeCountry("PK");
+        profile.setRiskTier("LOW");
+        return profile;
+    }
+
+    public static Transactions transaction(Scenario scenario) {
+        Transactions tx = new Transactions();
+        tx.setId(1L);
+        tx.setTransactionId("tx-101");
+        tx.setAccountId("acc-101");
+        tx.setTxnType("DEBIT");
+        tx.setCurrency("PKR");
+        tx.setMerchant("ATM-123");
+
+        switch (scenario) {
+            case NO_RULES -> {
+                tx.setAmount(new BigDecimal("15000.00"));
+                tx.setLocation("PK");
+                tx.setTimestamp(LocalDateTime.of(2025, 12, 29, 10, 30));
+            }
+            case SINGLE_RULE -> {
+                tx.setAmount(new BigDecimal("15000.00"));
+                tx.setLocation("AE");
+                tx.setTimestamp(LocalDateTime.of(2025, 12, 29, 10, 30));
+            }
+            case ALL_RULES -> {
+                tx.setAmount(new BigDecimal("150000.00"));
+                tx.setLocation("AE");
+                tx.setTimestamp(LocalDateTime.of(2025, 12, 29, 1, 30));
+            }
+        }
+        return tx;
+    }
+
+    public static int recentTxCount(Scenario scenario) {
+        return scenario == Scenario.ALL_RULES ? 12 : 0;
+    }
+
+    public static boolean rapidTransfers(Scenario scenario) {
+        return scenario == Scenario.ALL_RULES;
+    }
+
+    public static boolean geoMismatch(Scenario scenario) {
+        return scenario != Scenario.NO_RULES;
+    }
+
+    // Kafka message value as produced by TransactionsProducer.
+    public static String transactionJson(Scenario scenario) {
+        Transactions tx = transaction(scenario);
+        return "{\"transactionId\":\"" + tx.getTransactionId() + "\","
+                + "\"accountId\":\"" + tx.getAccountId() + "\","
+                + "\"txnType\":\"" + tx.getTxnType() + "\","
+                + "\"amount\":" + tx.getAmount().toPlainString() + ","
+                + "\"currency\":\"" + tx.getCurrency() + "\","
+                + "\"location\":\"" + tx.getLocation() + "\","
+                + "\"merchant\":\"" + tx.getMerchant() + "\","
+                + "\"timestamp\":\"" + tx.getTimestamp() + ":00\"}";
+    }
+}
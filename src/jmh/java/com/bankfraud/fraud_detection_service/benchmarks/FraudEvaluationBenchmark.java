@@ -0,0 +1,119 @@
+package com.bankfraud.fraud_detection_service.benchmarks;
+
+import com.bankfraud.fraud_detection_service.business.FraudDecision;
+import com.bankfraud.fraud_detection_service.business.FraudFeatureSource;
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.business.FraudRuleEngine;
+import com.bankfraud.fraud_detection_service.business.FraudRuleType;
+import com.bankfraud.fraud_detection_service.business.FraudRuleWeights;
+import com.bankfraud.fraud_detection_service.business.FraudScoringService;
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+ // Rule evaluation, scoring and FraudDecision access, per scenario.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FraudEvaluationBenchmark {
+
+    @Param({"NO_RULES", "SINGLE_RULE", "ALL_RULES"})
+    public BenchmarkFixtures.Scenario scenario;
+
+    private final FraudRuleEngine ruleEngine = new FraudRuleEngine();
+    private final FraudScoringService scoringService = new FraudScoringService();
+    private final FraudRuleWeights ruleWeights = FraudRuleConfig.DEFAULT.getWeights();
+
+    private Transactions tx;
+    private AccountProfiles profile;
+    private int recentTxCount;
+    private boolean geoMismatch;
+    private boolean rapidTransfers;
+    private FraudDecision evaluatedDecision;
+    private FraudFeatureSource features;
+
+    @Setup
+    public void setUp() {
+        tx = BenchmarkFixtures.transaction(scenario);
+        profile = BenchmarkFixtures.profile();
+        recentTxCount = BenchmarkFixtures.recentTxCount(scenario);
+        geoMismatch = BenchmarkFixtures.geoMismatch(scenario);
+        rapidTransfers = BenchmarkFixtures.rapidTransfers(scenario);
+
+        evaluatedDecision = ruleEngine.evaluate(tx, profile, recentTxCount, geoMismatch, rapidTransfers);
+
+        int rapidWindowCount = rapidTransfers ? FraudRuleConfig.DEFAULT.getRapidTransferMinCount() : 0;
+        features = new FraudFeatureSource() {
+            @Override
+            public int velocityWindowCount() {
+                return recentTxCount;
+            }
+
+            @Override
+            public int rapidWindowCount() {
+                return rapidWindowCount;
+            }
+
+            @Override
+            public AccountProfiles profile() {
+                return profile;
+            }
+        };
+    }
+
+    @Benchmark
+    public FraudDecision ruleEngineEvaluate() {
+        return ruleEngine.evaluate(tx, profile, recentTxCount, geoMismatch, rapidTransfers);
+    }
+
+    @Benchmark
+    public BigDecimal scoringCalculateScore() {
+        return scoringService.calculateScore(evaluatedDecision);
+    }
+
+    @Benchmark
+    public List<FraudRuleType> decisionTriggeredRules() {
+        return evaluatedDecision.getTriggeredRules();
+    }
+
+    // FraudDecision / BigDecimal API: evaluate, score, threshold.
+    @Benchmark
+    public boolean evaluateAndScore() {
+        FraudDecision decision = ruleEngine.evaluate(tx, profile, recentTxCount, geoMismatch, rapidTransfers);
+        decision.setScore(scoringService.calculateScore(decision));
+        return decision.getScore().compareTo(BigDecimal.valueOf(40)) >= 0;
+    }
+
+    // Bitmask evaluation of every rule and table scoring (expected 0 B/op).
+    @Benchmark
+    public boolean evaluateMaskAndScore() {
+        int mask = ruleEngine.evaluateMask(tx, profile, recentTxCount, geoMismatch, rapidTransfers);
+        return ruleWeights.score(mask) >= 40;
+    }
+
+    // Steady-state path of FraudEvaluationService: lazy, short-circuiting evaluation (expected 0 B/op).
+    @Benchmark
+    public boolean evaluateLazilyAndScore() {
+        int mask = ruleEngine.evaluateLazily(FraudRuleConfig.DEFAULT, tx, features, true);
+        return ruleWeights.score(mask) >= FraudRuleConfig.DEFAULT.getAlertScoreThreshold();
+    }
+}
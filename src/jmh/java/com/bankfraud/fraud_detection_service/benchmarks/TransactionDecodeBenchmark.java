@@ -0,0 +1,77 @@
+package com.bankfraud.fraud_detection_service.benchmarks;
+
+import com.bankfraud.fraud_detection_service.configs.JacksonConfig;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.kafka.MessageCodec;
+import com.bankfraud.fraud_detection_service.kafka.WireFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+
+ // Decode of a 'transactions' message in both wire formats, as done in the consumers.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionDecodeBenchmark {
+
+    @Param({"NO_RULES", "ALL_RULES"})
+    public BenchmarkFixtures.Scenario scenario;
+
+    private ObjectMapper objectMapper;
+    private MessageCodec codec;
+    private String message;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new JacksonConfig().objectMapper();
+        codec = new MessageCodec(objectMapper, WireFormat.BINARY, WireFormat.BINARY);
+        message = BenchmarkFixtures.transactionJson(scenario);
+        jsonBytes = message.getBytes(StandardCharsets.UTF_8);
+        binaryBytes = codec.encodeTransaction(codec.decodeTransaction(jsonBytes));
+    }
+
+    @Benchmark
+    public TransactionRequestDTO consumerReadValue() throws Exception {
+        return objectMapper.readValue(message, TransactionRequestDTO.class);
+    }
+
+    @Benchmark
+    public TransactionRequestDTO codecDecodeJson() throws Exception {
+        return codec.decodeTransaction(jsonBytes);
+    }
+
+    @Benchmark
+    public TransactionRequestDTO codecDecodeBinary() throws Exception {
+        return codec.decodeTransaction(binaryBytes);
+    }
+
+    @Benchmark
+    public Transactions codecDecodeEntityJson() throws Exception {
+        return codec.decodeTransactionEntity(jsonBytes);
+    }
+
+    @Benchmark
+    public Transactions codecDecodeEntityBinary() throws Exception {
+        return codec.decodeTransactionEntity(binaryBytes);
+    }
+}
@@ -7,9 +7,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableKafka
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.bankfraud.fraud_detection_service.repositories")
 @EntityScan(basePackages = "com.bankfraud.fraud_detection_service.entities")
 public class FraudDetectionServiceApplication {
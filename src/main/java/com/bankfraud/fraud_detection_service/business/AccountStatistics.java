@@ -0,0 +1,109 @@
+package com.bankfraud.fraud_detection_service.business;
+
+import java.time.LocalDate;
+
+
+ // Streaming statistics of one account, updated with each of its transactions.
+ // Transaction amount: EWMA whose weight is at least 1/n over the first n samples, i.e. a plain mean
+ // while the account is new, so the first transaction does not dominate the average.
+ // Daily spend: running total of the current day, folded into an EWMA of daily totals when a later
+ // day starts; days without transactions in between count as zero spend. Not thread-safe.
+
+public final class AccountStatistics {
+
+    private final double alpha;
+    private final double dailyAlpha;
+
+    private double avgTxnAmount;
+    private long samples;          // observations behind avgTxnAmount; a posted prior counts as several
+    private long txnCount;
+
+    private double avgDailySpend = Double.NaN; // NaN until a first day has completed
+    private long day = Long.MIN_VALUE;         // epoch day of daySpend
+    private double daySpend;
+
+    public AccountStatistics(double alpha, double dailyAlpha) {
+        if (!(alpha > 0 && alpha <= 1) || !(dailyAlpha > 0 && dailyAlpha <= 1)) {
+            throw new IllegalArgumentException("EWMA weights must be in (0, 1]");
+        }
+        this.alpha = alpha;
+        this.dailyAlpha = dailyAlpha;
+    }
+
+    // Resumes from stored values. avgTxnAmount and avgDailySpend may be null (nothing learned yet).
+
+    public void seed(Double avgTxnAmount, long samples, long txnCount,
+                     Double avgDailySpend, LocalDate day, double daySpend) {
+        this.avgTxnAmount = avgTxnAmount != null ? avgTxnAmount : 0;
+        this.samples = avgTxnAmount != null ? Math.max(1, samples) : 0;
+        this.txnCount = txnCount;
+        this.avgDailySpend = avgDailySpend != null ? avgDailySpend : Double.NaN;
+        this.day = day != null ? day.toEpochDay() : Long.MIN_VALUE;
+        this.daySpend = day != null ? daySpend : 0;
+    }
+
+    // date is the transaction's own day; a transaction older than the current day only counts for the average.
+
+    public void observe(double amount, LocalDate date) {
+        txnCount++;
+        samples++;
+        avgTxnAmount += Math.max(alpha, 1.0 / samples) * (amount - avgTxnAmount);
+
+        if (date == null) {
+            return;
+        }
+
+        long epochDay = date.toEpochDay();
+        if (day == Long.MIN_VALUE) {
+            day = epochDay;
+        } else if (epochDay > day) {
+            rollOver(epochDay);
+        } else if (epochDay < day) {
+            return;
+        }
+        daySpend += amount;
+    }
+
+    private void rollOver(long epochDay) {
+        avgDailySpend = Double.isNaN(avgDailySpend)
+                ? daySpend
+                : avgDailySpend + dailyAlpha * (daySpend - avgDailySpend);
+
+        // Idle days in between: each one is a zero-spend day
+        long idleDays = epochDay - day - 1;
+        if (idleDays > 0) {
+            avgDailySpend *= Math.pow(1 - dailyAlpha, idleDays);
+        }
+
+        day = epochDay;
+        daySpend = 0;
+    }
+
+    public double avgTxnAmount() {
+        return avgTxnAmount;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public long txnCount() {
+        return txnCount;
+    }
+
+    // Null until a first full day has been observed
+
+    public Double avgDailySpend() {
+        return Double.isNaN(avgDailySpend) ? null : avgDailySpend;
+    }
+
+    // Day of daySpend(), null before the first dated transaction
+
+    public LocalDate day() {
+        return day == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    public double daySpend() {
+        return daySpend;
+    }
+}
@@ -3,12 +3,14 @@ package com.bankfraud.fraud_detection_service.business;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
 
  // Holds the result of fraud evaluation : Pure business object:
+ // BigDecimal / enum view used for persistence and the alert payload; the hot path works on
+ // the bitmask produced by FraudRuleKernel and only builds this view when needed.
 
 
 @Data
@@ -22,7 +24,7 @@ public class FraudDecision {
 
      // All triggered fraud rules.
 
-    private Set<FraudRuleType> triggeredRules = new HashSet<>();
+    private Set<FraudRuleType> triggeredRules = EnumSet.noneOf(FraudRuleType.class);
 
     public List<FraudRuleType> getTriggeredRules() {
         return new ArrayList<>(triggeredRules);
@@ -32,10 +34,41 @@ public class FraudDecision {
 
     /* ---------------- Business helpers ---------------- */
 
+    public static FraudDecision fromMask(int triggeredMask) {
+        FraudDecision decision = new FraudDecision();
+        for (FraudRuleType rule : FraudRuleType.values()) {
+            if (rule.isSetIn(triggeredMask)) {
+                decision.addRule(rule);
+            }
+        }
+        return decision;
+    }
+
+    // Comma-joined rule names, in rule order, as stored in fraud_alerts.alert_type
+
+    public String getAlertType() {
+        StringBuilder type = new StringBuilder();
+        for (FraudRuleType rule : triggeredRules) {
+            if (type.length() > 0) {
+                type.append(',');
+            }
+            type.append(rule.name());
+        }
+        return type.toString();
+    }
+
     public void addRule(FraudRuleType rule) {
         triggeredRules.add(rule);
     }
 
+    public int getTriggeredRuleMask() {
+        int mask = 0;
+        for (FraudRuleType rule : triggeredRules) {
+            mask |= rule.mask();
+        }
+        return mask;
+    }
+
     public boolean hasAlerts() {
         return fraudulent;
     }
@@ -0,0 +1,56 @@
+package com.bankfraud.fraud_detection_service.business;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+
+ // Inputs the rules depend on, with an estimated cost of obtaining them.
+ // The lazy evaluation path fetches features cheapest first and skips a lookup only when the
+ // transaction can no longer reach the alert threshold, so the expensive ones (the profile can mean
+ // a database read) are only paid for when they matter. In-memory features are always evaluated.
+
+public enum FraudFeature {
+
+    TRANSACTION(0, true),  // fields of the transaction itself
+    VELOCITY(1, true),     // in-memory velocity windows
+    PROFILE(10, false);    // account profile: cache, database on a miss
+
+    // Evaluation order: ascending cost
+    static final FraudFeature[] BY_COST = sortedByCost();
+
+    private final int cost;
+    private final boolean inMemory;
+
+    FraudFeature(int cost, boolean inMemory) {
+        this.cost = cost;
+        this.inMemory = inMemory;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    // Read without a lookup: never worth skipping
+
+    public boolean isInMemory() {
+        return inMemory;
+    }
+
+    // Rules that need this feature, as a FraudRuleType bitmask
+
+    public int ruleMask() {
+        int mask = 0;
+        for (FraudRuleType rule : FraudRuleType.values()) {
+            if (rule.feature() == this) {
+                mask |= rule.mask();
+            }
+        }
+        return mask;
+    }
+
+    private static FraudFeature[] sortedByCost() {
+        FraudFeature[] features = values();
+        Arrays.sort(features, Comparator.comparingInt(FraudFeature::cost));
+        return features;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bankfraud.fraud_detection_service.business;
+
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+
+
+ // Supplies the features of one transaction on demand.
+ // FraudRuleEngine.evaluateLazily() only calls the methods of features it actually needs;
+ // implementations fetch on first call and remember the result.
+
+public interface FraudFeatureSource {
+
+    // Transactions of the account inside the velocity window
+    int velocityWindowCount();
+
+    // Transactions of the account inside the rapid-transfer window
+    int rapidWindowCount();
+
+    // Account profile, or null when the account has none
+    AccountProfiles profile();
+
+    // True when the feature is at hand without a lookup (e.g. a profile already cached), so
+    // short-circuiting would save nothing; such features are always evaluated
+    default boolean isCached(FraudFeature feature) {
+        return false;
+    }
+}
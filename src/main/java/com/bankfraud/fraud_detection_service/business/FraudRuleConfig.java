@@ -0,0 +1,214 @@
+package com.bankfraud.fraud_detection_service.business;
+
+import com.bankfraud.fraud_detection_service.dtos.RuleConfigDTO;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+
+ // Immutable, compiled snapshot of the rule thresholds and weights.
+ // Amounts are held in minor units and the weights as a score table, so the hot path reads
+ // plain fields. A new version is compiled from a RuleConfigDTO and swapped in as a whole.
+
+public final class FraudRuleConfig {
+
+    // The values the rules shipped with; also seeded as version 1 by the V3 migration
+    public static final FraudRuleConfig DEFAULT = compile(0, defaultDefinition());
+
+    private static final long NANOS_PER_HOUR = 3_600_000_000_000L;
+
+    private final long version;
+
+    private final long absoluteAmountThresholdMinor;
+    private final long unusualAmountMultiplier;
+    private final long nightAmountFloorMinor;
+    private final long nightEndNanoOfDay;
+    private final int velocityMinCount;
+    private final int velocityWindowSeconds;
+    private final int rapidTransferMinCount;
+    private final int rapidTransferWindowSeconds;
+    private final int alertScoreThreshold;
+    private final FraudRuleWeights weights;
+
+    // Highest score each feature's rules can add, indexed by FraudFeature.ordinal()
+    private final int[] maxContributionByFeature;
+    private final int maxScore;
+
+    private FraudRuleConfig(long version, RuleConfigDTO definition, FraudRuleWeights weights) {
+        this.version = version;
+        this.absoluteAmountThresholdMinor = MinorUnits.of(definition.getAbsoluteAmountThreshold());
+        this.unusualAmountMultiplier = definition.getUnusualAmountMultiplier();
+        this.nightAmountFloorMinor = MinorUnits.of(definition.getNightAmountFloor());
+        this.nightEndNanoOfDay = definition.getNightEndHour() * NANOS_PER_HOUR;
+        this.velocityMinCount = definition.getVelocityMinCount();
+        this.velocityWindowSeconds = definition.getVelocityWindowSeconds();
+        this.rapidTransferMinCount = definition.getRapidTransferMinCount();
+        this.rapidTransferWindowSeconds = definition.getRapidTransferWindowSeconds();
+        this.alertScoreThreshold = definition.getAlertScoreThreshold();
+        this.weights = weights;
+
+        this.maxContributionByFeature = new int[FraudFeature.values().length];
+        for (FraudFeature feature : FraudFeature.values()) {
+            maxContributionByFeature[feature.ordinal()] = weights.score(feature.ruleMask());
+        }
+        this.maxScore = weights.score((1 << FraudRuleType.values().length) - 1);
+    }
+
+    // Validates a definition and compiles it; throws IllegalArgumentException on a bad definition.
+
+    public static FraudRuleConfig compile(long version, RuleConfigDTO definition) {
+        require(definition != null, "rule configuration is missing");
+
+        require(positive(definition.getAbsoluteAmountThreshold()), "absoluteAmountThreshold must be > 0");
+        require(positive(definition.getUnusualAmountMultiplier()), "unusualAmountMultiplier must be > 0");
+        require(definition.getNightAmountFloor() != null
+                && definition.getNightAmountFloor().signum() >= 0, "nightAmountFloor must be >= 0");
+        // Compared with amounts rounded up to minor units: a limit between two of them would not be exact
+        require(inMinorUnits(definition.getAbsoluteAmountThreshold())
+                && inMinorUnits(definition.getNightAmountFloor()), "amount limits may have at most 2 decimals");
+        require(definition.getNightEndHour() != null
+                && definition.getNightEndHour() >= 0
+                && definition.getNightEndHour() <= 24, "nightEndHour must be between 0 and 24");
+        require(positive(definition.getVelocityMinCount()), "velocityMinCount must be > 0");
+        require(positive(definition.getVelocityWindowSeconds()), "velocityWindowSeconds must be > 0");
+        require(positive(definition.getRapidTransferMinCount()), "rapidTransferMinCount must be > 0");
+        require(positive(definition.getRapidTransferWindowSeconds()), "rapidTransferWindowSeconds must be > 0");
+        require(definition.getAlertScoreThreshold() != null
+                && definition.getAlertScoreThreshold() >= 0, "alertScoreThreshold must be >= 0");
+
+        Map<FraudRuleType, Integer> weights = definition.getWeights();
+        require(weights != null, "weights are missing");
+
+        int[] byOrdinal = new int[FraudRuleType.values().length];
+        for (FraudRuleType rule : FraudRuleType.values()) {
+            Integer weight = weights.get(rule);
+            require(weight != null && weight >= 0, "weight for " + rule + " must be >= 0");
+            byOrdinal[rule.ordinal()] = weight;
+        }
+
+        return new FraudRuleConfig(version, definition, new FraudRuleWeights(byOrdinal));
+    }
+
+    // Definition of this snapshot, as returned by GET /api/rules.
+
+    public RuleConfigDTO toDefinition() {
+        Map<FraudRuleType, Integer> weightMap = new EnumMap<>(FraudRuleType.class);
+        for (FraudRuleType rule : FraudRuleType.values()) {
+            weightMap.put(rule, weights.weight(rule));
+        }
+
+        return new RuleConfigDTO(
+                version,
+                MinorUnits.toBigDecimal(absoluteAmountThresholdMinor),
+                (int) unusualAmountMultiplier,
+                MinorUnits.toBigDecimal(nightAmountFloorMinor),
+                (int) (nightEndNanoOfDay / NANOS_PER_HOUR),
+                velocityMinCount,
+                velocityWindowSeconds,
+                rapidTransferMinCount,
+                rapidTransferWindowSeconds,
+                alertScoreThreshold,
+                weightMap
+        );
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getAbsoluteAmountThresholdMinor() {
+        return absoluteAmountThresholdMinor;
+    }
+
+    public long getUnusualAmountMultiplier() {
+        return unusualAmountMultiplier;
+    }
+
+    public long getNightAmountFloorMinor() {
+        return nightAmountFloorMinor;
+    }
+
+    public long getNightEndNanoOfDay() {
+        return nightEndNanoOfDay;
+    }
+
+    public int getVelocityMinCount() {
+        return velocityMinCount;
+    }
+
+    public int getVelocityWindowSeconds() {
+        return velocityWindowSeconds;
+    }
+
+    public int getRapidTransferMinCount() {
+        return rapidTransferMinCount;
+    }
+
+    public int getRapidTransferWindowSeconds() {
+        return rapidTransferWindowSeconds;
+    }
+
+    public int getAlertScoreThreshold() {
+        return alertScoreThreshold;
+    }
+
+    public FraudRuleWeights getWeights() {
+        return weights;
+    }
+
+    public int getMaxContribution(FraudFeature feature) {
+        return maxContributionByFeature[feature.ordinal()];
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    // True when the rules still to be evaluated cannot add enough to reach the alert threshold.
+
+    public boolean isOutOfReach(int score, int remainingMaxContribution) {
+        return score + remainingMaxContribution < alertScoreThreshold;
+    }
+
+    private static RuleConfigDTO defaultDefinition() {
+        Map<FraudRuleType, Integer> weights = new EnumMap<>(FraudRuleType.class);
+        weights.put(FraudRuleType.UNUSUAL_AMOUNT, 50);
+        weights.put(FraudRuleType.VELOCITY, 40);
+        weights.put(FraudRuleType.GEO_MISMATCH, 45);
+        weights.put(FraudRuleType.NIGHT_TX, 40);
+        weights.put(FraudRuleType.RAPID_TRANSFER, 40);
+
+        return new RuleConfigDTO(
+                0L,
+                new BigDecimal("100000"),
+                3,
+                new BigDecimal("50000"),
+                4,
+                3,
+                2 * 60,
+                10,
+                5 * 60,
+                40,
+                weights
+        );
+    }
+
+    private static boolean positive(BigDecimal value) {
+        return value != null && value.signum() > 0;
+    }
+
+    private static boolean inMinorUnits(BigDecimal value) {
+        return value.stripTrailingZeros().scale() <= 2;
+    }
+
+    private static boolean positive(Integer value) {
+        return value != null && value > 0;
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException("Invalid rule configuration: " + message);
+        }
+    }
+}
@@ -4,22 +4,19 @@ package com.bankfraud.fraud_detection_service.business;
 import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
 import com.bankfraud.fraud_detection_service.entities.Transactions;
 import java.math.BigDecimal;
-import java.time.LocalTime;
 
 
 
 //Core fraud rules implementation.
 // It is NOT a Spring @Component or @Service : All required data is passed as method parameters.
+// The rules themselves live in FraudRuleKernel; this adapts entities to its primitive inputs.
 
 public class FraudRuleEngine {
 
-    //Absolute amount threshold.
+    private final FraudRuleKernel kernel = new FraudRuleKernel();
 
-    private static final BigDecimal ABSOLUTE_AMOUNT_THRESHOLD =
-            new BigDecimal("100000");
 
-
-     //Evaluates all fraud rules against a transaction.
+     //Evaluates all fraud rules against a transaction, with the default thresholds.
 
     public FraudDecision evaluate(Transactions tx,
                                   AccountProfiles profile,
@@ -27,51 +24,114 @@ public class FraudRuleEngine {
                                   boolean geoMismatch,
                                   boolean rapidTransfers) {
 
-        FraudDecision decision = new FraudDecision();
+        return FraudDecision.fromMask(
+                evaluateMask(FraudRuleConfig.DEFAULT, tx, profile, recentTxCount, geoMismatch, rapidTransfers));
+    }
 
-        /* ---------------- Rule 1: Unusual Amount ---------------- */
+    public int evaluateMask(Transactions tx,
+                            AccountProfiles profile,
+                            int recentTxCount,
+                            boolean geoMismatch,
+                            boolean rapidTransfers) {
 
-        if (profile != null && tx.getAmount() != null) {
-            BigDecimal avg = profile.getAvgTxnAmount();
+        return evaluateMask(FraudRuleConfig.DEFAULT, tx, profile, recentTxCount, geoMismatch, rapidTransfers);
+    }
 
-            if ((avg != null &&
-                    tx.getAmount().compareTo(avg.multiply(BigDecimal.valueOf(3))) > 0)
-                    || tx.getAmount().compareTo(ABSOLUTE_AMOUNT_THRESHOLD) > 0) {
 
-                decision.addRule(FraudRuleType.UNUSUAL_AMOUNT);
-            }
-        }
+     // Same rules under the given config snapshot, returning the triggered rules as a
+     // FraudRuleType bitmask without allocating.
+
+    public int evaluateMask(FraudRuleConfig config,
+                            Transactions tx,
+                            AccountProfiles profile,
+                            int recentTxCount,
+                            boolean geoMismatch,
+                            boolean rapidTransfers) {
+
+        BigDecimal amount = tx.getAmount();
+
+        return kernel.evaluate(
+                config,
+                amount != null ? MinorUnits.ceil(amount) : 0L,
+                profile != null && amount != null,
+                averageTxnAmountMinor(profile),
+                tx.getTimestamp().toLocalTime().toNanoOfDay(),
+                recentTxCount,
+                geoMismatch,
+                rapidTransfers
+        );
+    }
 
-        /* ---------------- Rule 2: Velocity ---------------- */
 
-        if (recentTxCount >= 3) {
-            decision.addRule(FraudRuleType.VELOCITY);
-        }
+     // Lazy variant: features are fetched from the source cheapest first (FraudFeature.cost()) and,
+     // with shortCircuit, a feature needing a lookup is left unfetched once the alert threshold is out
+     // of reach. Only transactions that cannot alert lose rules that way: an alert always carries the
+     // complete mask, and in-memory or cached features are evaluated regardless.
 
-        /* ---------------- Rule 3: Geo Mismatch ---------------- */
+    public int evaluateLazily(FraudRuleConfig config,
+                              Transactions tx,
+                              FraudFeatureSource features,
+                              boolean shortCircuit) {
 
-        if (geoMismatch) {
-            decision.addRule(FraudRuleType.GEO_MISMATCH);
-        }
+        BigDecimal amount = tx.getAmount();
+        long amountMinor = amount != null ? MinorUnits.ceil(amount) : 0L;
 
-        /* ---------------- Rule 4: Night Transactions ---------------- */
+        int mask = 0;
+        int remaining = config.getMaxScore();
 
-        LocalTime time = tx.getTimestamp().toLocalTime();
+        for (FraudFeature feature : FraudFeature.BY_COST) {
 
-        if (time.isAfter(LocalTime.MIDNIGHT)
-                && time.isBefore(LocalTime.of(4, 0))
-                && tx.getAmount().compareTo(new BigDecimal("50000")) > 0) {
+            boolean skip = shortCircuit
+                    && !feature.isInMemory()
+                    && !features.isCached(feature)
+                    && config.isOutOfReach(config.getWeights().score(mask), remaining);
 
-            decision.addRule(FraudRuleType.NIGHT_TX);
-        }
+            remaining -= config.getMaxContribution(feature);
 
-        /* ---------------- Rule 5: Rapid Transfers ---------------- */
+            if (skip) {
+                continue;
+            }
 
-        if (rapidTransfers) {
-            decision.addRule(FraudRuleType.RAPID_TRANSFER);
+            switch (feature) {
+                case TRANSACTION -> mask |= kernel.transactionRules(
+                        config,
+                        amountMinor,
+                        tx.getTimestamp().toLocalTime().toNanoOfDay()
+                );
+                case VELOCITY -> mask |= kernel.velocityRules(
+                        config,
+                        features.velocityWindowCount(),
+                        features.rapidWindowCount() >= config.getRapidTransferMinCount()
+                );
+                case PROFILE -> {
+                    AccountProfiles profile = features.profile();
+                    mask |= kernel.profileRules(
+                            config,
+                            amountMinor,
+                            profile != null && amount != null,
+                            averageTxnAmountMinor(profile),
+                            isGeoMismatch(tx, profile)
+                    );
+                }
+            }
         }
 
-        return decision;
+        return mask;
     }
-}
 
+    // Transaction country differs from the account's home country
+
+    public static boolean isGeoMismatch(Transactions tx, AccountProfiles profile) {
+        return profile != null
+                && tx.getLocation() != null
+                && profile.getHomeCountry() != null
+                && !tx.getLocation().equalsIgnoreCase(profile.getHomeCountry());
+    }
+
+    private static long averageTxnAmountMinor(AccountProfiles profile) {
+        if (profile == null || profile.getAvgTxnAmount() == null) {
+            return FraudRuleKernel.NO_AVERAGE;
+        }
+        return MinorUnits.of(profile.getAvgTxnAmount());
+    }
+}
@@ -0,0 +1,94 @@
+package com.bankfraud.fraud_detection_service.business;
+
+
+ // Allocation-free core of the fraud rules.
+ // Works on primitives only: amounts in minor units, time as nano-of-day, and returns the
+ // triggered rules as a bitmask of FraudRuleType.mask(). FraudRuleEngine wraps it for entity callers.
+ // Thresholds come from the FraudRuleConfig snapshot passed in, so a reload never races an evaluation.
+
+public final class FraudRuleKernel {
+
+    // Marker for a profile without an average transaction amount
+    public static final long NO_AVERAGE = Long.MIN_VALUE;
+
+    public int evaluate(FraudRuleConfig config,
+                        long amountMinor,
+                        boolean hasProfile,
+                        long avgTxnAmountMinor,
+                        long nanoOfDay,
+                        int recentTxCount,
+                        boolean geoMismatch,
+                        boolean rapidTransfers) {
+
+        return transactionRules(config, amountMinor, nanoOfDay)
+                | velocityRules(config, recentTxCount, rapidTransfers)
+                | profileRules(config, amountMinor, hasProfile, avgTxnAmountMinor, geoMismatch);
+    }
+
+    // Rules per FraudFeature, so the lazy path can evaluate one group at a time
+
+    public int transactionRules(FraudRuleConfig config, long amountMinor, long nanoOfDay) {
+
+        /* ---------------- Rule 4: Night Transactions (strictly between 00:00 and the configured hour) ---------------- */
+
+        if (nanoOfDay > 0
+                && nanoOfDay < config.getNightEndNanoOfDay()
+                && amountMinor > config.getNightAmountFloorMinor()) {
+
+            return FraudRuleType.NIGHT_TX.mask();
+        }
+
+        return 0;
+    }
+
+    public int velocityRules(FraudRuleConfig config, int recentTxCount, boolean rapidTransfers) {
+
+        int mask = 0;
+
+        /* ---------------- Rule 2: Velocity ---------------- */
+
+        if (recentTxCount >= config.getVelocityMinCount()) {
+            mask |= FraudRuleType.VELOCITY.mask();
+        }
+
+        /* ---------------- Rule 5: Rapid Transfers ---------------- */
+
+        if (rapidTransfers) {
+            mask |= FraudRuleType.RAPID_TRANSFER.mask();
+        }
+
+        return mask;
+    }
+
+    public int profileRules(FraudRuleConfig config,
+                            long amountMinor,
+                            boolean hasProfile,
+                            long avgTxnAmountMinor,
+                            boolean geoMismatch) {
+
+        int mask = 0;
+
+        /* ---------------- Rule 1: Unusual Amount (needs a profile) ---------------- */
+
+        if (hasProfile
+                && (exceedsMultipleOfAverage(amountMinor, avgTxnAmountMinor, config.getUnusualAmountMultiplier())
+                || amountMinor > config.getAbsoluteAmountThresholdMinor())) {
+
+            mask |= FraudRuleType.UNUSUAL_AMOUNT.mask();
+        }
+
+        /* ---------------- Rule 3: Geo Mismatch ---------------- */
+
+        if (geoMismatch) {
+            mask |= FraudRuleType.GEO_MISMATCH.mask();
+        }
+
+        return mask;
+    }
+
+    private static boolean exceedsMultipleOfAverage(long amountMinor, long avgTxnAmountMinor, long multiplier) {
+        return avgTxnAmountMinor != NO_AVERAGE
+                && avgTxnAmountMinor <= Long.MAX_VALUE / multiplier
+                && amountMinor > avgTxnAmountMinor * multiplier;
+    }
+}
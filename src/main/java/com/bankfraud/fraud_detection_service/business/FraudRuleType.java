@@ -5,9 +5,33 @@ package com.bankfraud.fraud_detection_service.business;
 
 public enum FraudRuleType {
 
-    UNUSUAL_AMOUNT,
-    VELOCITY,
-    GEO_MISMATCH,
-    NIGHT_TX,
-    RAPID_TRANSFER
+    UNUSUAL_AMOUNT(FraudFeature.PROFILE),
+    VELOCITY(FraudFeature.VELOCITY),
+    GEO_MISMATCH(FraudFeature.PROFILE),
+    NIGHT_TX(FraudFeature.TRANSACTION),
+    RAPID_TRANSFER(FraudFeature.VELOCITY);
+
+    private final FraudFeature feature;
+
+    FraudRuleType(FraudFeature feature) {
+        this.feature = feature;
+    }
+
+    // Input this rule needs; its cost decides when the rule is evaluated on the lazy path
+
+    public FraudFeature feature() {
+        return feature;
+    }
+
+    // Bit of this rule in a triggered-rules bitmask (see FraudRuleKernel)
+
+    private final int mask = 1 << ordinal();
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean isSetIn(int triggeredMask) {
+        return (triggeredMask & mask) != 0;
+    }
 }
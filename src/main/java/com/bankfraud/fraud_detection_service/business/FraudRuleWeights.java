@@ -0,0 +1,36 @@
+package com.bankfraud.fraud_detection_service.business;
+
+
+ // Rule weights compiled into a score table indexed by triggered-rule bitmask,
+ // so scoring a decision is a single array read. Built as part of a FraudRuleConfig snapshot.
+
+public final class FraudRuleWeights {
+
+    private static final FraudRuleType[] RULES = FraudRuleType.values();
+
+    private final int[] weights;
+    private final int[] scoreByMask;
+
+    // weights are indexed by FraudRuleType.ordinal()
+
+    public FraudRuleWeights(int[] weights) {
+        if (weights.length != RULES.length) {
+            throw new IllegalArgumentException("Expected " + RULES.length + " rule weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+        this.scoreByMask = new int[1 << RULES.length];
+
+        for (int mask = 1; mask < scoreByMask.length; mask++) {
+            // score(mask) = score(mask without its lowest rule) + weight(lowest rule)
+            scoreByMask[mask] = scoreByMask[mask & (mask - 1)] + this.weights[Integer.numberOfTrailingZeros(mask)];
+        }
+    }
+
+    public int score(int triggeredMask) {
+        return scoreByMask[triggeredMask];
+    }
+
+    public int weight(FraudRuleType rule) {
+        return weights[rule.ordinal()];
+    }
+}
@@ -6,21 +6,18 @@ import java.math.BigDecimal;
 
 public class FraudScoringService {
 
-    public BigDecimal calculateScore(FraudDecision decision) {
+    private final FraudRuleWeights weights;
 
-        BigDecimal score = BigDecimal.ZERO;
-
-        for (FraudRuleType rule : decision.getTriggeredRules()) {
-            // concise switch expression syntax
-            switch (rule) {
-                case UNUSUAL_AMOUNT -> score = score.add(BigDecimal.valueOf(50));
-                case VELOCITY -> score = score.add(BigDecimal.valueOf(40));
-                case GEO_MISMATCH -> score = score.add(BigDecimal.valueOf(45));
-                case NIGHT_TX -> score = score.add(BigDecimal.valueOf(40));
-                case RAPID_TRANSFER -> score = score.add(BigDecimal.valueOf(40));
-            }
-        }
-        return score;
+    public FraudScoringService() {
+        this(FraudRuleConfig.DEFAULT.getWeights());
+    }
+
+    public FraudScoringService(FraudRuleWeights weights) {
+        this.weights = weights;
     }
-}
 
+    public BigDecimal calculateScore(FraudDecision decision) {
+        // precomputed table: one lookup for the whole set of triggered rules
+        return BigDecimal.valueOf(weights.score(decision.getTriggeredRuleMask()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.bankfraud.fraud_detection_service.business;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+
+ // Conversions between BigDecimal amounts and long minor units (2 decimal places, as NUMERIC(18,2)).
+
+public final class MinorUnits {
+
+    private static final int SCALE = 2;
+
+    // Integer digits for which value * 100 stays below 2^53, so the double path is exact
+    private static final int MAX_EXACT_INTEGER_DIGITS = 13;
+
+    private MinorUnits() {
+    }
+
+    public static long of(BigDecimal amount) {
+        int scale = amount.scale();
+
+        // Fast path: compact values with 0..2 decimals convert through doubleValue() without allocating
+        if (scale >= 0 && scale <= SCALE && amount.precision() - scale <= MAX_EXACT_INTEGER_DIGITS) {
+            return Math.round(amount.doubleValue() * 100);
+        }
+
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Rounds up to the next minor unit: for a limit in whole minor units, amount > limit exactly when
+    // ceil(amount) > limit, so an amount with more decimals than the column is never rounded below it.
+
+    public static long ceil(BigDecimal amount) {
+        int scale = amount.scale();
+
+        if (scale >= 0 && scale <= SCALE && amount.precision() - scale <= MAX_EXACT_INTEGER_DIGITS) {
+            return Math.round(amount.doubleValue() * 100);
+        }
+
+        return amount.setScale(SCALE, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
@@ -1,5 +1,6 @@
 package com.bankfraud.fraud_detection_service.configs;
 
+import com.bankfraud.fraud_detection_service.controllers.InvestigationController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -15,7 +16,8 @@ public class CorsConfig {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
-                registry.addMapping("/**").allowedOrigins("http://localhost:3000");
+                registry.addMapping("/**").allowedOrigins("http://localhost:3000")
+                        .exposedHeaders(InvestigationController.NEXT_CURSOR_HEADER); // keyset paging
             }
         };
     }
@@ -0,0 +1,82 @@
+package com.bankfraud.fraud_detection_service.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Map;
+
+
+ // Listener container factories for the alternative consumption modes (batch, parallel).
+ // The default single-record mode uses Spring Boot's auto-configured kafkaListenerContainerFactory.
+ // Client metrics (records-lag-max and the rest of kafka.consumer.*) are bound to Micrometer, as Boot does for its own factory.
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    // Batch mode: one listener call per poll, sized by max-records and max-wait-ms.
+
+    @Bean
+    @ConditionalOnProperty(name = "fraud.kafka.listener-mode", havingValue = "batch")
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory(
+            KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles,
+            MeterRegistry meterRegistry,
+            @Value("${fraud.kafka.batch.max-records:500}") int maxRecords,
+            @Value("${fraud.kafka.batch.max-wait-ms:100}") int maxWaitMs,
+            @Value("${fraud.kafka.batch.min-bytes:65536}") int minBytes) {
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(sslBundles.getIfAvailable());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxRecords);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, maxWaitMs);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, minBytes);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory(props, meterRegistry));
+        factory.setBatchListener(true);
+
+        return factory;
+    }
+
+    // Parallel mode: records are handed to worker lanes and acknowledged out of order.
+    // Async acks make the container hold back a commit until all earlier offsets are acknowledged.
+
+    @Bean
+    @ConditionalOnProperty(name = "fraud.kafka.listener-mode", havingValue = "parallel")
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> parallelKafkaListenerContainerFactory(
+            KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles,
+            MeterRegistry meterRegistry,
+            @Value("${fraud.kafka.parallel.max-poll-records:500}") int maxPollRecords) {
+
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(sslBundles.getIfAvailable());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory(props, meterRegistry));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+
+        return factory;
+    }
+
+    private static DefaultKafkaConsumerFactory<String, byte[]> consumerFactory(Map<String, Object> props,
+                                                                             MeterRegistry meterRegistry) {
+        DefaultKafkaConsumerFactory<String, byte[]> consumerFactory = new DefaultKafkaConsumerFactory<>(props);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
+    }
+}
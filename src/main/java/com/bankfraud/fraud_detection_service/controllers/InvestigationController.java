@@ -4,59 +4,59 @@ import com.bankfraud.fraud_detection_service.dtos.AccountProfileRequestDTO;
 import com.bankfraud.fraud_detection_service.dtos.FraudAlertDTO;
 import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
 import com.bankfraud.fraud_detection_service.repositories.AccountProfilesRepository;
-import com.bankfraud.fraud_detection_service.repositories.FraudAlertsRepository;
-import com.bankfraud.fraud_detection_service.repositories.TransactionsRepository;
+import com.bankfraud.fraud_detection_service.services.InvestigationQueryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/accounts")
 @RequiredArgsConstructor
 public class InvestigationController {
 
-    private final TransactionsRepository transactionsRepo;
-    private final FraudAlertsRepository alertsRepo;
+    // Cursor for the next (older) page; absent on the last page
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final InvestigationQueryService queryService;
     private final AccountProfilesRepository profilesRepo;
 
     @GetMapping("/{accountId}/transactions")
-    public List<TransactionRequestDTO> getRecentTransactions(@PathVariable String accountId,
-                                                             @RequestParam(defaultValue = "50") int limit) {
-        return transactionsRepo.findTop20ByAccountIdOrderByTimestampDesc(accountId)
-                .stream()
-                .map(tx -> new TransactionRequestDTO(
-                        tx.getTransactionId(),
-                        tx.getAccountId(),
-                        tx.getTxnType(),
-                        tx.getAmount(),
-                        tx.getCurrency(),
-                        tx.getLocation(),
-                        tx.getMerchant(),
-                        tx.getTimestamp().toString()
-                ))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<TransactionRequestDTO>> getRecentTransactions(@PathVariable String accountId,
+                                                                             @RequestParam(defaultValue = "50") int limit,
+                                                                             @RequestParam(required = false) String cursor) {
+        return toResponse(page(() -> queryService.transactions(accountId, cursor, limit)));
     }
 
     @GetMapping("/{accountId}/alerts")
-    public List<FraudAlertDTO> getRecentAlerts(@PathVariable String accountId,
-                                               @RequestParam(defaultValue = "50") int limit) {
-        return alertsRepo.findTop20ByAccountIdOrderByDetectedAtDesc(accountId)
-                .stream()
-                .map(alert -> new FraudAlertDTO(
-                        alert.getId(),
-                        alert.getAccountId(),
-                        alert.getAlertType(),
-                        alert.getAlertScore(),
-                        alert.getRelatedTxnId(),
-                        alert.getDetails(),
-                        alert.getDetectedAt(),
-                        alert.getAcknowledged()
-                ))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<FraudAlertDTO>> getRecentAlerts(@PathVariable String accountId,
+                                                               @RequestParam(defaultValue = "50") int limit,
+                                                               @RequestParam(required = false) String cursor) {
+        return toResponse(page(() -> queryService.alerts(accountId, cursor, limit)));
+    }
+
+    // Full history, newest first, one JSON object per line
+
+    @GetMapping("/{accountId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable String accountId) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> queryService.exportTransactions(accountId, out));
+    }
+
+    @GetMapping("/{accountId}/alerts/export")
+    public ResponseEntity<StreamingResponseBody> exportAlerts(@PathVariable String accountId) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> queryService.exportAlerts(accountId, out));
     }
 
     @GetMapping("/{accountId}/profile")
@@ -71,5 +71,23 @@ public class InvestigationController {
                 ))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
-}
 
+    // Bad limit or cursor -> 400
+
+    private static <T> InvestigationQueryService.Page<T> page(
+            Supplier<InvestigationQueryService.Page<T>> query) {
+        try {
+            return query.get();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static <T> ResponseEntity<List<T>> toResponse(InvestigationQueryService.Page<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+}
@@ -0,0 +1,41 @@
+package com.bankfraud.fraud_detection_service.controllers;
+
+import com.bankfraud.fraud_detection_service.dtos.RuleConfigDTO;
+import com.bankfraud.fraud_detection_service.services.FraudRuleConfigRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/rules")
+public class RuleConfigController {
+
+    private final FraudRuleConfigRegistry ruleConfigs;
+
+    public RuleConfigController(FraudRuleConfigRegistry ruleConfigs) {
+        this.ruleConfigs = ruleConfigs;
+    }
+
+    // Active rule configuration
+
+    @GetMapping
+    public ResponseEntity<RuleConfigDTO> getActive() {
+        return ResponseEntity.ok(ruleConfigs.current().toDefinition());
+    }
+
+    // Publish a new version; applied to the next evaluated transaction
+
+    @PostMapping
+    public ResponseEntity<RuleConfigDTO> publish(@RequestBody RuleConfigDTO definition) {
+        try {
+            return ResponseEntity.ok(ruleConfigs.publish(definition).toDefinition());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
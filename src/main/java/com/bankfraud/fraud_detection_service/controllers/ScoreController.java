@@ -0,0 +1,35 @@
+package com.bankfraud.fraud_detection_service.controllers;
+
+import com.bankfraud.fraud_detection_service.dtos.ScoreResponseDTO;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.services.PreAuthScoringService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/score")
+public class ScoreController {
+
+    private final PreAuthScoringService scoringService;
+
+    public ScoreController(PreAuthScoringService scoringService) {
+        this.scoringService = scoringService;
+    }
+
+    // Decision, score and triggered rules within fraud.score.budget-ms; the transaction then
+    // continues through the Kafka pipeline like any other
+
+    @PostMapping
+    public ResponseEntity<ScoreResponseDTO> score(@RequestBody TransactionRequestDTO dto) {
+        try {
+            return ResponseEntity.ok(scoringService.score(dto));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -1,74 +1,95 @@
 package com.bankfraud.fraud_detection_service.controllers;
 
 
+import com.bankfraud.fraud_detection_service.sse.SseBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-
-import static org.apache.kafka.common.requests.DeleteAclsResponse.log;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 @RequestMapping("/stream")
 public class StreamController {
 
-    private final List<SseEmitter> txEmitters = new CopyOnWriteArrayList<>();
-    private final List<SseEmitter> alertEmitters = new CopyOnWriteArrayList<>();
+    // Shared by both streams: writes to client sockets happen here, never on the publishing thread.
+    // Grows past writer-threads up to writer-max-threads when clients block in a write, so one
+    // stalled socket holds only its own thread until the write timeout evicts it. Bounded in threads
+    // and queued tasks: a rejected write task costs the client its oldest event, counted as a drop.
+    private final ExecutorService sseWriters;
+
+    private final SseBroadcaster txBroadcaster;
+    private final SseBroadcaster alertBroadcaster;
+
+    public StreamController(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${fraud.sse.writer-threads:4}") int writerThreads,
+                            @Value("${fraud.sse.writer-max-threads:32}") int writerMaxThreads,
+                            @Value("${fraud.sse.writer-queue-capacity:1024}") int writerQueueCapacity,
+                            @Value("${fraud.sse.client-queue-capacity:1024}") int clientQueueCapacity,
+                            @Value("${fraud.sse.max-consecutive-drops:10000}") int maxConsecutiveDrops,
+                            @Value("${fraud.sse.write-timeout-ms:10000}") long writeTimeoutMillis,
+                            @Value("${fraud.sse.replay-buffer-size:1000}") int replayBufferSize) {
+
+        this.sseWriters = new ThreadPoolExecutor(writerThreads, writerMaxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(writerQueueCapacity), writerThreadFactory());
+
+        this.txBroadcaster = new SseBroadcaster("transactions", "transaction", objectMapper, sseWriters,
+                meterRegistry, clientQueueCapacity, maxConsecutiveDrops, writeTimeoutMillis, replayBufferSize);
+        this.alertBroadcaster = new SseBroadcaster("fraud-alerts", "fraud-alert", objectMapper, sseWriters,
+                meterRegistry, clientQueueCapacity, maxConsecutiveDrops, writeTimeoutMillis, replayBufferSize);
+    }
 
     @GetMapping("/transactions")
-    public SseEmitter streamTransactions() {
-        log.info("SSE client connected for TRANSACTIONS");
-
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        txEmitters.add(emitter);
-
-        emitter.onCompletion(() -> txEmitters.remove(emitter));
-        emitter.onTimeout(() -> txEmitters.remove(emitter));
-        emitter.onError(e -> txEmitters.remove(emitter));
-
-        return emitter;
+    public SseEmitter streamTransactions(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return txBroadcaster.subscribe(lastEventId);
     }
 
     @GetMapping("/fraud-alerts")
-    public SseEmitter streamAlerts() {
-
-        log.info("SSE client connected for FRAUD_ALERTS");
-
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        alertEmitters.add(emitter);
-
-        emitter.onCompletion(() -> alertEmitters.remove(emitter));
-        emitter.onTimeout(() -> alertEmitters.remove(emitter));
-        emitter.onError(e -> alertEmitters.remove(emitter));
-
-        log.info("SSE client connected");
-        return emitter;
+    public SseEmitter streamAlerts(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return alertBroadcaster.subscribe(lastEventId);
     }
 
     public void pushTransaction(Object data) {
-        log.info("Pushing transaction to {} SSE clients", txEmitters.size());
-        for (SseEmitter emitter : txEmitters) {
-            try {
-                emitter.send(SseEmitter.event().name("transaction").data(data));
-            } catch (Exception e) {
-                txEmitters.remove(emitter);
-            }
-        }
+        txBroadcaster.publish(data);
     }
 
     public void pushAlert(Object data) {
+        alertBroadcaster.publish(data);
+    }
 
-        log.info("Pushing alert to {} SSE clients", alertEmitters.size());
+    @Scheduled(fixedDelayString = "${fraud.sse.stall-check-interval-ms:1000}")
+    public void evictStalledClients() {
+        txBroadcaster.evictStalled();
+        alertBroadcaster.evictStalled();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        sseWriters.shutdown();
+        sseWriters.awaitTermination(5, TimeUnit.SECONDS);
+    }
 
-        for (SseEmitter emitter : alertEmitters) {
-            try {
-                emitter.send(SseEmitter.event().name("fraud-alert").data(data));
-            } catch (Exception e) {
-                alertEmitters.remove(emitter);
-            }
-        }
+    private static ThreadFactory writerThreadFactory() {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "sse-writer-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 }
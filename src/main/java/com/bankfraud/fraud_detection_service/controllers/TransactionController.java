@@ -1,29 +1,74 @@
 package com.bankfraud.fraud_detection_service.controllers;
 
+import com.bankfraud.fraud_detection_service.dtos.BulkIngestResultDTO;
 import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
-import com.bankfraud.fraud_detection_service.kafka.TransactionsProducer;
+import com.bankfraud.fraud_detection_service.services.BulkIngestService;
+import com.bankfraud.fraud_detection_service.transport.TransactionTransport;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/transactions")
 public class TransactionController {
 
-    private final TransactionsProducer producer;
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final TransactionTransport transport;
+    private final BulkIngestService bulkIngestService;
 
-    public TransactionController(TransactionsProducer producer) {
-        this.producer = producer;
+    public TransactionController(TransactionTransport transport,
+                                 BulkIngestService bulkIngestService) {
+        this.transport = transport;
+        this.bulkIngestService = bulkIngestService;
     }
 
     @PostMapping
     public ResponseEntity<String> submitTransaction(
             @RequestBody TransactionRequestDTO dto) {
 
-        producer.sendTransaction(dto);
+        CompletableFuture<Void> sent = transport.send(dto);
+
+        // Fire and forget, but a transaction rejected up front is an error: 400 on bad input, 503 when the queue is full
+        if (sent.isCompletedExceptionally()) {
+            try {
+                sent.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IllegalArgumentException) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().getMessage());
+                }
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getCause().getMessage());
+                }
+                throw e;
+            }
+        }
+
+        return ResponseEntity.ok("Transaction submitted successfully");
+    }
+
+    // NDJSON or JSON array, read as a stream; responds once every record is acknowledged or failed.
+    // 400 when the body is malformed (records before the error keep their results).
+
+    @PostMapping(value = "/batch", consumes = {NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkIngestResultDTO> submitBatch(HttpServletRequest request)
+            throws IOException, InterruptedException {
+
+        BulkIngestResultDTO result = bulkIngestService.ingest(request.getInputStream());
+
+        HttpStatus status = result.getError() != null ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
 
-        return ResponseEntity.ok("Transaction sent to Kafka successfully");
+        return ResponseEntity.status(status).body(result);
     }
 }
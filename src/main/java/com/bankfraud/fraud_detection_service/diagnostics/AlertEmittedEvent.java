@@ -0,0 +1,45 @@
+package com.bankfraud.fraud_detection_service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+ // JFR event for an alert handed on by AlertSink, after its batch (and outbox rows) committed.
+
+@Name("com.bankfraud.AlertEmitted")
+@Label("Alert Emitted")
+@Category({"Fraud Detection", "Alerts"})
+@Description("Fraud alert persisted and released to the alert transport")
+@StackTrace(false)
+public class AlertEmittedEvent extends Event {
+
+    @Label("Alert Id")
+    public long alertId;
+
+    @Label("Account Id Hash")
+    public int accountIdHash;
+
+    @Label("Alert Type")
+    public String alertType;
+
+    @Label("Score")
+    public double score;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Persist")
+    @Description("Insert and commit of the batch this alert was part of")
+    @Timespan(Timespan.NANOSECONDS)
+    public long persist;
+
+    @Label("Since Detection")
+    @Description("From rule evaluation to commit, including the sink queue wait")
+    @Timespan(Timespan.MILLISECONDS)
+    public long sinceDetection;
+}
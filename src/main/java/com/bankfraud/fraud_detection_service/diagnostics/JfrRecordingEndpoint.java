@@ -0,0 +1,190 @@
+package com.bankfraud.fraud_detection_service.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+ // On-demand Flight Recorder sessions over actuator, for profiling a live instance without a restart.
+ // POST /actuator/jfr starts a time-boxed recording (only one at a time) written to fraud.jfr.directory;
+ // GET /actuator/jfr/{id} downloads it, as a snapshot of what has been recorded so far if still running.
+ // The com.bankfraud.* events are part of every recording, with JFR's usual thresholds applied.
+
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    // Finished recordings kept downloadable; older ones are closed (their files stay on disk)
+    private static final int MAX_KEPT = 10;
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final int defaultDurationSeconds;
+    private final int maxDurationSeconds;
+    private final String defaultSettings;
+
+    // Guarded by this
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+
+    public JfrRecordingEndpoint(@Value("${fraud.jfr.directory:${java.io.tmpdir}/fraud-jfr}") String directory,
+                                @Value("${fraud.jfr.default-duration-seconds:60}") int defaultDurationSeconds,
+                                @Value("${fraud.jfr.max-duration-seconds:600}") int maxDurationSeconds,
+                                @Value("${fraud.jfr.settings:default}") String defaultSettings) {
+        this.directory = Paths.get(directory);
+        this.defaultDurationSeconds = defaultDurationSeconds;
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.defaultSettings = defaultSettings;
+    }
+
+    @ReadOperation
+    public synchronized List<RecordingInfo> recordings() {
+        List<RecordingInfo> infos = new ArrayList<>(recordings.size());
+        for (Recording recording : recordings.values()) {
+            infos.add(RecordingInfo.of(recording));
+        }
+        return infos;
+    }
+
+    // settings is a JFR configuration name ("default", "profile") shipped with the JDK.
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Object> start(@Nullable Integer durationSeconds,
+                                                          @Nullable String settings) {
+
+        for (Recording recording : recordings.values()) {
+            if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+                return new WebEndpointResponse<>("Recording " + recording.getId() + " is still running",
+                        WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+            }
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : defaultSettings);
+        } catch (Exception e) {
+            return new WebEndpointResponse<>("Unknown JFR settings: " + settings, WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        int seconds = durationSeconds != null ? durationSeconds : defaultDurationSeconds;
+        if (seconds < 1 || seconds > maxDurationSeconds) {
+            return new WebEndpointResponse<>("Duration must be between 1 and " + maxDurationSeconds + " seconds",
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Recording recording = new Recording(configuration);
+        try {
+            Files.createDirectories(directory);
+
+            String name = "fraud-" + LocalDateTime.now().format(FILE_TIMESTAMP);
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.setDuration(Duration.ofSeconds(seconds));
+            recording.setDestination(directory.resolve(name + ".jfr"));
+            recording.start();
+        } catch (Exception e) {
+            recording.close();
+            log.error("Failed to start JFR recording", e);
+            return new WebEndpointResponse<>("Failed to start recording: " + e.getMessage(),
+                    WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+
+        recordings.put(recording.getId(), recording);
+        evictOldest();
+
+        log.info("JFR recording {} started | settings={} duration={}s destination={}",
+                recording.getId(), configuration.getName(), seconds, recording.getDestination());
+
+        return new WebEndpointResponse<>(RecordingInfo.of(recording));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                Path snapshot = directory.resolve(recording.getName() + "-snapshot.jfr");
+                recording.dump(snapshot);
+                return new WebEndpointResponse<>(new FileSystemResource(snapshot));
+            }
+
+            Path destination = recording.getDestination();
+            if (recording.getState() != RecordingState.STOPPED || destination == null || !Files.exists(destination)) {
+                return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+            return new WebEndpointResponse<>(new FileSystemResource(destination));
+
+        } catch (Exception e) {
+            log.error("Failed to dump JFR recording {}", id, e);
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Caller holds the lock. Only finished recordings are closed; the running one is never evicted.
+
+    private void evictOldest() {
+        Iterator<Recording> it = recordings.values().iterator();
+        while (recordings.size() > MAX_KEPT && it.hasNext()) {
+            Recording recording = it.next();
+            if (recording.getState() != RecordingState.RUNNING) {
+                recording.close();
+                it.remove();
+            }
+        }
+    }
+
+
+     // Recording summary returned by the endpoint.
+
+    public record RecordingInfo(long id,
+                                String name,
+                                String state,
+                                Instant startTime,
+                                Long durationSeconds,
+                                String destination) {
+
+        static RecordingInfo of(Recording recording) {
+            Duration duration = recording.getDuration();
+            Path destination = recording.getDestination();
+            return new RecordingInfo(
+                    recording.getId(),
+                    recording.getName(),
+                    recording.getState().name(),
+                    recording.getStartTime(),
+                    duration != null ? duration.toSeconds() : null,
+                    destination != null ? destination.toString() : null
+            );
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.bankfraud.fraud_detection_service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+ // JFR event for one SseBroadcaster.publish(): serialization and enqueueing on every client queue.
+
+@Name("com.bankfraud.SseBroadcast")
+@Label("SSE Broadcast")
+@Category({"Fraud Detection", "SSE"})
+@Description("One event fanned out to the subscribers of an SSE stream")
+@StackTrace(false)
+public class SseBroadcastEvent extends Event {
+
+    @Label("Stream")
+    public String stream;
+
+    @Label("Event Id")
+    public long eventId;
+
+    @Label("Clients")
+    public int clients;
+
+    @Label("Blocked")
+    @Description("Time spent waiting for the replay ring lock")
+    @Timespan(Timespan.NANOSECONDS)
+    public long blocked;
+}
@@ -0,0 +1,55 @@
+package com.bankfraud.fraud_detection_service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+ // JFR event for one transaction through FraudDetectionFacade: save, feature lookups, rule evaluation.
+ // The event duration is the whole facade call; stage fields split it. Only the hash of the
+ // account id is recorded, so recordings can leave the cluster.
+
+@Name("com.bankfraud.TransactionProcessed")
+@Label("Transaction Processed")
+@Category({"Fraud Detection", "Pipeline"})
+@Description("Stage durations and outcome of one transaction")
+@StackTrace(false)
+public class TransactionProcessedEvent extends Event {
+
+    @Label("Account Id Hash")
+    public int accountIdHash;
+
+    @Label("Duplicate")
+    @Description("Already stored: not evaluated")
+    public boolean duplicate;
+
+    @Label("Save")
+    @Description("Zero on the batch path, where one insert covers the whole poll")
+    @Timespan(Timespan.NANOSECONDS)
+    public long save;
+
+    @Label("Velocity Lookup")
+    @Timespan(Timespan.NANOSECONDS)
+    public long velocityLookup;
+
+    @Label("Profile Lookup")
+    @Timespan(Timespan.NANOSECONDS)
+    public long profileLookup;
+
+    @Label("Rule Evaluation")
+    @Timespan(Timespan.NANOSECONDS)
+    public long ruleEvaluation;
+
+    @Label("Triggered Rules")
+    public String triggeredRules;
+
+    @Label("Score")
+    public int score;
+
+    @Label("Alert")
+    public boolean alert;
+}
@@ -0,0 +1,27 @@
+package com.bankfraud.fraud_detection_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestResultDTO {
+    private int accepted;
+    private int failed;
+    private String error;                 // set when the body is malformed and was not read to the end
+    private List<RecordResult> results;   // one per record read, in body order
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecordResult {
+        private int index;
+        private String transactionId;
+        private boolean accepted;
+        private String error;
+    }
+}
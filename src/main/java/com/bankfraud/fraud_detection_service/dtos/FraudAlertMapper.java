@@ -0,0 +1,24 @@
+package com.bankfraud.fraud_detection_service.dtos;
+
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+
+// FraudAlerts entity -> FraudAlertDTO, shared by the SSE alert stream and the investigation reads.
+
+public final class FraudAlertMapper {
+
+    private FraudAlertMapper() {
+    }
+
+    public static FraudAlertDTO toDto(FraudAlerts alert) {
+        return new FraudAlertDTO(
+                alert.getId(),
+                alert.getAccountId(),
+                alert.getAlertType(),
+                alert.getAlertScore(),
+                alert.getRelatedTxnId(),
+                alert.getDetails(),
+                alert.getDetectedAt(),
+                alert.getAcknowledged()
+        );
+    }
+}
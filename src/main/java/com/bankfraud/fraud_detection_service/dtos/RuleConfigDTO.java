@@ -0,0 +1,30 @@
+package com.bankfraud.fraud_detection_service.dtos;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Rule thresholds and weights as stored in fraud_rule_config.config and exchanged on /api/rules.
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleConfigDTO {
+
+    private Long version; // assigned on publish, ignored on input
+
+    private BigDecimal absoluteAmountThreshold;   // UNUSUAL_AMOUNT regardless of profile average
+    private Integer unusualAmountMultiplier;      // UNUSUAL_AMOUNT above this multiple of the average
+    private BigDecimal nightAmountFloor;          // NIGHT_TX only above this amount
+    private Integer nightEndHour;                 // NIGHT_TX window: strictly between 00:00 and this hour
+    private Integer velocityMinCount;             // VELOCITY at this many transactions in the window
+    private Integer velocityWindowSeconds;
+    private Integer rapidTransferMinCount;        // RAPID_TRANSFER at this many transactions in the window
+    private Integer rapidTransferWindowSeconds;
+    private Integer alertScoreThreshold;          // alert when the score reaches this value
+    private Map<FraudRuleType, Integer> weights;
+}
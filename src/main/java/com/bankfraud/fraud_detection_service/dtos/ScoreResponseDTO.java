@@ -0,0 +1,21 @@
+package com.bankfraud.fraud_detection_service.dtos;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreResponseDTO {
+    private String transactionId;
+    private String decision;                  // APPROVE | DECLINE | REVIEW
+    private int score;
+    private List<FraudRuleType> triggeredRules;
+    private Long ruleConfigVersion;
+    private boolean degraded;                 // a feature missed the latency budget, see fraud.score.degrade-policy
+    private long latencyMicros;
+}
@@ -0,0 +1,70 @@
+package com.bankfraud.fraud_detection_service.dtos;
+
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Conversions between TransactionRequestDTO and the Transactions entity, shared by every path
+// that turns a submitted transaction into one to evaluate (in-process transport, pre-auth scoring)
+// and by the reads that return stored transactions.
+
+public final class TransactionMapper {
+
+    private TransactionMapper() {
+    }
+
+    // Invalid input -> IllegalArgumentException. Every NOT NULL column of transactions is required,
+    // the timestamp included.
+
+    public static Transactions toEntity(TransactionRequestDTO dto) {
+        return toEntity(dto, null);
+    }
+
+    // Same, with the timestamp to use when the request has none.
+
+    public static Transactions toEntity(TransactionRequestDTO dto, LocalDateTime whenMissing) {
+        if (dto.getTransactionId() == null || dto.getAccountId() == null
+                || dto.getTxnType() == null || dto.getAmount() == null) {
+            throw new IllegalArgumentException("transactionId, accountId, txnType and amount are required");
+        }
+
+        Transactions tx = new Transactions();
+        tx.setTransactionId(dto.getTransactionId());
+        tx.setAccountId(dto.getAccountId());
+        tx.setTxnType(dto.getTxnType());
+        tx.setAmount(dto.getAmount());
+        tx.setCurrency(dto.getCurrency());
+        tx.setLocation(dto.getLocation());
+        tx.setMerchant(dto.getMerchant());
+        tx.setTimestamp(timestamp(dto.getTimestamp(), whenMissing));
+        return tx;
+    }
+
+    public static TransactionRequestDTO toDto(Transactions tx) {
+        return new TransactionRequestDTO(
+                tx.getTransactionId(),
+                tx.getAccountId(),
+                tx.getTxnType(),
+                tx.getAmount(),
+                tx.getCurrency(),
+                tx.getLocation(),
+                tx.getMerchant(),
+                tx.getTimestamp().toString()
+        );
+    }
+
+    private static LocalDateTime timestamp(String value, LocalDateTime whenMissing) {
+        if (value == null) {
+            if (whenMissing == null) {
+                throw new IllegalArgumentException("timestamp is required");
+            }
+            return whenMissing;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid timestamp: " + value);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
@@ -34,4 +35,18 @@ public class AccountProfiles {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Learned by ProfileLearningService
+
+    @Column(name = "txn_count")
+    private long txnCount;
+
+    @Column(name = "spend_day")
+    private LocalDate spendDay;
+
+    @Column(name = "day_spend")
+    private BigDecimal daySpend; // spent so far on spendDay
+
+    @Column(name = "posted_at")
+    private LocalDateTime postedAt; // last POST /account-profiles, null for a learned-only profile
+
 }
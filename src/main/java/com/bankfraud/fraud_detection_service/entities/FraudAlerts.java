@@ -14,6 +14,9 @@ import java.util.Map;
 @Table(name = "fraud_alerts")
 public class FraudAlerts {
 
+    // alert_type column width (V2); holds the comma-joined names of every rule
+    public static final int ALERT_TYPE_MAX_LENGTH = 128;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -21,7 +24,7 @@ public class FraudAlerts {
     @Column(name = "account_id", nullable = false)
     private String accountId;
 
-    @Column(name = "alert_type")
+    @Column(name = "alert_type", length = FraudAlerts.ALERT_TYPE_MAX_LENGTH)
     private String alertType;
 
     @Column(name = "alert_score")
@@ -40,5 +43,9 @@ public class FraudAlerts {
     @Column(name = "acknowledged")
     private Boolean acknowledged = false;
 
+    // fraud_rule_config version whose thresholds and weights raised this alert
+    @Column(name = "rule_config_version")
+    private Long ruleConfigVersion;
+
 }
 
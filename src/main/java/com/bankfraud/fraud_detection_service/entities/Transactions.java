@@ -1,6 +1,7 @@
 package com.bankfraud.fraud_detection_service.entities;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -14,11 +15,14 @@ import java.time.LocalDateTime;
 @Table(name = "transactions")
 public class Transactions {
 
+    // The entity itself is pushed on the SSE transactions stream; storage-only fields stay off the wire
+
+    @JsonIgnore
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "transaction_id", unique = true)
+    @Column(name = "transaction_id")
     private String transactionId;
 
     @Column(name = "account_id", nullable = false)
@@ -42,6 +46,7 @@ public class Transactions {
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
 
+    @JsonIgnore
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -1,35 +1,144 @@
 package com.bankfraud.fraud_detection_service.facade;
 
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.business.FraudDecision;
+import com.bankfraud.fraud_detection_service.diagnostics.TransactionProcessedEvent;
 import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Outcome;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
 import com.bankfraud.fraud_detection_service.services.FraudEvaluationService;
+import com.bankfraud.fraud_detection_service.services.ProfileLearningService;
 import com.bankfraud.fraud_detection_service.services.TransactionService;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public class FraudDetectionFacade {
 
+    private static final Logger log = LoggerFactory.getLogger(FraudDetectionFacade.class);
 
     private final TransactionService transactionService;
     private final FraudEvaluationService fraudService;
+    private final ProfileLearningService profileLearning;
+    private final PipelineMetrics metrics;
 
     public FraudDetectionFacade(TransactionService transactionService,
-                                FraudEvaluationService fraudService) {
+                                FraudEvaluationService fraudService,
+                                ProfileLearningService profileLearning,
+                                PipelineMetrics metrics) {
         this.transactionService = transactionService;
         this.fraudService = fraudService;
+        this.profileLearning = profileLearning;
+        this.metrics = metrics;
     }
 
-    public void process(TransactionRequestDTO dto) {
+    // Returns false when the transaction was a duplicate and nothing was done.
+
+    public boolean process(Transactions tx) {
+
+        TransactionProcessedEvent event = new TransactionProcessedEvent();
+        event.begin();
+        PipelineMetrics.Trace trace = metrics.beginTrace();
+        try {
 
-        // Save transaction
+            // Save transaction (skipped if its id is already stored)
 
-        Transactions tx = transactionService.saveTransaction(dto);
+            long start = System.nanoTime();
+            Optional<Transactions> saved = transactionService.saveTransaction(tx);
+            metrics.record(Stage.SAVE_TRANSACTION, start);
 
+            if (saved.isEmpty()) {
+                metrics.outcome(Outcome.DUPLICATE);
+                emit(event, tx, trace, true);
+                return false;
+            }
 
-        // Evaluate fraud
+            // Evaluate fraud, then learn from the transaction
 
-        fraudService.evaluate(tx);
+            transactionService.track(saved.get());
+            fraudService.evaluate(saved.get());
+            profileLearning.observe(saved.get());
+            emit(event, tx, trace, false);
+            return true;
+
+        } finally {
+            metrics.endTrace();
+        }
     }
-}
 
+    // Batch path: persist the whole poll in one insert, then track and evaluate each newly stored
+    // transaction in order, exactly as process() would. If the insert fails, the poll is stored row
+    // by row so one bad record only loses itself. A failing evaluation does not stop the rest.
+
+    public List<Transactions> processBatch(List<Transactions> txs) {
+
+        long start = System.nanoTime();
+        List<Transactions> saved;
+        int failed = 0;
+        try {
+            saved = transactionService.saveTransactions(txs);
+        } catch (Exception e) {
+            log.warn("Multi-row insert of {} transactions failed, storing them one by one", txs.size(), e);
+            saved = new ArrayList<>(txs.size());
+            for (Transactions tx : txs) {
+                try {
+                    transactionService.saveTransaction(tx).ifPresent(saved::add);
+                } catch (Exception rowFailure) {
+                    failed++;
+                    metrics.outcome(Outcome.FAILURE);
+                    log.error("Failed to store transaction {}", tx.getTransactionId(), rowFailure);
+                }
+            }
+        }
+        metrics.record(Stage.SAVE_TRANSACTION, start); // one sample per multi-row insert
+        metrics.outcome(Outcome.DUPLICATE, txs.size() - saved.size() - failed);
+
+        for (Transactions tx : saved) {
+            try {
+                TransactionProcessedEvent event = new TransactionProcessedEvent();
+                event.begin();
+                PipelineMetrics.Trace trace = metrics.beginTrace();
+
+                transactionService.track(tx);
+                fraudService.evaluate(tx);
+                profileLearning.observe(tx);
+                emit(event, tx, trace, false);
+            } catch (Exception e) {
+                metrics.outcome(Outcome.FAILURE);
+                log.error("Fraud evaluation failed for transaction {}", tx.getTransactionId(), e);
+            } finally {
+                metrics.endTrace();
+            }
+        }
+
+        return saved;
+    }
+
+    // Fields are only filled when JFR records the event (enabled and above its threshold).
+
+    private static void emit(TransactionProcessedEvent event, Transactions tx, PipelineMetrics.Trace trace, boolean duplicate) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.accountIdHash = tx.getAccountId() == null ? 0 : tx.getAccountId().hashCode();
+        event.duplicate = duplicate;
+        event.save = trace.nanos(Stage.SAVE_TRANSACTION);
+        event.velocityLookup = trace.nanos(Stage.VELOCITY_LOOKUP);
+        event.profileLookup = trace.nanos(Stage.PROFILE_LOOKUP);
+        event.ruleEvaluation = trace.nanos(Stage.RULE_EVALUATION);
+        event.score = trace.score();
+        event.alert = trace.alert();
+
+        event.triggeredRules = FraudDecision.fromMask(trace.triggeredMask()).getAlertType();
+
+        event.commit();
+    }
+}
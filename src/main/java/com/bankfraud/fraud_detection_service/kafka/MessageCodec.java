@@ -0,0 +1,597 @@
+package com.bankfraud.fraud_detection_service.kafka;
+
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Map;
+
+
+ // Encodes and decodes the values of the 'transactions' and 'fraud-alerts' topics.
+ // Writes the configured WireFormat per topic (JSON by default; fraud-alerts has external consumers,
+ // so its format is set separately); reads either, telling them apart by the first byte
+ // (a binary message starts with MAGIC, which can never start a JSON document).
+ //
+ // Binary layout: MAGIC, message type, schema version, then the fields in declaration order.
+ // Strings are a varint (UTF-8 length + 1, 0 = null) followed by the bytes; longs are zigzag
+ // varints; amounts are scale + unscaled value; timestamps are epoch seconds + nanos. New fields
+ // go at the end under a new schema version, and older versions stay decodable.
+
+@Component
+public class MessageCodec {
+
+    static final byte MAGIC = (byte) 0xB7;
+
+    private static final byte TYPE_TRANSACTION = 1;
+    private static final byte TYPE_FRAUD_ALERT = 2;
+    private static final byte SCHEMA_VERSION = 1;
+
+    // Optional-value tags
+    private static final int NULL = 0;
+    private static final int DECIMAL_LONG = 1;      // unscaled value fits in a long
+    private static final int DECIMAL_BYTES = 2;     // unscaled value as two's-complement bytes
+    private static final int TIME_SHORT = 1;        // LocalDateTime.toString() form, e.g. 2025-12-29T10:30
+    private static final int TIME_ISO = 2;          // ISO_LOCAL_DATE_TIME form, e.g. 2025-12-29T10:30:00
+    private static final int TIME_TEXT = 3;         // anything else, kept verbatim
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader transactionReader;
+    private final ObjectReader alertReader;
+    private final ObjectReader detailsReader;
+    private final WireFormat format;
+    private final WireFormat alertFormat;
+
+    public MessageCodec(ObjectMapper objectMapper,
+                        @Value("${fraud.kafka.wire-format:JSON}") WireFormat format,
+                        @Value("${fraud.kafka.alerts-wire-format:JSON}") WireFormat alertFormat) {
+        this.objectMapper = objectMapper;
+        this.transactionReader = objectMapper.readerFor(TransactionRequestDTO.class);
+        this.alertReader = objectMapper.readerFor(FraudAlerts.class);
+        this.detailsReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() { });
+        this.format = format;
+        this.alertFormat = alertFormat;
+    }
+
+    public WireFormat format() {
+        return format;
+    }
+
+    public static boolean isBinary(byte[] message) {
+        return message != null && message.length > 0 && message[0] == MAGIC;
+    }
+
+    /* ---------------- Transactions ---------------- */
+
+    public byte[] encodeTransaction(TransactionRequestDTO dto) {
+        if (format == WireFormat.JSON) {
+            return toJson(dto, dto.getTransactionId());
+        }
+
+        Writer out = new Writer(96);
+        out.header(TYPE_TRANSACTION);
+        out.string(dto.getTransactionId());
+        out.string(dto.getAccountId());
+        out.string(dto.getTxnType());
+        out.decimal(dto.getAmount());
+        out.string(dto.getCurrency());
+        out.string(dto.getLocation());
+        out.string(dto.getMerchant());
+        out.timestampText(dto.getTimestamp());
+        return out.toByteArray();
+    }
+
+    public TransactionRequestDTO decodeTransaction(byte[] message) throws IOException {
+        if (!isBinary(message)) {
+            return transactionReader.readValue(message);
+        }
+
+        Reader in = new Reader(message);
+        in.header(TYPE_TRANSACTION);
+
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setTransactionId(in.string());
+        dto.setAccountId(in.string());
+        dto.setTxnType(in.string());
+        dto.setAmount(in.decimal());
+        dto.setCurrency(in.string());
+        dto.setLocation(in.string());
+        dto.setMerchant(in.string());
+        dto.setTimestamp(in.timestampText());
+        return dto;
+    }
+
+    // Consumer fast path: one pass from the message bytes to the entity that gets persisted, evaluated
+    // and streamed. JSON is read with a streaming parser and timestamps are parsed from the parser's
+    // character buffer, so no DTO, field-value map or timestamp string is created along the way.
+
+    public Transactions decodeTransactionEntity(byte[] message) throws IOException {
+        Transactions tx = isBinary(message) ? readBinaryEntity(message) : readJsonEntity(message);
+
+        // The timestamp is the partition key of the transactions table
+        if (tx.getTimestamp() == null) {
+            throw new IOException("Transaction " + tx.getTransactionId() + " has no timestamp");
+        }
+        // Other NOT NULL columns: one such record would fail a whole multi-row insert
+        if (tx.getTransactionId() == null || tx.getAccountId() == null
+                || tx.getTxnType() == null || tx.getAmount() == null) {
+            throw new IOException("Transaction " + tx.getTransactionId()
+                    + " lacks one of transactionId, accountId, txnType, amount");
+        }
+        return tx;
+    }
+
+    private Transactions readBinaryEntity(byte[] message) throws IOException {
+        Reader in = new Reader(message);
+        in.header(TYPE_TRANSACTION);
+
+        Transactions tx = new Transactions();
+        tx.setTransactionId(in.string());
+        tx.setAccountId(in.string());
+        tx.setTxnType(in.string());
+        tx.setAmount(in.decimal());
+        tx.setCurrency(in.string());
+        tx.setLocation(in.string());
+        tx.setMerchant(in.string());
+        tx.setTimestamp(in.timestampValue());
+        return tx;
+    }
+
+    private Transactions readJsonEntity(byte[] message) throws IOException {
+        Transactions tx = new Transactions();
+
+        try (JsonParser parser = transactionReader.createParser(message)) {
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Transaction message is not a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName(); // canonicalized by the parser, not allocated per message
+                JsonToken value = parser.nextToken();
+
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+
+                switch (field) {
+                    case "transactionId" -> tx.setTransactionId(parser.getText());
+                    case "accountId" -> tx.setAccountId(parser.getText());
+                    case "txnType" -> tx.setTxnType(parser.getText());
+                    case "amount" -> tx.setAmount(value == JsonToken.VALUE_STRING
+                            ? new BigDecimal(parser.getText())
+                            : parser.getDecimalValue());
+                    case "currency" -> tx.setCurrency(parser.getText());
+                    case "location" -> tx.setLocation(parser.getText());
+                    case "merchant" -> tx.setMerchant(parser.getText());
+                    case "timestamp" -> tx.setTimestamp(parseLocalDateTime(
+                            parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+                    default -> parser.skipChildren(); // unknown field, ignored
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid amount in transaction message", e);
+        }
+
+        return tx;
+    }
+
+    // ISO local date-time (yyyy-MM-ddTHH:mm[:ss[.fraction]]) straight from a char range.
+    // Anything else goes through LocalDateTime.parse, which also produces the error.
+
+    static LocalDateTime parseLocalDateTime(char[] chars, int offset, int length) throws IOException {
+        try {
+            if (length >= 16 && length <= 29
+                    && chars[offset + 4] == '-' && chars[offset + 7] == '-' && chars[offset + 10] == 'T'
+                    && chars[offset + 13] == ':') {
+
+                int year = digits(chars, offset, 4);
+                int month = digits(chars, offset + 5, 2);
+                int day = digits(chars, offset + 8, 2);
+                int hour = digits(chars, offset + 11, 2);
+                int minute = digits(chars, offset + 14, 2);
+                int second = 0;
+                int nano = 0;
+                boolean valid = year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0;
+
+                if (valid && length > 16) {
+                    second = length >= 19 && chars[offset + 16] == ':' ? digits(chars, offset + 17, 2) : -1;
+                    valid = second >= 0;
+
+                    if (valid && length > 19) {
+                        valid = chars[offset + 19] == '.' && length > 20;
+                        for (int i = 20, scale = 100_000_000; valid && i < length; i++, scale /= 10) {
+                            int digit = chars[offset + i] - '0';
+                            valid = digit >= 0 && digit <= 9;
+                            nano += digit * scale;
+                        }
+                    }
+                }
+
+                if (valid) {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+                }
+            }
+            return LocalDateTime.parse(new String(chars, offset, length));
+
+        } catch (DateTimeException e) {
+            throw new IOException("Invalid transaction timestamp: " + new String(chars, offset, length), e);
+        }
+    }
+
+    // Non-negative decimal value of 'count' ASCII digits, or -1
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = chars[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /* ---------------- Fraud alerts ---------------- */
+
+    public byte[] encodeAlert(FraudAlerts alert) {
+        if (alertFormat == WireFormat.JSON) {
+            return toJson(alert, alert.getRelatedTxnId());
+        }
+
+        Writer out = new Writer(256);
+        out.header(TYPE_FRAUD_ALERT);
+        out.nullableLong(alert.getId());
+        out.string(alert.getAccountId());
+        out.string(alert.getAlertType());
+        out.decimal(alert.getAlertScore());
+        out.string(alert.getRelatedTxnId());
+        out.bytes(alert.getDetails() == null ? null : toJson(alert.getDetails(), alert.getRelatedTxnId()));
+        out.timestamp(alert.getDetectedAt());
+        out.nullableBoolean(alert.getAcknowledged());
+        out.nullableLong(alert.getRuleConfigVersion());
+        return out.toByteArray();
+    }
+
+    public FraudAlerts decodeAlert(byte[] message) throws IOException {
+        if (!isBinary(message)) {
+            return alertReader.readValue(message);
+        }
+
+        Reader in = new Reader(message);
+        in.header(TYPE_FRAUD_ALERT);
+
+        FraudAlerts alert = new FraudAlerts();
+        alert.setId(in.nullableLong());
+        alert.setAccountId(in.string());
+        alert.setAlertType(in.string());
+        alert.setAlertScore(in.decimal());
+        alert.setRelatedTxnId(in.string());
+        byte[] details = in.bytes();
+        alert.setDetails(details == null ? null : detailsReader.readValue(details));
+        alert.setDetectedAt(in.timestamp());
+        alert.setAcknowledged(in.nullableBoolean());
+        alert.setRuleConfigVersion(in.nullableLong());
+        return alert;
+    }
+
+    private byte[] toJson(Object value, String txnId) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Message is not serializable for tx " + txnId, e);
+        }
+    }
+
+
+     // Growable output buffer with the field encoders.
+
+    private static final class Writer {
+
+        private byte[] buf;
+        private int pos;
+
+        Writer(int initialCapacity) {
+            this.buf = new byte[initialCapacity];
+        }
+
+        void header(byte type) {
+            ensure(3);
+            buf[pos++] = MAGIC;
+            buf[pos++] = type;
+            buf[pos++] = SCHEMA_VERSION;
+        }
+
+        void varint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void varlong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void zigzag(long value) {
+            varlong((value << 1) ^ (value >> 63));
+        }
+
+        void bytes(byte[] value) {
+            if (value == null) {
+                varint(NULL);
+                return;
+            }
+            varint(value.length + 1);
+            ensure(value.length);
+            System.arraycopy(value, 0, buf, pos, value.length);
+            pos += value.length;
+        }
+
+        void string(String value) {
+            bytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void nullableLong(Long value) {
+            if (value == null) {
+                varint(NULL);
+                return;
+            }
+            varint(1);
+            zigzag(value);
+        }
+
+        void nullableBoolean(Boolean value) {
+            varint(value == null ? NULL : value ? 2 : 1);
+        }
+
+        void decimal(BigDecimal value) {
+            if (value == null) {
+                varint(NULL);
+                return;
+            }
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() < 64) {
+                varint(DECIMAL_LONG);
+                zigzag(value.scale());
+                zigzag(unscaled.longValue());
+            } else {
+                varint(DECIMAL_BYTES);
+                zigzag(value.scale());
+                bytes(unscaled.toByteArray());
+            }
+        }
+
+        void timestamp(LocalDateTime value) {
+            if (value == null) {
+                varint(NULL);
+                return;
+            }
+            varint(TIME_SHORT);
+            epoch(value);
+        }
+
+        // DTO timestamps are strings; the compact form is used only when it reproduces the text exactly
+
+        void timestampText(String value) {
+            if (value == null) {
+                varint(NULL);
+                return;
+            }
+            LocalDateTime parsed;
+            try {
+                parsed = LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                parsed = null;
+            }
+            if (parsed != null && value.equals(parsed.toString())) {
+                varint(TIME_SHORT);
+                epoch(parsed);
+            } else if (parsed != null && value.equals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(parsed))) {
+                varint(TIME_ISO);
+                epoch(parsed);
+            } else {
+                varint(TIME_TEXT);
+                string(value);
+            }
+        }
+
+        private void epoch(LocalDateTime value) {
+            zigzag(value.toEpochSecond(ZoneOffset.UTC));
+            varint(value.getNano());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+
+     // Cursor over a binary message; truncated or unknown input fails with an IOException.
+
+    private static final class Reader {
+
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        void header(byte expectedType) throws IOException {
+            byte magic = next();
+            byte type = next();
+            byte version = next();
+            if (magic != MAGIC || type != expectedType) {
+                throw new IOException("Unexpected message type " + type + ", expected " + expectedType);
+            }
+            if (version < 1 || version > SCHEMA_VERSION) {
+                throw new IOException("Unsupported schema version " + version);
+            }
+        }
+
+        int varint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = next();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint at offset " + pos);
+        }
+
+        long varlong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint at offset " + pos);
+        }
+
+        long zigzag() throws IOException {
+            long raw = varlong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        byte[] bytes() throws IOException {
+            int length = varint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > buf.length - pos) {
+                throw new IOException("Truncated message: field of " + length + " bytes at offset " + pos);
+            }
+            byte[] value = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return value;
+        }
+
+        String string() throws IOException {
+            int length = varint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > buf.length - pos) {
+                throw new IOException("Truncated message: field of " + length + " bytes at offset " + pos);
+            }
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        Long nullableLong() throws IOException {
+            return varint() == NULL ? null : zigzag();
+        }
+
+        Boolean nullableBoolean() throws IOException {
+            int tag = varint();
+            return tag == NULL ? null : tag == 2;
+        }
+
+        BigDecimal decimal() throws IOException {
+            int tag = varint();
+            if (tag == NULL) {
+                return null;
+            }
+            int scale = (int) zigzag();
+            return switch (tag) {
+                case DECIMAL_LONG -> BigDecimal.valueOf(zigzag(), scale);
+                case DECIMAL_BYTES -> new BigDecimal(new BigInteger(bytes()), scale);
+                default -> throw new IOException("Unknown decimal encoding " + tag);
+            };
+        }
+
+        LocalDateTime timestamp() throws IOException {
+            int tag = varint();
+            if (tag == NULL) {
+                return null;
+            }
+            if (tag != TIME_SHORT) {
+                throw new IOException("Unknown timestamp encoding " + tag);
+            }
+            return epoch();
+        }
+
+        LocalDateTime timestampValue() throws IOException {
+            int tag = varint();
+            return switch (tag) {
+                case NULL -> null;
+                case TIME_SHORT, TIME_ISO -> epoch();
+                case TIME_TEXT -> {
+                    String text = string();
+                    try {
+                        yield text == null ? null : LocalDateTime.parse(text);
+                    } catch (DateTimeException e) {
+                        throw new IOException("Invalid transaction timestamp: " + text, e);
+                    }
+                }
+                default -> throw new IOException("Unknown timestamp encoding " + tag);
+            };
+        }
+
+        String timestampText() throws IOException {
+            int tag = varint();
+            return switch (tag) {
+                case NULL -> null;
+                case TIME_SHORT -> epoch().toString();
+                case TIME_ISO -> DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(epoch());
+                case TIME_TEXT -> string();
+                default -> throw new IOException("Unknown timestamp encoding " + tag);
+            };
+        }
+
+        private LocalDateTime epoch() throws IOException {
+            long seconds = zigzag();
+            int nanos = varint();
+            try {
+                return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+            } catch (RuntimeException e) {
+                throw new IOException("Invalid timestamp at offset " + pos, e);
+            }
+        }
+
+        private byte next() throws IOException {
+            if (pos >= buf.length) {
+                throw new IOException("Truncated message at offset " + pos);
+            }
+            return buf[pos++];
+        }
+    }
+}
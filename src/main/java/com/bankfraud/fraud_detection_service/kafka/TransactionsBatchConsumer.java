@@ -0,0 +1,95 @@
+package com.bankfraud.fraud_detection_service.kafka;
+
+import com.bankfraud.fraud_detection_service.controllers.StreamController;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.facade.FraudDetectionFacade;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Outcome;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+ // Batch-mode listener for the 'transactions' topic (fraud.kafka.listener-mode=batch).
+ // Receives a whole poll, deserializes it, persists it with one multi-row insert and evaluates it.
+
+@Component
+@ConditionalOnProperty(name = "fraud.kafka.listener-mode", havingValue = "batch")
+public class TransactionsBatchConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionsBatchConsumer.class);
+
+    private final MessageCodec codec;
+    private final FraudDetectionFacade facade;
+    private final StreamController streamController; // For SSE push
+    private final PipelineMetrics metrics;
+
+    public TransactionsBatchConsumer(FraudDetectionFacade facade,
+                                     MessageCodec codec,
+                                     StreamController streamController,
+                                     PipelineMetrics metrics) {
+        this.facade = facade;
+        this.codec = codec;
+        this.streamController = streamController;
+        this.metrics = metrics;
+    }
+
+    @KafkaListener(topics = "transactions",
+            groupId = "fraud-detection-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            batch = "true")
+    public void consume(List<ConsumerRecord<String, byte[]>> records) {
+
+        log.debug("Batch received: {} records", records.size());
+
+        // Deserialize the poll; a malformed message is logged and skipped
+
+        List<Transactions> txs = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                long start = System.nanoTime();
+                txs.add(codec.decodeTransactionEntity(record.value()));
+                metrics.record(Stage.DESERIALIZE, start);
+            } catch (Exception e) {
+                metrics.outcome(Outcome.FAILURE);
+                log.error("Failed to deserialize transaction message at partition={} offset={}",
+                        record.partition(), record.offset(), e);
+            }
+        }
+
+        if (txs.isEmpty()) {
+            return;
+        }
+
+        try {
+
+            List<Transactions> saved = facade.processBatch(txs);
+
+            // Push live transactions to frontend via SSE (duplicates skipped by the insert are not pushed)
+
+            for (Transactions tx : saved) {
+                try {
+                    long start = System.nanoTime();
+                    streamController.pushTransaction(tx);
+                    metrics.record(Stage.SSE_PUSH, start);
+                } catch (Exception ex) {
+                    log.warn("Failed to push transaction SSE", ex);
+                }
+            }
+
+            log.debug("Transaction batch processed | received={} persisted={}", txs.size(), saved.size());
+
+        } catch (Exception e) {
+            metrics.outcome(Outcome.FAILURE, txs.size());
+            log.error("Failed to process transaction batch of {} records", txs.size(), e);
+        }
+    }
+}
@@ -1,34 +1,43 @@
 package com.bankfraud.fraud_detection_service.kafka;
 
 import com.bankfraud.fraud_detection_service.controllers.StreamController;
-import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
 import com.bankfraud.fraud_detection_service.facade.FraudDetectionFacade;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Outcome;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
 import com.bankfraud.fraud_detection_service.services.TransactionService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
+ // Default single-record listener (fraud.kafka.listener-mode=single).
+
 @Component
+@ConditionalOnProperty(name = "fraud.kafka.listener-mode", havingValue = "single", matchIfMissing = true)
 public class TransactionsConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(TransactionsConsumer.class);
-    private final ObjectMapper objectMapper;
+    private final MessageCodec codec;
     private final FraudDetectionFacade facade;
     private final StreamController streamController; // For SSE push
+    private final PipelineMetrics metrics;
 
 
     // Constructor injection
     public TransactionsConsumer(FraudDetectionFacade facade,
-                                ObjectMapper objectMapper,
-                                StreamController streamController) {
+                                MessageCodec codec,
+                                StreamController streamController,
+                                PipelineMetrics metrics) {
         this.facade = facade;
-        this.objectMapper = objectMapper;
+        this.codec = codec;
         this.streamController = streamController;
+        this.metrics = metrics;
 
     }
 
@@ -37,42 +46,45 @@ public class TransactionsConsumer {
      //@param record Kafka consumer record containing key, value, partition, offset
 
     @KafkaListener(topics = "transactions", groupId = "fraud-detection-group")
-    public void consume(ConsumerRecord<String, String> record) {
-        System.out.println(">>> Kafka listener HIT <<<");
-
-        log.info("CONSUMER HIT !! Message received: {}", record.value());
+    public void consume(ConsumerRecord<String, byte[]> record) {
+        log.debug("Message received: partition={} offset={}", record.partition(), record.offset());
         try {
 
-            // Convert incoming JSON string to TransactionRequestDTO
+            // Decode the incoming message (binary or JSON) straight to the Transactions entity
 
-            TransactionRequestDTO dto = objectMapper.readValue(record.value(), TransactionRequestDTO.class);
+            long start = System.nanoTime();
+            Transactions tx = codec.decodeTransactionEntity(record.value());
+            metrics.record(Stage.DESERIALIZE, start);
 
             //  Delegate business logic to service layer:
-            // - DTO -> Entity mapping
             // - Persisting transaction to DB
             // - Fraud evaluation
 
-            facade.process(dto);
+            if (!facade.process(tx)) {
+                log.debug("Duplicate transaction {} ignored.", tx.getTransactionId());
+                return;
+            }
 
 
             // Push live transaction to frontend via SSE
 
             try {
-                streamController.pushTransaction(dto);
+                long pushStart = System.nanoTime();
+                streamController.pushTransaction(tx);
+                metrics.record(Stage.SSE_PUSH, pushStart);
 
             } catch (Exception ex) {
                 log.warn("Failed to push transaction SSE", ex);
             }
 
-            System.out.println(">>> Transaction processed <<<");
-
             // Log success
 
-            log.info("Transaction {} processed successfully.", dto.getTransactionId());
+            log.debug("Transaction {} processed successfully.", tx.getTransactionId());
 
         } catch (Exception e) {
             // Log any errors in deserialization or processing
-            log.error("Failed to process transaction message: {}", record.value(), e);
+            metrics.outcome(Outcome.FAILURE);
+            log.error("Failed to process transaction message at partition={} offset={}", record.partition(), record.offset(), e);
         }
     }
 }
@@ -0,0 +1,118 @@
+package com.bankfraud.fraud_detection_service.kafka;
+
+import com.bankfraud.fraud_detection_service.controllers.StreamController;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.facade.FraudDetectionFacade;
+import com.bankfraud.fraud_detection_service.pipeline.KeyOrderedExecutor;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Outcome;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+
+ // Parallel listener for the 'transactions' topic (fraud.kafka.listener-mode=parallel).
+ // The consumer thread only deserializes and hands each record to a worker lane chosen by
+ // accountId, so an account's transactions are processed in order (velocity counts stay exact)
+ // while different accounts are processed concurrently. Offsets are acknowledged per record and
+ // the container (async acks) only commits an offset once every earlier record has completed.
+
+@Component
+@ConditionalOnProperty(name = "fraud.kafka.listener-mode", havingValue = "parallel")
+public class TransactionsParallelConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionsParallelConsumer.class);
+
+    private final MessageCodec codec;
+    private final FraudDetectionFacade facade;
+    private final StreamController streamController; // For SSE push
+    private final PipelineMetrics metrics;
+    private final KeyOrderedExecutor workers;
+    private final Semaphore inFlight;
+
+    public TransactionsParallelConsumer(FraudDetectionFacade facade,
+                                        MessageCodec codec,
+                                        StreamController streamController,
+                                        PipelineMetrics metrics,
+                                        @Value("${fraud.kafka.parallel.workers:16}") int workerCount,
+                                        @Value("${fraud.kafka.parallel.max-in-flight:1000}") int maxInFlight) {
+        this.facade = facade;
+        this.codec = codec;
+        this.streamController = streamController;
+        this.metrics = metrics;
+        this.workers = new KeyOrderedExecutor("fraud-worker-", workerCount);
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    @KafkaListener(topics = "transactions",
+            groupId = "fraud-detection-group",
+            containerFactory = "parallelKafkaListenerContainerFactory")
+    public void consume(ConsumerRecord<String, byte[]> record, Acknowledgment ack) throws InterruptedException {
+
+        Transactions tx;
+
+        try {
+            long start = System.nanoTime();
+            tx = codec.decodeTransactionEntity(record.value());
+            metrics.record(Stage.DESERIALIZE, start);
+        } catch (Exception e) {
+            metrics.outcome(Outcome.FAILURE);
+            log.error("Failed to deserialize transaction message at partition={} offset={}",
+                    record.partition(), record.offset(), e);
+            ack.acknowledge();
+            return;
+        }
+
+        // Backpressure: block the consumer thread while too many records are still being processed
+        inFlight.acquire();
+
+        workers.execute(tx.getAccountId(), () -> {
+            try {
+                process(tx);
+            } finally {
+                inFlight.release();
+                ack.acknowledge();
+            }
+        });
+    }
+
+    private void process(Transactions tx) {
+        try {
+
+            if (!facade.process(tx)) {
+                log.debug("Duplicate transaction {} ignored.", tx.getTransactionId());
+                return;
+            }
+
+            // Push live transaction to frontend via SSE
+
+            try {
+                long start = System.nanoTime();
+                streamController.pushTransaction(tx);
+                metrics.record(Stage.SSE_PUSH, start);
+            } catch (Exception ex) {
+                log.warn("Failed to push transaction SSE", ex);
+            }
+
+            log.debug("Transaction {} processed successfully.", tx.getTransactionId());
+
+        } catch (Exception e) {
+            metrics.outcome(Outcome.FAILURE);
+            log.error("Failed to process transaction {}", tx.getTransactionId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.close();
+    }
+}
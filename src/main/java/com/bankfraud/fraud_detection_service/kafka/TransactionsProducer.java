@@ -1,11 +1,13 @@
 package com.bankfraud.fraud_detection_service.kafka;
 
 import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 
  //Sends transactions to Kafka for processing by TransactionsConsumer.
 
@@ -14,21 +16,28 @@ public class TransactionsProducer {
 
     private static final String TOPIC = "transactions";
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MessageCodec codec;
 
-    public TransactionsProducer(KafkaTemplate<String, String> kafkaTemplate,
-                                ObjectMapper objectMapper) {
+    public TransactionsProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                MessageCodec codec) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.codec = codec;
     }
 
     public void sendTransaction(TransactionRequestDTO dto) {
         try {
-            String message = objectMapper.writeValueAsString(dto);
-            kafkaTemplate.send(TOPIC, dto.getTransactionId(), message);
+            byte[] message = codec.encodeTransaction(dto);
+            // Keyed by account so one account's transactions stay on one partition, in order
+            kafkaTemplate.send(TOPIC, dto.getAccountId(), message);
         } catch (Exception e) {
             throw new RuntimeException("Failed to send transaction to Kafka", e);
         }
     }
+
+    // Completes when the broker has acknowledged the record (or the send failed).
+
+    public CompletableFuture<SendResult<String, byte[]>> sendTransactionAsync(TransactionRequestDTO dto) {
+        return kafkaTemplate.send(TOPIC, dto.getAccountId(), codec.encodeTransaction(dto));
+    }
 }
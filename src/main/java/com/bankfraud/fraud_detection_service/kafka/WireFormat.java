@@ -0,0 +1,10 @@
+package com.bankfraud.fraud_detection_service.kafka;
+
+
+ // Encoding of Kafka message values written by this service (fraud.kafka.wire-format).
+ // Consumers accept both, so the format can be switched without draining the topics first.
+
+public enum WireFormat {
+    JSON,    // Jackson text, readable with any tool
+    BINARY   // MessageCodec's compact, schema-versioned encoding
+}
@@ -0,0 +1,82 @@
+package com.bankfraud.fraud_detection_service.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+ // Bounded lock-free queue for many producers and a single consumer.
+ // Each slot carries a sequence number (Vyukov's bounded queue): a producer claims a position with
+ // one CAS on the tail and publishes the element by advancing the slot's sequence; the consumer
+ // sees the element once the sequence says so and frees the slot for the next lap. offer() never
+ // blocks and fails when the queue is full; poll() must only ever be called from one thread.
+
+public final class MpscArrayQueue<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // written by the consumer only
+
+    public MpscArrayQueue(int requestedCapacity) {
+        if (requestedCapacity < 2 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1; // next power of two
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long available = sequences.get(slot) - position;
+
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    sequences.set(slot, position + 1); // publishes the element to the consumer
+                    return true;
+                }
+            } else if (available < 0) {
+                return false; // the consumer has not freed this slot yet: full
+            }
+            // otherwise another producer took this position; retry with the new tail
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head;
+        int slot = (int) (position & mask);
+
+        if (sequences.get(slot) != position + 1) {
+            return null; // empty, or a producer has claimed the slot but not yet published
+        }
+
+        E element = (E) elements[slot];
+        elements[slot] = null;
+        sequences.set(slot, position + elements.length); // hand the slot to the next lap
+        head = position + 1;
+        return element;
+    }
+
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
@@ -0,0 +1,171 @@
+package com.bankfraud.fraud_detection_service.pipeline;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+
+ // Per-stage latency and outcome meters of the transaction pipeline.
+ // Every meter is registered up front, so the hot path only does an array lookup and a record().
+ // Stage timers publish percentile histograms (fraud.pipeline.stage{stage}), served with the rest
+ // of the registry on /actuator/prometheus. Between beginTrace() and endTrace() the same readings
+ // also accumulate in a per-thread Trace, which the facade turns into a TransactionProcessed JFR event.
+ // Threads that never begin a trace (alert sink, SSE fan-out, producers) leave theirs untouched.
+
+@Component
+public class PipelineMetrics {
+
+    public enum Stage {
+        DESERIALIZE,
+        SAVE_TRANSACTION,
+        VELOCITY_LOOKUP,   // in-memory velocity and rapid-transfer windows
+        PROFILE_LOOKUP,    // profile cache, database on a miss
+        RULE_EVALUATION,   // rules and scoring, feature lookups excluded
+        ALERT_PERSIST,     // alert batch and its outbox rows, one transaction
+        SSE_PUSH,
+        KAFKA_PUBLISH;     // outbox message send until broker ack
+
+        private final String tag = name().toLowerCase().replace('_', '-');
+    }
+
+    public enum Outcome {
+        CLEAN,      // evaluated, below the alert threshold
+        ALERT,      // evaluated, alert raised
+        DUPLICATE,  // already stored, not evaluated
+        FAILURE     // deserialization or processing failed
+    }
+
+    private static final FraudRuleType[] RULES = FraudRuleType.values();
+    private static final int STAGE_COUNT = Stage.values().length;
+
+    private final Timer[] stages = new Timer[Stage.values().length];
+    private final Counter[] ruleHits = new Counter[RULES.length];
+    private final Counter[] outcomes = new Counter[Outcome.values().length];
+
+    private final ThreadLocal<Trace> traces = ThreadLocal.withInitial(Trace::new);
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stages[stage.ordinal()] = Timer.builder("fraud.pipeline.stage")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+        for (FraudRuleType rule : RULES) {
+            ruleHits[rule.ordinal()] = Counter.builder("fraud.rules.hits")
+                    .tag("rule", rule.name())
+                    .register(meterRegistry);
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomes[outcome.ordinal()] = Counter.builder("fraud.pipeline.outcome")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    // Time since startNanos (a System.nanoTime() reading) for the stage.
+
+    public void record(Stage stage, long startNanos) {
+        recordNanos(stage, System.nanoTime() - startNanos);
+    }
+
+    public void recordNanos(Stage stage, long nanos) {
+        stages[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+
+        Trace trace = traces.get();
+        if (trace.active) {
+            trace.stageNanos[stage.ordinal()] += nanos;
+        }
+    }
+
+    // Outcome of a rule evaluation: rule hit counters, the clean / alert outcome and the thread's trace.
+
+    public void evaluated(int triggeredMask, int score, boolean alert) {
+        ruleHits(triggeredMask);
+        outcome(alert ? Outcome.ALERT : Outcome.CLEAN);
+
+        Trace trace = traces.get();
+        if (!trace.active) {
+            return;
+        }
+        trace.triggeredMask = triggeredMask;
+        trace.score = score;
+        trace.alert = alert;
+    }
+
+    // Clears and returns this thread's trace; stages recorded on this thread until endTrace() add up in it.
+
+    public Trace beginTrace() {
+        Trace trace = traces.get();
+        trace.reset();
+        trace.active = true;
+        return trace;
+    }
+
+    // Stops collecting; the trace keeps its values until the next beginTrace().
+
+    public void endTrace() {
+        traces.get().active = false;
+    }
+
+    // One increment per rule set in a FraudRuleType bitmask.
+
+    public void ruleHits(int triggeredMask) {
+        for (FraudRuleType rule : RULES) {
+            if (rule.isSetIn(triggeredMask)) {
+                ruleHits[rule.ordinal()].increment();
+            }
+        }
+    }
+
+    public void outcome(Outcome outcome) {
+        outcomes[outcome.ordinal()].increment();
+    }
+
+    public void outcome(Outcome outcome, int count) {
+        outcomes[outcome.ordinal()].increment(count);
+    }
+
+
+     // Stage times and evaluation result of the transaction in progress on one thread. Reused.
+
+    public static final class Trace {
+
+        private final long[] stageNanos = new long[STAGE_COUNT];
+        private int triggeredMask;
+        private int score;
+        private boolean alert;
+        private boolean active;
+
+        void reset() {
+            Arrays.fill(stageNanos, 0);
+            triggeredMask = 0;
+            score = 0;
+            alert = false;
+        }
+
+        public long nanos(Stage stage) {
+            return stageNanos[stage.ordinal()];
+        }
+
+        public int triggeredMask() {
+            return triggeredMask;
+        }
+
+        public int score() {
+            return score;
+        }
+
+        public boolean alert() {
+            return alert;
+        }
+    }
+}
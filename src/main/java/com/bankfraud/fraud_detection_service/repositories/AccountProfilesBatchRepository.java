@@ -0,0 +1,97 @@
+package com.bankfraud.fraud_detection_service.repositories;
+
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+ // Multi-row upserts of learned account profiles (ProfileLearningService flushes).
+ // Missing rows are created; existing rows only get their learned columns updated, so the home
+ // country and risk tier of a posted profile are kept. A row is only updated while its posted_at
+ // is still the one the profile was learned from: a flush never overwrites a newer posted profile.
+
+@Repository
+public class AccountProfilesBatchRepository {
+
+    // 10 bind parameters per row keeps each statement well under the 32767 parameter limit
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO account_profiles (account_id, avg_daily_spend, avg_txn_amount, home_country, "
+                    + "risk_tier, txn_count, spend_day, day_spend, updated_at, posted_at) VALUES ";
+
+    private static final String ROW_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (account_id) DO UPDATE SET "
+                    + "avg_daily_spend = EXCLUDED.avg_daily_spend, "
+                    + "avg_txn_amount = EXCLUDED.avg_txn_amount, "
+                    + "txn_count = EXCLUDED.txn_count, "
+                    + "spend_day = EXCLUDED.spend_day, "
+                    + "day_spend = EXCLUDED.day_spend, "
+                    + "updated_at = EXCLUDED.updated_at "
+                    + "WHERE account_profiles.posted_at IS NOT DISTINCT FROM EXCLUDED.posted_at "
+                    + "RETURNING account_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountProfilesBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Account ids must be unique within the list (a row cannot be updated twice by one statement).
+    // Returns the ids of the accounts written; the others were posted again since they were learned.
+
+    public Set<String> upsertLearned(List<AccountProfiles> profiles) {
+        Set<String> written = new HashSet<>();
+        RowCallbackHandler collector = rs -> written.add(rs.getString(1));
+
+        for (int from = 0; from < profiles.size(); from += MAX_ROWS_PER_STATEMENT) {
+
+            List<AccountProfiles> chunk =
+                    profiles.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, profiles.size()));
+
+            PreparedStatementSetter binder = ps -> {
+                int i = 1;
+                for (AccountProfiles profile : chunk) {
+                    ps.setString(i++, profile.getAccountId());
+                    ps.setBigDecimal(i++, profile.getAvgDailySpend());
+                    ps.setBigDecimal(i++, profile.getAvgTxnAmount());
+                    ps.setString(i++, profile.getHomeCountry());
+                    ps.setString(i++, profile.getRiskTier());
+                    ps.setLong(i++, profile.getTxnCount());
+                    ps.setObject(i++, profile.getSpendDay());
+                    ps.setBigDecimal(i++, profile.getDaySpend());
+                    ps.setObject(i++, profile.getUpdatedAt());
+                    ps.setObject(i++, profile.getPostedAt());
+                }
+            };
+
+            jdbcTemplate.query(upsertSql(chunk.size()), binder, collector);
+        }
+
+        return written;
+    }
+
+    private static String upsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(
+                INSERT_PREFIX.length() + rows * (ROW_VALUES.length() + 2) + UPSERT_SUFFIX.length());
+
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_VALUES);
+        }
+        sql.append(UPSERT_SUFFIX);
+
+        return sql.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.bankfraud.fraud_detection_service.repositories;
+
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+ // Multi-row inserts for fraud_alerts.
+ // Ids are taken from the table's sequence up front, so every alert gets its id without relying
+ // on the order of RETURNING rows, and the whole batch is written with one statement.
+
+@Repository
+public class FraudAlertsBatchRepository {
+
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval('fraud_alerts_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO fraud_alerts (id, account_id, alert_type, alert_score, related_txn_id, "
+                    + "details, detected_at, acknowledged, rule_config_version) VALUES ";
+
+    private static final String ROW_VALUES = "(?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public FraudAlertsBatchRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // Inserts all alerts and sets their ids.
+
+    public void insertAll(List<FraudAlerts> alerts) {
+
+        if (alerts.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, alerts.size());
+
+        List<String> details = new ArrayList<>(alerts.size());
+        for (FraudAlerts alert : alerts) {
+            details.add(toJson(alert));
+        }
+
+        PreparedStatementSetter binder = ps -> {
+            int i = 1;
+            for (int row = 0; row < alerts.size(); row++) {
+                FraudAlerts alert = alerts.get(row);
+                ps.setLong(i++, ids.get(row));
+                ps.setString(i++, alert.getAccountId());
+                ps.setString(i++, alert.getAlertType());
+                ps.setBigDecimal(i++, alert.getAlertScore());
+                ps.setString(i++, alert.getRelatedTxnId());
+                ps.setString(i++, details.get(row));
+                ps.setObject(i++, alert.getDetectedAt());
+                ps.setObject(i++, alert.getAcknowledged());
+                ps.setObject(i++, alert.getRuleConfigVersion());
+            }
+        };
+
+        jdbcTemplate.update(insertSql(alerts.size()), binder);
+
+        for (int row = 0; row < alerts.size(); row++) {
+            alerts.get(row).setId(ids.get(row));
+        }
+    }
+
+    private String toJson(FraudAlerts alert) {
+        if (alert.getDetails() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(alert.getDetails());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Alert details are not serializable for tx " + alert.getRelatedTxnId(), e);
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_VALUES.length() + 2));
+
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_VALUES);
+        }
+
+        return sql.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.bankfraud.fraud_detection_service.repositories;
+
+import com.bankfraud.fraud_detection_service.dtos.RuleConfigDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+
+ // Versioned rule configurations; every change is a new row, the highest version is the active one.
+
+@Repository
+public class FraudRuleConfigRepository {
+
+    private static final String LATEST_VERSION_SQL =
+            "SELECT max(version) FROM fraud_rule_config";
+
+    private static final String FIND_SQL =
+            "SELECT config::text FROM fraud_rule_config WHERE version = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO fraud_rule_config (config) VALUES (CAST(? AS jsonb)) RETURNING version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public FraudRuleConfigRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // Cheap check used by the refresh poll; empty when no configuration was ever stored.
+
+    public Optional<Long> findLatestVersion() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(LATEST_VERSION_SQL, Long.class));
+    }
+
+    public Optional<RuleConfigDTO> findByVersion(long version) {
+        List<String> rows = jdbcTemplate.queryForList(FIND_SQL, String.class, version);
+
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            RuleConfigDTO config = objectMapper.readValue(rows.get(0), RuleConfigDTO.class);
+            config.setVersion(version);
+            return Optional.of(config);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Rule configuration version " + version + " is not valid JSON", e);
+        }
+    }
+
+    // Stores a new version and returns its number.
+
+    public long insert(RuleConfigDTO config) {
+        // The version is the row key, not part of the stored document
+        ObjectNode document = objectMapper.valueToTree(config);
+        document.remove("version");
+
+        try {
+            return jdbcTemplate.queryForObject(INSERT_SQL, Long.class, objectMapper.writeValueAsString(document));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Rule configuration is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.bankfraud.fraud_detection_service.repositories;
+
+import com.bankfraud.fraud_detection_service.dtos.PageCursor;
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+
+ // Read side of the investigation API: newest-first keyset pages and full-history scans.
+ // Pages seek on (account_id, timestamp) / (account_id, detected_at), the leading columns of the
+ // existing indexes, with the id as tie-breaker, so page N costs the same as page 1.
+
+@Repository
+public class InvestigationQueryRepository {
+
+    private static final String TRANSACTION_COLUMNS =
+            "SELECT id, transaction_id, account_id, txn_type, amount, currency, location, merchant, "
+                    + "timestamp, created_at FROM transactions WHERE account_id = ?";
+
+    private static final String ALERT_COLUMNS =
+            "SELECT id, account_id, alert_type, alert_score, related_txn_id, details::text AS details, "
+                    + "detected_at, acknowledged, rule_config_version FROM fraud_alerts WHERE account_id = ?";
+
+    // "<= ?" keeps the seek on the index range; the OR only filters rows sharing the cursor's time
+    private static final String TRANSACTIONS_AFTER_CURSOR =
+            " AND timestamp <= ? AND (timestamp < ? OR id < ?)";
+
+    private static final String ALERTS_AFTER_CURSOR =
+            " AND detected_at <= ? AND (detected_at < ? OR id < ?)";
+
+    private static final String TRANSACTIONS_ORDER = " ORDER BY timestamp DESC, id DESC";
+    private static final String ALERTS_ORDER = " ORDER BY detected_at DESC, id DESC";
+
+    private static final TypeReference<Map<String, Object>> DETAILS_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public InvestigationQueryRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /* ---------------- Pages ---------------- */
+
+    public List<Transactions> findTransactionsPage(String accountId, PageCursor cursor, int limit) {
+        return jdbcTemplate.query(
+                pageQuery(TRANSACTION_COLUMNS, TRANSACTIONS_AFTER_CURSOR, TRANSACTIONS_ORDER, accountId, cursor, limit, 0),
+                this::mapTransaction);
+    }
+
+    public List<FraudAlerts> findAlertsPage(String accountId, PageCursor cursor, int limit) {
+        return jdbcTemplate.query(
+                pageQuery(ALERT_COLUMNS, ALERTS_AFTER_CURSOR, ALERTS_ORDER, accountId, cursor, limit, 0),
+                this::mapAlert);
+    }
+
+    /* ---------------- Full history ---------------- */
+
+    // Must run inside a transaction: only then does the driver fetch through a server-side
+    // cursor, fetchSize rows at a time, instead of materializing the whole result.
+
+    public void streamTransactions(String accountId, int fetchSize, Consumer<Transactions> sink) {
+        RowCallbackHandler handler = rs -> sink.accept(mapTransaction(rs, 0));
+
+        jdbcTemplate.query(
+                pageQuery(TRANSACTION_COLUMNS, TRANSACTIONS_AFTER_CURSOR, TRANSACTIONS_ORDER, accountId, null, 0, fetchSize),
+                handler);
+    }
+
+    public void streamAlerts(String accountId, int fetchSize, Consumer<FraudAlerts> sink) {
+        RowCallbackHandler handler = rs -> sink.accept(mapAlert(rs, 0));
+
+        jdbcTemplate.query(
+                pageQuery(ALERT_COLUMNS, ALERTS_AFTER_CURSOR, ALERTS_ORDER, accountId, null, 0, fetchSize),
+                handler);
+    }
+
+    // limit 0 = no LIMIT clause; fetchSize 0 = driver default
+
+    private static PreparedStatementCreator pageQuery(String select,
+                                                      String afterCursor,
+                                                      String order,
+                                                      String accountId,
+                                                      PageCursor cursor,
+                                                      int limit,
+                                                      int fetchSize) {
+
+        StringBuilder sql = new StringBuilder(select);
+        if (cursor != null) {
+            sql.append(afterCursor);
+        }
+        sql.append(order);
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+        }
+
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString());
+            ps.setFetchSize(fetchSize);
+
+            int i = 1;
+            ps.setString(i++, accountId);
+            if (cursor != null) {
+                ps.setObject(i++, cursor.at());
+                ps.setObject(i++, cursor.at());
+                ps.setLong(i++, cursor.id());
+            }
+            if (limit > 0) {
+                ps.setInt(i, limit);
+            }
+            return ps;
+        };
+    }
+
+    private Transactions mapTransaction(ResultSet rs, int rowNum) throws SQLException {
+        Transactions tx = new Transactions();
+        tx.setId(rs.getLong("id"));
+        tx.setTransactionId(rs.getString("transaction_id"));
+        tx.setAccountId(rs.getString("account_id"));
+        tx.setTxnType(rs.getString("txn_type"));
+        tx.setAmount(rs.getBigDecimal("amount"));
+        tx.setCurrency(rs.getString("currency"));
+        tx.setLocation(rs.getString("location"));
+        tx.setMerchant(rs.getString("merchant"));
+        tx.setTimestamp(toLocalDateTime(rs.getTimestamp("timestamp")));
+        tx.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        return tx;
+    }
+
+    private FraudAlerts mapAlert(ResultSet rs, int rowNum) throws SQLException {
+        FraudAlerts alert = new FraudAlerts();
+        alert.setId(rs.getLong("id"));
+        alert.setAccountId(rs.getString("account_id"));
+        alert.setAlertType(rs.getString("alert_type"));
+        alert.setAlertScore(rs.getBigDecimal("alert_score"));
+        alert.setRelatedTxnId(rs.getString("related_txn_id"));
+        alert.setDetails(parseDetails(rs.getString("details")));
+        alert.setDetectedAt(toLocalDateTime(rs.getTimestamp("detected_at")));
+        alert.setAcknowledged(rs.getObject("acknowledged", Boolean.class));
+        alert.setRuleConfigVersion(rs.getObject("rule_config_version", Long.class));
+        return alert;
+    }
+
+    private Map<String, Object> parseDetails(String json) throws SQLException {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, DETAILS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Unreadable fraud alert details", e);
+        }
+    }
+
+    // Same zone handling as the JPA mapping of these LocalDateTime columns (JVM default zone)
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
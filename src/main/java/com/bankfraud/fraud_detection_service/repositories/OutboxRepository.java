@@ -0,0 +1,170 @@
+package com.bankfraud.fraud_detection_service.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+
+ // Outbox rows waiting to be published to Kafka.
+ // Rows are written inside the caller's transaction. The relay claims them with a lease
+ // (claimed_until, taken with FOR UPDATE SKIP LOCKED in one statement), so several instances can drain
+ // the table without double-sending and no transaction stays open while Kafka acknowledges.
+ // A row is not claimable while an older row of the same key is leased, which keeps per-key order.
+
+@Repository
+public class OutboxRepository {
+
+    // 3 bind parameters per row
+    private static final int MAX_ROWS_PER_STATEMENT = 5000;
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO outbox_messages (topic, message_key, payload) VALUES ";
+
+    private static final String ROW_VALUES = "(?, ?, ?)";
+
+    private static final String CLAIM_SQL =
+            "UPDATE outbox_messages SET claimed_until = now() + ? * INTERVAL '1 millisecond' "
+                    + "WHERE id IN (SELECT m.id FROM outbox_messages m "
+                    + "WHERE m.sent_at IS NULL AND (m.claimed_until IS NULL OR m.claimed_until < now()) "
+                    + "AND NOT EXISTS (SELECT 1 FROM outbox_messages o WHERE o.message_key = m.message_key "
+                    + "AND o.sent_at IS NULL AND o.id < m.id AND o.claimed_until >= now()) "
+                    + "ORDER BY m.id LIMIT ? FOR UPDATE OF m SKIP LOCKED) "
+                    + "RETURNING id, topic, message_key, payload";
+
+    private static final String MARK_SENT_SQL =
+            "UPDATE outbox_messages SET sent_at = now(), claimed_until = NULL WHERE id = ANY(?)";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE outbox_messages SET attempts = attempts + 1, "
+                    + "claimed_until = now() + ? * INTERVAL '1 millisecond' WHERE id = ANY(?)";
+
+    private static final String RELEASE_SQL =
+            "UPDATE outbox_messages SET claimed_until = NULL WHERE id = ANY(?)";
+
+    private static final String DEAD_LETTER_SQL =
+            "WITH moved AS (DELETE FROM outbox_messages WHERE id = ANY(?) AND attempts >= ? "
+                    + "RETURNING id, topic, message_key, payload, created_at, attempts) "
+                    + "INSERT INTO outbox_dead_letters (id, topic, message_key, payload, created_at, attempts) "
+                    + "SELECT id, topic, message_key, payload, created_at, attempts FROM moved";
+
+    private static final String DELETE_SENT_SQL =
+            "DELETE FROM outbox_messages WHERE sent_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<OutboxMessage> messages) {
+
+        for (int from = 0; from < messages.size(); from += MAX_ROWS_PER_STATEMENT) {
+
+            List<OutboxMessage> chunk =
+                    messages.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, messages.size()));
+
+            PreparedStatementSetter binder = ps -> {
+                int i = 1;
+                for (OutboxMessage message : chunk) {
+                    ps.setString(i++, message.topic());
+                    ps.setString(i++, message.key());
+                    ps.setBytes(i++, message.payload());
+                }
+            };
+
+            jdbcTemplate.update(insertSql(chunk.size()), binder);
+        }
+    }
+
+    // Leases up to 'limit' unsent rows for leaseMillis, oldest first. The statement is its own
+    // (short) transaction; the rows stay claimed until marked, released or the lease runs out.
+
+    public List<OutboxMessage> claimUnsent(int limit, long leaseMillis) {
+        List<OutboxMessage> claimed = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("topic"),
+                        rs.getString("message_key"),
+                        rs.getBytes("payload")),
+                leaseMillis, limit);
+
+        // RETURNING does not keep the subquery's order
+        claimed.sort(Comparator.comparing(OutboxMessage::id));
+        return claimed;
+    }
+
+    public void markSent(List<Long> ids) {
+        updateIds(MARK_SENT_SQL, ids);
+    }
+
+    // Counts a failed send; the row is retried once retryAfterMillis have passed.
+
+    public void markFailed(List<Long> ids, long retryAfterMillis) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(MARK_FAILED_SQL, ps -> {
+            ps.setLong(1, retryAfterMillis);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        });
+    }
+
+    // Makes claimed rows that were not attempted claimable again right away.
+
+    public void release(List<Long> ids) {
+        updateIds(RELEASE_SQL, ids);
+    }
+
+    // Moves the given rows that reached maxAttempts to outbox_dead_letters; returns how many moved.
+
+    public int deadLetter(List<Long> ids, int maxAttempts) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(DEAD_LETTER_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+            ps.setInt(2, maxAttempts);
+        });
+    }
+
+    public int deleteSentBefore(Instant cutoff) {
+        return jdbcTemplate.update(DELETE_SENT_SQL, Timestamp.from(cutoff));
+    }
+
+    private void updateIds(String sql, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(sql, ps ->
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_VALUES.length() + 2));
+
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_VALUES);
+        }
+
+        return sql.toString();
+    }
+
+
+     // One outbox row; id is null until the row is stored. The payload is the encoded Kafka value.
+
+    public record OutboxMessage(Long id, String topic, String key, byte[] payload) {
+
+        public OutboxMessage(String topic, String key, byte[] payload) {
+            this(null, topic, key, payload);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.bankfraud.fraud_detection_service.repositories;
+
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+ // Multi-row inserts for the transactions table.
+ // Transactions uses IDENTITY ids, so Hibernate cannot batch its inserts; this writes a whole
+ // poll in one statement and skips transactions that are already stored.
+ // The table is partitioned by timestamp, so its own uniqueness is only on (transaction_id, timestamp);
+ // the statement first claims each id in the unpartitioned transaction_ids table (V10) and writes only
+ // the rows it claimed, so the same id is stored once whatever its timestamp. Within one statement
+ // the first row of an id wins.
+
+@Repository
+public class TransactionsBatchRepository {
+
+    // 9 bind parameters per row keeps each statement well under the 32767 parameter limit
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String INSERT_PREFIX =
+            "WITH candidate (ord, transaction_id, account_id, txn_type, amount, currency, "
+                    + "location, merchant, timestamp, created_at) AS (VALUES ";
+
+    // Typed, since a VALUES list does not take its column types from the insert target
+    private static final String ROW_VALUES =
+            ", CAST(? AS varchar), CAST(? AS varchar), CAST(? AS varchar), CAST(? AS numeric), CAST(? AS varchar), "
+                    + "CAST(? AS varchar), CAST(? AS varchar), CAST(? AS timestamptz), CAST(? AS timestamptz))";
+
+    // ON CONFLICT on transactions still covers rows whose id has left transaction_ids through retention
+    private static final String INSERT_SUFFIX =
+            "), claimed AS ("
+                    + "INSERT INTO transaction_ids (transaction_id) SELECT DISTINCT transaction_id FROM candidate "
+                    + "ON CONFLICT DO NOTHING RETURNING transaction_id) "
+                    + "INSERT INTO transactions (transaction_id, account_id, txn_type, amount, currency, "
+                    + "location, merchant, timestamp, created_at) "
+                    + "SELECT DISTINCT ON (c.transaction_id) c.transaction_id, c.account_id, c.txn_type, c.amount, "
+                    + "c.currency, c.location, c.merchant, c.timestamp, c.created_at "
+                    + "FROM candidate c JOIN claimed USING (transaction_id) "
+                    + "ORDER BY c.transaction_id, c.ord "
+                    + "ON CONFLICT (transaction_id, timestamp) DO NOTHING RETURNING id, transaction_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionsBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Inserts all rows and returns the ones actually written (with ids set), in input order.
+
+    public List<Transactions> insertIgnoringDuplicates(List<Transactions> transactions) {
+
+        List<Transactions> inserted = new ArrayList<>(transactions.size());
+
+        for (int from = 0; from < transactions.size(); from += MAX_ROWS_PER_STATEMENT) {
+
+            List<Transactions> chunk =
+                    transactions.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, transactions.size()));
+
+            Map<String, Long> ids = new HashMap<>();
+
+            PreparedStatementSetter binder = ps -> {
+                int i = 1;
+                for (Transactions tx : chunk) {
+                    ps.setString(i++, tx.getTransactionId());
+                    ps.setString(i++, tx.getAccountId());
+                    ps.setString(i++, tx.getTxnType());
+                    ps.setBigDecimal(i++, tx.getAmount());
+                    ps.setString(i++, tx.getCurrency());
+                    ps.setString(i++, tx.getLocation());
+                    ps.setString(i++, tx.getMerchant());
+                    ps.setObject(i++, tx.getTimestamp());
+                    ps.setObject(i++, tx.getCreatedAt());
+                }
+            };
+
+            RowCallbackHandler collector = rs -> ids.put(rs.getString(2), rs.getLong(1));
+
+            jdbcTemplate.query(insertSql(chunk.size()), binder, collector);
+
+            for (Transactions tx : chunk) {
+                // remove() so only the first row of an id repeated inside the batch is reported, the one written
+                Long id = ids.remove(tx.getTransactionId());
+                if (id != null) {
+                    tx.setId(id);
+                    inserted.add(tx);
+                }
+            }
+        }
+
+        return inserted;
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(
+                INSERT_PREFIX.length() + rows * (ROW_VALUES.length() + 8) + INSERT_SUFFIX.length());
+
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('(').append(i).append(ROW_VALUES);
+        }
+        sql.append(INSERT_SUFFIX);
+
+        return sql.toString();
+    }
+}
@@ -11,6 +11,8 @@ public interface TransactionsRepository extends JpaRepository<Transactions, Long
 
     // Velocity rule: count recent transactions in last N minutes
     int countByAccountIdAndTimestampAfter(String accountId, LocalDateTime timestamp);
-    List<Transactions> findTop20ByAccountIdOrderByTimestampDesc(String accountId);
+
+    // Velocity window seeding: transactions of the last N minutes (partition key, so only recent partitions are read)
+    List<Transactions> findByTimestampAfter(LocalDateTime timestamp);
 
 }
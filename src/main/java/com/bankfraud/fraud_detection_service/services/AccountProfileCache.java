@@ -0,0 +1,125 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.repositories.AccountProfilesRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+
+ // Read-through cache in front of account_profiles, used on every fraud evaluation.
+ // Accounts without a profile are cached as Optional.empty() (with a shorter TTL) so they
+ // do not hit Postgres each time. Entries are replaced by AccountProfileService writes.
+ // Cached entities are shared between threads and must be treated as read-only.
+
+@Component
+public class AccountProfileCache {
+
+    private static final String CACHE_NAME = "account-profiles";
+
+    private final AccountProfilesRepository repo;
+    private final LoadingCache<String, Optional<AccountProfiles>> cache;
+
+    public AccountProfileCache(AccountProfilesRepository repo,
+                               MeterRegistry meterRegistry,
+                               @Value("${fraud.profile-cache.maximum-size:1000000}") long maximumSize,
+                               @Value("${fraud.profile-cache.ttl-minutes:30}") long ttlMinutes,
+                               @Value("${fraud.profile-cache.negative-ttl-seconds:60}") long negativeTtlSeconds) {
+        this.repo = repo;
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ProfileExpiry(
+                        Duration.ofMinutes(ttlMinutes).toNanos(),
+                        Duration.ofSeconds(negativeTtlSeconds).toNanos()))
+                .recordStats()
+                .build(repo::findById);
+
+        // cache.size, cache.gets{result=hit|miss}, cache.evictions, cache.puts ... tagged cache=account-profiles
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // Returns the profile, or null when the account has none.
+
+    public AccountProfiles find(String accountId) {
+        return cache.get(accountId).orElse(null);
+    }
+
+    // True when a profile (or its absence) is cached for the account; does not load, nor count as a get.
+
+    public boolean isCached(String accountId) {
+        return cache.asMap().containsKey(accountId);
+    }
+
+    // Completed immediately when the account is cached; otherwise loads on the given executor,
+    // so a caller with a deadline can stop waiting while the load still warms the cache.
+
+    public CompletableFuture<AccountProfiles> findAsync(String accountId, Executor executor) {
+        Optional<AccountProfiles> cached = cache.getIfPresent(accountId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.orElse(null));
+        }
+        return CompletableFuture.supplyAsync(() -> find(accountId), executor);
+    }
+
+    // Replaces the cached profile; the instance must not be modified afterwards.
+
+    public void put(AccountProfiles profile) {
+        cache.put(profile.getAccountId(), Optional.of(profile));
+    }
+
+    // Caches a learned profile unless the account was posted again since it was learned from.
+
+    public void putLearned(AccountProfiles profile) {
+        cache.asMap().compute(profile.getAccountId(), (accountId, cached) ->
+                cached == null || cached.isEmpty()
+                        || Objects.equals(cached.get().getPostedAt(), profile.getPostedAt())
+                        ? Optional.of(profile)
+                        : cached);
+    }
+
+    public void invalidate(String accountId) {
+        cache.invalidate(accountId);
+    }
+
+
+     // Profiles live for the configured TTL; negative entries expire sooner so new accounts are picked up.
+
+    private static final class ProfileExpiry implements Expiry<String, Optional<AccountProfiles>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        ProfileExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<AccountProfiles> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<AccountProfiles> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<AccountProfiles> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -5,15 +5,22 @@ import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
 import com.bankfraud.fraud_detection_service.repositories.AccountProfilesRepository;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 
 @Service
 public class AccountProfileService {
 
     private final AccountProfilesRepository repo;
+    private final AccountProfileCache profileCache;
+    private final ProfileLearningService profileLearning;
 
-    public AccountProfileService(AccountProfilesRepository repo) {
+    public AccountProfileService(AccountProfilesRepository repo,
+                                 AccountProfileCache profileCache,
+                                 ProfileLearningService profileLearning) {
         this.repo = repo;
+        this.profileCache = profileCache;
+        this.profileLearning = profileLearning;
     }
 
     public AccountProfiles createProfile(AccountProfileRequestDTO dto) {
@@ -24,8 +31,20 @@ public class AccountProfileService {
         profile.setAvgTxnAmount(dto.getAvgTxnAmount());
         profile.setHomeCountry(dto.getHomeCountry());
         profile.setRiskTier(dto.getRiskTier());
-        profile.setUpdatedAt(LocalDateTime.now());
 
-        return repo.save(profile);
+        // Microseconds, as stored: learned flushes compare it with the column
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        profile.setUpdatedAt(now);
+        profile.setPostedAt(now);
+
+        AccountProfiles saved = repo.save(profile);
+
+        // Drop the learned state and replace the cached (or negatively cached) entry so evaluation sees
+        // the new profile; learning then continues from the posted values. A flush learned before
+        // this POST neither updates the row nor replaces this entry (different posted_at).
+        profileLearning.forget(saved.getAccountId());
+        profileCache.put(saved);
+
+        return saved;
     }
 }
@@ -0,0 +1,304 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.controllers.StreamController;
+import com.bankfraud.fraud_detection_service.diagnostics.AlertEmittedEvent;
+import com.bankfraud.fraud_detection_service.dtos.FraudAlertMapper;
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
+import com.bankfraud.fraud_detection_service.repositories.FraudAlertsBatchRepository;
+import com.bankfraud.fraud_detection_service.transport.AlertTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+
+ // Alert delivery stage, decoupled from transaction evaluation.
+ // FraudEvaluationService only enqueues; a sink thread drains the bounded queue and persists alerts
+ // in multi-row batches, staging them on the alert transport in the same transaction (the Kafka
+ // transport writes outbox rows that OutboxRelay publishes), then hands each persisted batch to the
+ // SSE fan-out worker. A slow database, dashboard or broker never stalls ingestion and a crash
+ // cannot lose a published alert.
+
+@Component
+public class AlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertSink.class);
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    // What submit() does when the queue is full
+    public enum OverflowPolicy {
+        BLOCK,        // wait for room: backpressure on the consumer
+        DROP_NEWEST,  // discard the alert being submitted
+        DROP_OLDEST   // discard the oldest queued alert
+    }
+
+    private final FraudAlertsBatchRepository alertBatchRepo;
+    private final AlertTransport alertTransport;
+    private final TransactionTemplate tx;
+    private final RecentActivityCache recentActivity; // investigation reads
+    private final StreamController streamController; // SSE alerts
+    private final PipelineMetrics metrics;
+
+    private final BlockingQueue<FraudAlerts> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+
+    private final ThreadPoolExecutor sseFanout;
+
+    private final Counter droppedOnSubmit;
+    private final Counter droppedSse;
+    private final Counter persisted;
+    private final Counter persistFailures;
+
+    private final Thread sinkThread;
+    private volatile boolean running = true;
+
+    public AlertSink(FraudAlertsBatchRepository alertBatchRepo,
+                     AlertTransport alertTransport,
+                     PlatformTransactionManager transactionManager,
+                     RecentActivityCache recentActivity,
+                     StreamController streamController,
+                     PipelineMetrics metrics,
+                     MeterRegistry meterRegistry,
+                     @Value("${fraud.alerts.sink.queue-capacity:10000}") int queueCapacity,
+                     @Value("${fraud.alerts.sink.batch-size:200}") int batchSize,
+                     @Value("${fraud.alerts.sink.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                     @Value("${fraud.alerts.sink.fanout-queue-capacity:10000}") int fanoutQueueCapacity) {
+
+        this.alertBatchRepo = alertBatchRepo;
+        this.alertTransport = alertTransport;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.recentActivity = recentActivity;
+        this.streamController = streamController;
+        this.metrics = metrics;
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+
+        this.droppedOnSubmit = droppedCounter(meterRegistry, "queue");
+        this.droppedSse = droppedCounter(meterRegistry, "sse");
+        this.persisted = Counter.builder("fraud.alerts.sink.persisted").register(meterRegistry);
+        this.persistFailures = Counter.builder("fraud.alerts.sink.persist.failures").register(meterRegistry);
+
+        // SSE fan-out worker: one thread, bounded queue, oldest batch dropped when dashboards fall behind
+        this.sseFanout = fanoutExecutor("alert-sse-fanout", fanoutQueueCapacity, droppedSse);
+
+        Gauge.builder("fraud.alerts.sink.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("fraud.alerts.sink.fanout.depth", sseFanout, e -> e.getQueue().size())
+                .tag("target", "sse").register(meterRegistry);
+
+        this.sinkThread = new Thread(this::drainLoop, "alert-sink");
+        this.sinkThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        sinkThread.start();
+    }
+
+    // Called on the evaluation thread; never touches the database or the network.
+
+    public void submit(FraudAlerts alert) {
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(alert);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedOnSubmit.increment();
+                }
+            }
+            case DROP_NEWEST -> {
+                if (!queue.offer(alert)) {
+                    droppedOnSubmit.increment();
+                    log.warn("Alert queue full, dropping alert for tx {}", alert.getRelatedTxnId());
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(alert)) {
+                    FraudAlerts dropped = queue.poll();
+                    if (dropped != null) {
+                        droppedOnSubmit.increment();
+                        log.warn("Alert queue full, dropping oldest alert for tx {}", dropped.getRelatedTxnId());
+                    }
+                }
+            }
+        }
+    }
+
+    /* ---------------- Sink thread ---------------- */
+
+    private void drainLoop() {
+        List<FraudAlerts> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                FraudAlerts first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                persistAndFanOut(batch);
+
+            } catch (InterruptedException e) {
+                // shutdown: keep draining until the queue is empty
+                running = false;
+            } catch (Exception e) {
+                log.error("Alert sink iteration failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persistAndFanOut(List<FraudAlerts> batch) {
+
+        // Save alerts in one multi-row insert and stage their delivery, atomically
+
+        long start = System.nanoTime();
+        List<FraudAlerts> delivered;
+        try {
+            persist(batch);
+            delivered = List.copyOf(batch);
+        } catch (Exception e) {
+            // One bad row fails the whole statement: retry alone so it cannot take the others down
+            log.warn("Failed to persist {} fraud alerts in one batch, retrying one by one", batch.size(), e);
+            delivered = persistOneByOne(batch);
+        }
+        long persistNanos = System.nanoTime() - start;
+
+        if (delivered.isEmpty()) {
+            return;
+        }
+
+        metrics.recordNanos(Stage.ALERT_PERSIST, persistNanos); // one sample per batch
+        persisted.increment(delivered.size());
+        log.debug("Persisted {} fraud alerts", delivered.size());
+
+        alertTransport.published(delivered);
+        emitJfrEvents(delivered, persistNanos);
+
+        // Ids are known now: make the alerts visible to investigators
+        for (FraudAlerts alert : delivered) {
+            recentActivity.recordAlert(alert);
+        }
+
+        List<FraudAlerts> toPush = delivered;
+
+        sseFanout.execute(() -> pushToSse(toPush));
+    }
+
+    private void persist(List<FraudAlerts> alerts) {
+        tx.executeWithoutResult(status -> {
+            alertBatchRepo.insertAll(alerts);
+            alertTransport.stage(alerts);
+        });
+    }
+
+    // Returns the alerts that were stored; the others are counted and logged.
+
+    private List<FraudAlerts> persistOneByOne(List<FraudAlerts> batch) {
+        List<FraudAlerts> stored = new ArrayList<>(batch.size());
+
+        for (FraudAlerts alert : batch) {
+            try {
+                persist(List.of(alert));
+                stored.add(alert);
+            } catch (Exception e) {
+                alert.setId(null);
+                persistFailures.increment();
+                log.error("Failed to persist fraud alert for tx {}", alert.getRelatedTxnId(), e);
+            }
+        }
+        return stored;
+    }
+
+    // Push fraud alerts to frontend via SSE
+
+    private void pushToSse(List<FraudAlerts> alerts) {
+        for (FraudAlerts alert : alerts) {
+            try {
+                long start = System.nanoTime();
+                streamController.pushAlert(FraudAlertMapper.toDto(alert));
+                metrics.record(Stage.SSE_PUSH, start);
+            } catch (Exception ex) {
+                log.warn("Failed to push fraud alert SSE", ex);
+            }
+        }
+    }
+
+    // One AlertEmitted JFR event per alert; skipped entirely when no recording enables it
+
+    private static void emitJfrEvents(List<FraudAlerts> batch, long persistNanos) {
+        LocalDateTime now = LocalDateTime.now();
+
+        for (FraudAlerts alert : batch) {
+            AlertEmittedEvent event = new AlertEmittedEvent();
+            if (!event.isEnabled()) {
+                return;
+            }
+            event.alertId = alert.getId() == null ? 0 : alert.getId();
+            event.accountIdHash = alert.getAccountId() == null ? 0 : alert.getAccountId().hashCode();
+            event.alertType = alert.getAlertType();
+            event.score = alert.getAlertScore() == null ? 0 : alert.getAlertScore().doubleValue();
+            event.batchSize = batch.size();
+            event.persist = persistNanos;
+            event.sinceDetection = alert.getDetectedAt() == null
+                    ? 0 : Duration.between(alert.getDetectedAt(), now).toMillis();
+            event.commit();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        sinkThread.join(TimeUnit.SECONDS.toMillis(30));
+
+        sseFanout.shutdown();
+        sseFanout.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static Counter droppedCounter(MeterRegistry registry, String stage) {
+        return Counter.builder("fraud.alerts.sink.dropped").tag("stage", stage).register(registry);
+    }
+
+    private static ThreadPoolExecutor fanoutExecutor(String threadName, int capacity, Counter dropped) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    // drop the oldest pending batch to make room for the newest
+                    if (!executor.isShutdown()) {
+                        executor.getQueue().poll();
+                        dropped.increment();
+                        executor.execute(task);
+                    }
+                });
+    }
+}
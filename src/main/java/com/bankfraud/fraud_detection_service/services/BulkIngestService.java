@@ -0,0 +1,169 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.dtos.BulkIngestResultDTO;
+import com.bankfraud.fraud_detection_service.dtos.BulkIngestResultDTO.RecordResult;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.transport.TransactionTransport;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+
+ // Bulk ingestion for upstream batch jobs: reads an NDJSON stream or a JSON array record by record
+ // (the body is never buffered whole) and pipelines the records into the transaction transport with
+ // async sends. At most fraud.ingest.max-in-flight records wait for an ack (broker or queue); beyond that the reader blocks,
+ // which pushes back on the client through the request body. Each record gets its own result.
+
+@Service
+public class BulkIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkIngestService.class);
+
+    private final TransactionTransport transport;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader transactionReader;
+    private final int maxInFlight;
+    private final long sendTimeoutMillis;
+
+    public BulkIngestService(TransactionTransport transport,
+                             ObjectMapper objectMapper,
+                             @Value("${fraud.ingest.max-in-flight:5000}") int maxInFlight,
+                             @Value("${fraud.ingest.send-timeout-ms:30000}") long sendTimeoutMillis) {
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.transactionReader = objectMapper.readerFor(TransactionRequestDTO.class);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    public BulkIngestResultDTO ingest(InputStream body) throws InterruptedException {
+
+        List<RecordResult> results = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        String error = null;
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            // NDJSON is a sequence of root-level objects, which the parser reads natively
+            while (token != null && token != JsonToken.END_ARRAY) {
+
+                // Syntax errors end the stream here; mapping errors only fail this record
+                JsonNode node = parser.readValueAsTree();
+                int index = results.size();
+                RecordResult result = new RecordResult(index, node.path("transactionId").asText(null), false, null);
+                results.add(result);
+
+                TransactionRequestDTO dto = toTransaction(node, result);
+                if (dto != null) {
+                    send(dto, result, inFlight);
+                }
+
+                token = parser.nextToken();
+            }
+
+        } catch (IOException e) {
+            error = "Malformed body after record " + results.size() + ": " + e.getMessage();
+            log.warn("Bulk ingest stopped early | records={}", results.size(), e);
+        }
+
+        // Wait for the acks still outstanding; records without one by then are reported as failed
+        if (inFlight.tryAcquire(maxInFlight, sendTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+
+        return summarize(results, error);
+    }
+
+    private TransactionRequestDTO toTransaction(JsonNode node, RecordResult result) {
+        TransactionRequestDTO dto;
+        try {
+            dto = transactionReader.treeToValue(node, TransactionRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            result.setError("Invalid record: " + e.getOriginalMessage());
+            return null;
+        }
+
+        // Every NOT NULL column of transactions; a record accepted here must be storable
+        if (dto.getTransactionId() == null || dto.getAccountId() == null
+                || dto.getTxnType() == null || dto.getAmount() == null) {
+            result.setError("transactionId, accountId, txnType and amount are required");
+            return null;
+        }
+        try {
+            LocalDateTime.parse(dto.getTimestamp());
+        } catch (DateTimeParseException | NullPointerException e) {
+            result.setError("Invalid timestamp: " + dto.getTimestamp());
+            return null;
+        }
+        return dto;
+    }
+
+    private void send(TransactionRequestDTO dto, RecordResult result, Semaphore inFlight) throws InterruptedException {
+        // Backpressure: stop reading the body while too many records are unacknowledged
+        inFlight.acquire();
+        try {
+            transport.send(dto).whenComplete((sent, failure) -> {
+                synchronized (result) {
+                    if (failure == null) {
+                        result.setAccepted(true);
+                    } else {
+                        result.setError("Send failed: " + failure.getMessage());
+                    }
+                }
+                inFlight.release();
+            });
+        } catch (RuntimeException e) {
+            // send() can fail synchronously, e.g. when the Kafka producer buffer stays full
+            synchronized (result) {
+                result.setError("Send failed: " + e.getMessage());
+            }
+            inFlight.release();
+        }
+    }
+
+    // Copies the results as they stand: an ack arriving after the timeout only updates the live
+    // record, never the summary the client is about to receive.
+
+    private static BulkIngestResultDTO summarize(List<RecordResult> results, String error) {
+        List<RecordResult> frozen = new ArrayList<>(results.size());
+        int accepted = 0;
+
+        for (RecordResult result : results) {
+            synchronized (result) {
+                if (result.isAccepted()) {
+                    accepted++;
+                }
+                frozen.add(new RecordResult(
+                        result.getIndex(),
+                        result.getTransactionId(),
+                        result.isAccepted(),
+                        result.isAccepted() || result.getError() != null
+                                ? result.getError()
+                                : "No acknowledgement within the send timeout"));
+            }
+        }
+        return new BulkIngestResultDTO(accepted, frozen.size() - accepted, error, frozen);
+    }
+}
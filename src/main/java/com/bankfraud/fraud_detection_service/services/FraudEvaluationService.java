@@ -1,25 +1,21 @@
 package com.bankfraud.fraud_detection_service.services;
 
 import com.bankfraud.fraud_detection_service.business.*;
-import com.bankfraud.fraud_detection_service.controllers.StreamController;
-import com.bankfraud.fraud_detection_service.dtos.FraudAlertDTO;
 import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
 import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
 import com.bankfraud.fraud_detection_service.entities.Transactions;
-import com.bankfraud.fraud_detection_service.repositories.AccountProfilesRepository;
-import com.bankfraud.fraud_detection_service.repositories.FraudAlertsRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class FraudEvaluationService {
@@ -27,34 +23,40 @@ public class FraudEvaluationService {
     private static final Logger log =
             LoggerFactory.getLogger(FraudEvaluationService.class);
 
-    private final AccountProfilesRepository profileRepo;
-    private final FraudAlertsRepository alertRepo;
-    private final KafkaTemplate<String, String> stringKafkaTemplate;
-    private final ObjectMapper objectMapper;
-    private final StreamController streamController; // SSE alerts
-    private final TransactionService transactionService;
+    private final AccountProfileCache profileCache;
+    private final AlertSink alertSink; // persistence, SSE and Kafka delivery
+    private final VelocityWindowStore velocityStore;
+    private final FraudRuleConfigRegistry ruleConfigs; // thresholds, windows and weights
+    private final PipelineMetrics metrics;
 
     //Pure business logic
 
     private final FraudRuleEngine ruleEngine = new FraudRuleEngine();
-    private final FraudScoringService scoringService = new FraudScoringService();
-    private static final String FRAUD_ALERTS_TOPIC = "fraud-alerts";
-
-    public FraudEvaluationService(AccountProfilesRepository profileRepo,
-                                  FraudAlertsRepository alertRepo,
-                                  @Qualifier("stringKafkaTemplate")
-                                  KafkaTemplate<String, String> stringKafkaTemplate,
-                                  ObjectMapper objectMapper,
-                                  StreamController streamController,
-                                  TransactionService transactionService ) {
-
-
-        this.profileRepo = profileRepo;
-        this.alertRepo = alertRepo;
-        this.stringKafkaTemplate = stringKafkaTemplate;
-        this.objectMapper = objectMapper;
-        this.streamController = streamController;
-        this.transactionService = transactionService;
+
+    private final boolean shortCircuit;
+    private final Counter profileSkipped;
+
+    // One reusable feature holder per evaluating thread
+    private final ThreadLocal<LazyFeatures> lazyFeatures = ThreadLocal.withInitial(LazyFeatures::new);
+
+    public FraudEvaluationService(AccountProfileCache profileCache,
+                                  AlertSink alertSink,
+                                  VelocityWindowStore velocityStore,
+                                  FraudRuleConfigRegistry ruleConfigs,
+                                  PipelineMetrics metrics,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${fraud.rules.short-circuit:true}") boolean shortCircuit) {
+
+
+        this.profileCache = profileCache;
+        this.alertSink = alertSink;
+        this.velocityStore = velocityStore;
+        this.ruleConfigs = ruleConfigs;
+        this.metrics = metrics;
+        this.shortCircuit = shortCircuit;
+
+        // How many profile lookups short-circuiting saved; the profile rules were not evaluated for those
+        this.profileSkipped = skippedCounter(meterRegistry, FraudFeature.PROFILE);
     }
 
 
@@ -62,172 +64,203 @@ public class FraudEvaluationService {
 
     public void evaluate(Transactions tx) {
 
-        log.info(
-                "Starting fraud evaluation | txId={} accountId={} amount={}",
-                tx.getTransactionId(),
-                tx.getAccountId(),
-                tx.getAmount()
-        );
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Starting fraud evaluation | txId={} accountId={} amount={}",
+                    tx.getTransactionId(),
+                    tx.getAccountId(),
+                    tx.getAmount()
+            );
+        }
 
-        // Velocity: last 2 minutes
-        LocalDateTime velocitySince =
-                tx.getTimestamp().minusMinutes(2);
+        // One snapshot for the whole evaluation, so a concurrent reload cannot mix versions
 
-        // Rapid transfers: last 5 minutes
-        LocalDateTime rapidSince =
-                tx.getTimestamp().minusMinutes(5);
+        FraudRuleConfig config = ruleConfigs.current();
 
-        int recentCount =
-                transactionService.countTransactionsSince(
-                        tx.getAccountId(),
-                        velocitySince
-                );
+        long start = System.nanoTime();
 
-        boolean rapidTransfers =
-                transactionService.countTransactionsSince(
-                        tx.getAccountId(),
-                        rapidSince
-                ) >= 10;
+        // Features (velocity windows, profile) are fetched on demand, cheapest first; with short-circuit
+        // on, an uncached profile is not fetched for a transaction that can no longer reach the threshold
 
-        // Fetch account profile
+        LazyFeatures features = lazyFeatures.get();
+        features.reset(tx, config);
 
-        AccountProfiles profile =
-                profileRepo.findById(tx.getAccountId()).orElse(null);
+        int triggeredMask = ruleEngine.evaluateLazily(
+                config,
+                tx,
+                features,
+                shortCircuit
+        );
 
-        // Geo Mismatch check
+        features.recordSkipped();
 
-        boolean geoMismatch = false;
+        // Per-transaction context at DEBUG only; in production the TransactionProcessed JFR event has it
 
-        if (profile != null
-                && tx.getLocation() != null
-                && profile.getHomeCountry() != null) {
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Fraud context | txId={} accountId={} velocityChecked={} profileChecked={}",
+                    tx.getTransactionId(),
+                    tx.getAccountId(),
+                    features.velocityFetched,
+                    features.profileFetched
+            );
+        }
+
+        // Scoring : precomputed weight table
 
-            geoMismatch = !tx.getLocation()
-                    .equalsIgnoreCase(profile.getHomeCountry());
+        int score = config.getWeights().score(triggeredMask);
+        boolean fraudulent = score >= config.getAlertScoreThreshold();
+
+        // Lookups have their own stage timers
+        metrics.recordNanos(Stage.RULE_EVALUATION, System.nanoTime() - start - features.lookupNanos);
+        metrics.evaluated(triggeredMask, score, fraudulent);
+
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Transaction {} evaluated | Rules: {} | Score: {}",
+                    tx.getTransactionId(),
+                    FraudDecision.fromMask(triggeredMask).getTriggeredRules(),
+                    score
+            );
         }
 
-        // DEBUG CONTEXT LOG — VERY IMPORTANT
+        // Persist & publish alert if fraud detected
 
-        log.info(
-                "Fraud context | txId={} accountId={} recentTxCount={} rapidTransfers={} geoMismatch={}",
-                tx.getTransactionId(),
+        if (!fraudulent) {
+            return; // skip non-fraudulent transactions
+        }
+
+        // BigDecimal / enum view of the decision for the alert row and payload
+
+        FraudDecision decision = FraudDecision.fromMask(triggeredMask);
+        decision.setScore(BigDecimal.valueOf(score));
+        decision.setFraudulent(true);
+
+        log.warn(
+                "Fraud detected | Account {} | Tx {} | Score {}",
                 tx.getAccountId(),
-                recentCount,
-                rapidTransfers,
-                geoMismatch
+                tx.getTransactionId(),
+                decision.getScore()
         );
 
-        // Rule Evaluation
+        // Build Alert Entity
 
-        FraudDecision decision = ruleEngine.evaluate(
-                tx,
-                profile,
-                recentCount,
-                geoMismatch,
-                rapidTransfers
-        );
+        FraudAlerts alert = new FraudAlerts();
+        alert.setAccountId(tx.getAccountId());
+        alert.setAlertType(decision.getAlertType());
+        alert.setAlertScore(decision.getScore());
+        alert.setRelatedTxnId(tx.getTransactionId());
+        alert.setDetectedAt(LocalDateTime.now());
+        alert.setAcknowledged(false);
+        alert.setRuleConfigVersion(config.getVersion());
+
+        /*  IMPORTANT PART (JSONB DETAILS) */
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("triggeredRules", decision.getTriggeredRules());
+        details.put("score", decision.getScore());
+        details.put("transactionId", tx.getTransactionId());
+        details.put("amount", tx.getAmount());
+        details.put("location", tx.getLocation());
+        details.put("timestamp", tx.getTimestamp());
+        details.put("ruleConfigVersion", config.getVersion());
+
+        alert.setDetails(details);
+
+        // Hand off to the alert sink: persistence, SSE and Kafka happen off this thread
+
+        alertSink.submit(alert);
+    }
 
-        // Scoring : Calculate fraud Score
+    private static Counter skippedCounter(MeterRegistry registry, FraudFeature feature) {
+        return Counter.builder("fraud.features.skipped")
+                .tag("feature", feature.name().toLowerCase())
+                .register(registry);
+    }
+
+
+     // Per-thread, per-transaction feature memo: each lookup runs at most once, and only if asked for.
+
+    private final class LazyFeatures implements FraudFeatureSource {
+
+        private Transactions tx;
+        private FraudRuleConfig config;
 
-        decision.setScore(scoringService.calculateScore(decision));
+        private boolean velocityFetched;
+        private VelocityWindowStore.VelocityCounts counts;
 
-        if (decision.getScore().compareTo(BigDecimal.valueOf(40)) >= 0) {
-            decision.setFraudulent(true);
-        } else {
-            decision.setFraudulent(false);
+        private boolean profileFetched;
+        private AccountProfiles profile;
+
+        private long lookupNanos;
+
+        void reset(Transactions tx, FraudRuleConfig config) {
+            this.tx = tx;
+            this.config = config;
+            this.velocityFetched = false;
+            this.counts = null;
+            this.profileFetched = false;
+            this.profile = null;
+            this.lookupNanos = 0;
         }
 
-        log.debug(
-                "Transaction {} evaluated | Rules: {} | Score: {}",
-                tx.getTransactionId(),
-                decision.getTriggeredRules(),
-                decision.getScore()
-        );
+        @Override
+        public int velocityWindowCount() {
+            return counts().velocityWindowCount();
+        }
 
-        // Persist & publish alert if fraud detected
+        @Override
+        public int rapidWindowCount() {
+            return counts().rapidWindowCount();
+        }
 
-        if (!decision.isFraudulent()) {
-            return; // skip non-fraudulent transactions
+        // Velocity and rapid transfers windows, both from the in-memory windows in one lookup
+
+        private VelocityWindowStore.VelocityCounts counts() {
+            if (!velocityFetched) {
+                long start = System.nanoTime();
+                counts = velocityStore.count(
+                        tx.getAccountId(),
+                        tx.getTimestamp(),
+                        config.getVelocityWindowSeconds(),
+                        config.getRapidTransferWindowSeconds()
+                );
+                velocityFetched = true;
+                recordLookup(Stage.VELOCITY_LOOKUP, start);
+            }
+            return counts;
         }
 
-            log.warn(
-                    "Fraud detected | Account {} | Tx {} | Score {}",
-                    tx.getAccountId(),
-                    tx.getTransactionId(),
-                    decision.getScore()
-            );
+        // Fetch account profile (read-through cache)
 
+        @Override
+        public AccountProfiles profile() {
+            if (!profileFetched) {
+                long start = System.nanoTime();
+                profile = profileCache.find(tx.getAccountId());
+                profileFetched = true;
+                recordLookup(Stage.PROFILE_LOOKUP, start);
+            }
+            return profile;
+        }
 
-            // Build Alert Entity
-
-            FraudAlerts alert = new FraudAlerts();
-            alert.setAccountId(tx.getAccountId());
-            alert.setAlertType(String.join(
-                    ",",
-                    decision.getTriggeredRules()
-                            .stream()
-                            .map(Enum::name)
-                            .collect(Collectors.joining(","))
-            ));
-            alert.setAlertScore(decision.getScore());
-            alert.setRelatedTxnId(tx.getTransactionId());
-            alert.setDetectedAt(LocalDateTime.now());
-            alert.setAcknowledged(false);
-
-            /*  IMPORTANT PART (JSONB DETAILS) */
-
-            Map<String, Object> details = new HashMap<>();
-            details.put("triggeredRules", decision.getTriggeredRules());
-            details.put("score", decision.getScore());
-            details.put("transactionId", tx.getTransactionId());
-            details.put("amount", tx.getAmount());
-            details.put("location", tx.getLocation());
-            details.put("timestamp", tx.getTimestamp());
-
-            alert.setDetails(details);
-
-         // Save Alert in Alert Table
-
-           try {
-               alertRepo.save(alert);
-               log.info("Fraud alert persisted for transaction {}", tx.getTransactionId());
-           }catch (Exception e) {
-               log.error("Failed to persist fraud alert for tx {}", tx.getTransactionId(), e);
-               return;
-           }
-
-
-            // Push fraud alert to frontend via SSE
-
-        try {
-            FraudAlertDTO dto = new FraudAlertDTO(
-                    alert.getId(),
-                    alert.getAccountId(),
-                    alert.getAlertType(),
-                    alert.getAlertScore(),
-                    alert.getRelatedTxnId(),
-                    alert.getDetails(),
-                    alert.getDetectedAt(),
-                    alert.getAcknowledged()
-            );
-            streamController.pushAlert(dto);
-        } catch (Exception ex) {
-                log.warn("Failed to push fraud alert SSE", ex);
+        private void recordLookup(Stage stage, long start) {
+            long elapsed = System.nanoTime() - start;
+            lookupNanos += elapsed;
+            metrics.recordNanos(stage, elapsed);
         }
 
-        // Publish to Kafka
+        // Only a profile not in the cache is worth skipping
 
-            try {
-                String alertJson = objectMapper.writeValueAsString(alert);
-                stringKafkaTemplate.send(FRAUD_ALERTS_TOPIC, alertJson);
+        @Override
+        public boolean isCached(FraudFeature feature) {
+            return feature == FraudFeature.PROFILE && (profileFetched || profileCache.isCached(tx.getAccountId()));
+        }
 
-                log.info("Fraud alert published to Kafka topic {}", FRAUD_ALERTS_TOPIC);
-            } catch (Exception e) {
-                log.error(
-                        "Failed to publish fraud alert for transaction {}",
-                        tx.getTransactionId(),
-                        e
-                );
+        void recordSkipped() {
+            if (!profileFetched) {
+                profileSkipped.increment();
             }
         }
     }
+}
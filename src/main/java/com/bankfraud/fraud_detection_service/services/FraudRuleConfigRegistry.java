@@ -0,0 +1,107 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.dtos.RuleConfigDTO;
+import com.bankfraud.fraud_detection_service.repositories.FraudRuleConfigRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+
+ // Holds the active FraudRuleConfig snapshot.
+ // Evaluation threads read it with a single volatile load; a new version (published through
+ // /api/rules or written to fraud_rule_config by another instance) is compiled off the hot path
+ // and swapped in whole, so no evaluation ever sees a mix of old and new thresholds.
+
+@Component
+public class FraudRuleConfigRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(FraudRuleConfigRegistry.class);
+
+    private final FraudRuleConfigRepository configRepo;
+    private final VelocityWindowStore velocityStore;
+
+    private volatile FraudRuleConfig current = FraudRuleConfig.DEFAULT;
+
+    public FraudRuleConfigRegistry(FraudRuleConfigRepository configRepo,
+                                   VelocityWindowStore velocityStore,
+                                   MeterRegistry meterRegistry) {
+        this.configRepo = configRepo;
+        this.velocityStore = velocityStore;
+
+        Gauge.builder("fraud.rules.config.version", this, registry -> registry.current().getVersion())
+                .register(meterRegistry);
+    }
+
+    public FraudRuleConfig current() {
+        return current;
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+        log.info("Fraud rule configuration loaded | version={}", current.getVersion());
+    }
+
+    // Picks up versions stored by other instances (or by hand) without a restart.
+
+    @Scheduled(fixedDelayString = "${fraud.rules.refresh-interval-ms:10000}")
+    public void refresh() {
+        try {
+            long latest = configRepo.findLatestVersion().orElse(0L);
+            if (latest == 0L || latest == current.getVersion()) {
+                return;
+            }
+
+            configRepo.findByVersion(latest)
+                    .map(definition -> compile(latest, definition))
+                    .ifPresent(this::swap);
+
+        } catch (Exception e) {
+            // keep evaluating with the last good snapshot
+            log.error("Failed to refresh fraud rule configuration, keeping version {}", current.getVersion(), e);
+        }
+    }
+
+    // Validates, stores and activates a new version. Throws IllegalArgumentException on a bad definition.
+
+    public synchronized FraudRuleConfig publish(RuleConfigDTO definition) {
+        compile(0, definition); // validate before storing
+
+        long version = configRepo.insert(definition);
+        FraudRuleConfig config = compile(version, definition);
+        swap(config);
+
+        return config;
+    }
+
+    private FraudRuleConfig compile(long version, RuleConfigDTO definition) {
+        FraudRuleConfig config = FraudRuleConfig.compile(version, definition);
+
+        // Windows are answered from memory, which only covers fraud.velocity.span-minutes
+        int longestWindow = Math.max(config.getVelocityWindowSeconds(), config.getRapidTransferWindowSeconds());
+        if (longestWindow > velocityStore.spanSeconds()) {
+            throw new IllegalArgumentException("Invalid rule configuration: windows may not exceed "
+                    + velocityStore.spanSeconds() + "s (fraud.velocity.span-minutes)");
+        }
+
+        return config;
+    }
+
+    private synchronized void swap(FraudRuleConfig config) {
+        // versions only move forward, whichever of publish() and refresh() gets here first
+        if (config.getVersion() <= current.getVersion()) {
+            return;
+        }
+
+        FraudRuleConfig previous = current;
+        current = config;
+
+        log.info("Fraud rule configuration activated | version={} previous={}",
+                config.getVersion(), previous.getVersion());
+    }
+}
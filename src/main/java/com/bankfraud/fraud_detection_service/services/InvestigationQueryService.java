@@ -0,0 +1,161 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.dtos.FraudAlertDTO;
+import com.bankfraud.fraud_detection_service.dtos.FraudAlertMapper;
+import com.bankfraud.fraud_detection_service.dtos.PageCursor;
+import com.bankfraud.fraud_detection_service.dtos.TransactionMapper;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.repositories.InvestigationQueryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+ // Account history for investigators: keyset pages capped at fraud.investigation.max-page-size,
+ // and NDJSON exports that stream rows from a database cursor straight to the response.
+ // First pages come from RecentActivityCache when it can answer them.
+
+@Service
+public class InvestigationQueryService {
+
+    private final InvestigationQueryRepository queryRepo;
+    private final RecentActivityCache recentActivity;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final int maxPageSize;
+    private final int exportFetchSize;
+
+    public InvestigationQueryService(InvestigationQueryRepository queryRepo,
+                                     RecentActivityCache recentActivity,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${fraud.investigation.max-page-size:500}") int maxPageSize,
+                                     @Value("${fraud.investigation.export-fetch-size:1000}") int exportFetchSize) {
+        this.queryRepo = queryRepo;
+        this.recentActivity = recentActivity;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.exportFetchSize = exportFetchSize;
+
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // One page plus the cursor for the next one (null on the last page).
+
+    public record Page<T>(List<T> items, String nextCursor) {
+    }
+
+    public Page<TransactionRequestDTO> transactions(String accountId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+
+        if (cursor == null || cursor.isBlank()) {
+            Page<TransactionRequestDTO> cached = recentActivity.firstTransactionsPage(accountId, pageSize);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // one extra row tells whether there is a next page
+        List<Transactions> rows = queryRepo.findTransactionsPage(accountId, decode(cursor), pageSize + 1);
+
+        List<TransactionRequestDTO> items = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (int i = 0; i < rows.size() && i < pageSize; i++) {
+            items.add(TransactionMapper.toDto(rows.get(i)));
+        }
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            Transactions last = rows.get(pageSize - 1);
+            next = new PageCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new Page<>(items, next);
+    }
+
+    public Page<FraudAlertDTO> alerts(String accountId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+
+        if (cursor == null || cursor.isBlank()) {
+            Page<FraudAlertDTO> cached = recentActivity.firstAlertsPage(accountId, pageSize);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<FraudAlerts> rows = queryRepo.findAlertsPage(accountId, decode(cursor), pageSize + 1);
+
+        List<FraudAlertDTO> items = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (int i = 0; i < rows.size() && i < pageSize; i++) {
+            items.add(FraudAlertMapper.toDto(rows.get(i)));
+        }
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            FraudAlerts last = rows.get(pageSize - 1);
+            next = new PageCursor(last.getDetectedAt(), last.getId()).encode();
+        }
+        return new Page<>(items, next);
+    }
+
+    /* ---------------- NDJSON exports ---------------- */
+
+    // Heap use is bounded by the fetch size, whatever the account's history length; the
+    // connection is held until the client has read everything.
+
+    public void exportTransactions(String accountId, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out);
+
+        try {
+            readOnlyTx.executeWithoutResult(status ->
+                    queryRepo.streamTransactions(accountId, exportFetchSize, tx -> writeLine(buffered, TransactionMapper.toDto(tx))));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away
+        }
+
+        buffered.flush();
+    }
+
+    public void exportAlerts(String accountId, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out);
+
+        try {
+            readOnlyTx.executeWithoutResult(status ->
+                    queryRepo.streamAlerts(accountId, exportFetchSize, alert -> writeLine(buffered, FraudAlertMapper.toDto(alert))));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        buffered.flush();
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize); // hard server-side cap
+    }
+
+    private static PageCursor decode(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+    }
+}
@@ -0,0 +1,231 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
+import com.bankfraud.fraud_detection_service.repositories.OutboxRepository;
+import com.bankfraud.fraud_detection_service.repositories.OutboxRepository.OutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+ // Publishes outbox rows to Kafka, at least once.
+ // A relay thread leases unsent rows in large batches (one short claiming statement), sends them
+ // all asynchronously outside any transaction, waits for the acks and stamps sent_at on the
+ // acknowledged ones. Per key, only the rows before the first failed send count as sent: the
+ // failed row and the rows behind it are sent again, in order, after the retry delay. A row that
+ // fails max-attempts times moves to outbox_dead_letters so it no longer holds its key back.
+ // After a broker outage the relay keeps taking full batches back to back until the backlog is gone.
+
+@Component
+@ConditionalOnProperty(name = "fraud.transport.type", havingValue = "kafka", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepo;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final PipelineMetrics metrics;
+
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long sendTimeoutMillis;
+    private final long leaseMillis;
+    private final long retryDelayMillis;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final Counter published;
+    private final Counter publishFailures;
+    private final Counter deadLettered;
+
+    // Released by writers after they commit outbox rows, so the relay does not wait a full poll interval
+    private final Semaphore wakeUp = new Semaphore(0);
+
+    private final Thread relayThread;
+    private volatile boolean running = true;
+
+    public OutboxRelay(OutboxRepository outboxRepo,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       PipelineMetrics metrics,
+                       MeterRegistry meterRegistry,
+                       @Value("${fraud.outbox.batch-size:1000}") int batchSize,
+                       @Value("${fraud.outbox.poll-interval-ms:500}") long pollIntervalMillis,
+                       @Value("${fraud.outbox.send-timeout-ms:30000}") long sendTimeoutMillis,
+                       @Value("${fraud.outbox.retry-delay-ms:5000}") long retryDelayMillis,
+                       @Value("${fraud.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${fraud.outbox.retention-hours:24}") int retentionHours) {
+
+        this.outboxRepo = outboxRepo;
+        this.kafkaTemplate = kafkaTemplate;
+        this.metrics = metrics;
+
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        // Outlives the wait for acks, so a live relay never loses its rows to another instance
+        this.leaseMillis = 2 * sendTimeoutMillis + 10_000;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retention = Duration.ofHours(retentionHours);
+
+        this.published = Counter.builder("fraud.outbox.published").register(meterRegistry);
+        this.publishFailures = Counter.builder("fraud.outbox.publish.failures").register(meterRegistry);
+        this.deadLettered = Counter.builder("fraud.outbox.dead-lettered").register(meterRegistry);
+
+        this.relayThread = new Thread(this::relayLoop, "outbox-relay");
+        this.relayThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        relayThread.start();
+    }
+
+    // Hint that new rows were committed; never blocks.
+
+    public void signal() {
+        if (wakeUp.availablePermits() == 0) {
+            wakeUp.release();
+        }
+    }
+
+    private void relayLoop() {
+        while (running) {
+            try {
+                wakeUp.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+
+                // Full batch: there is probably more waiting, go again right away
+                while (running && relayBatch() == batchSize) {
+                    log.debug("Outbox relay catching up");
+                }
+
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Exception e) {
+                log.error("Outbox relay iteration failed", e);
+            }
+        }
+    }
+
+    // Claim, send, wait for acks, mark. Returns the number of rows marked sent.
+
+    int relayBatch() {
+        List<OutboxMessage> batch = outboxRepo.claimUnsent(batchSize, leaseMillis);
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, byte[]>>> acks = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            long start = System.nanoTime();
+            acks.add(kafkaTemplate.send(message.topic(), message.key(), message.payload())
+                    .whenComplete((result, failure) -> {
+                        if (failure == null) {
+                            metrics.record(Stage.KAFKA_PUBLISH, start);
+                        }
+                    }));
+        }
+
+        Set<Long> acked = awaitAcks(batch, acks);
+
+        // Rows come oldest first: once a key failed, its later rows wait for the failed one
+        List<Long> delivered = new ArrayList<>(acked.size());
+        List<Long> failed = new ArrayList<>();
+        List<Long> heldBack = new ArrayList<>();
+        Set<String> failedKeys = new HashSet<>();
+
+        for (OutboxMessage message : batch) {
+            if (message.key() != null && failedKeys.contains(message.key())) {
+                heldBack.add(message.id());
+            } else if (acked.contains(message.id())) {
+                delivered.add(message.id());
+            } else {
+                failed.add(message.id());
+                if (message.key() != null) {
+                    failedKeys.add(message.key());
+                }
+            }
+        }
+
+        outboxRepo.markSent(delivered);
+        published.increment(delivered.size());
+
+        if (!failed.isEmpty()) {
+            outboxRepo.markFailed(failed, retryDelayMillis);
+            outboxRepo.release(heldBack);
+            publishFailures.increment(failed.size());
+
+            int dead = outboxRepo.deadLetter(failed, maxAttempts);
+            if (dead > 0) {
+                deadLettered.increment(dead);
+                log.error("Outbox relay moved {} messages to outbox_dead_letters after {} failed attempts",
+                        dead, maxAttempts);
+            }
+
+            log.warn("Outbox relay published {} of {} messages | failed={} heldBack={}",
+                    delivered.size(), batch.size(), failed.size(), heldBack.size());
+        }
+
+        return delivered.size();
+    }
+
+    private Set<Long> awaitAcks(List<OutboxMessage> batch,
+                                List<CompletableFuture<SendResult<String, byte[]>>> acks) {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        Set<Long> delivered = new HashSet<>(batch.size() * 2);
+
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered.add(batch.get(i).id());
+            } catch (ExecutionException | TimeoutException e) {
+                log.debug("Outbox message {} not acknowledged", batch.get(i).id(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return delivered;
+    }
+
+    // Sent rows are only kept for troubleshooting.
+
+    @Scheduled(fixedDelayString = "${fraud.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        int deleted = outboxRepo.deleteSentBefore(Instant.now().minus(retention));
+        log.debug("Outbox purge | deleted={}", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        relayThread.interrupt();
+        relayThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -0,0 +1,200 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+
+ // Keeps the daily partitions of transactions and fraud_alerts (see V4 migration) rolling:
+ // creates the next days ahead of time and removes partitions older than the retention.
+ // Rows of a day that reached the default partition before its partition existed are moved into
+ // the new partition. Expired partitions are detached, and dropped only when
+ // fraud.partitions.retention-mode is DROP. transaction_ids (V10) entries older than the retention
+ // are deleted as well. Runs at startup and then daily.
+
+@Component
+public class PartitionMaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    private static final List<String> PARTITIONED_TABLES = List.of("transactions", "fraud_alerts");
+
+    // Partition key of each table
+    private static final Map<String, String> PARTITION_COLUMNS =
+            Map.of("transactions", "timestamp", "fraud_alerts", "detected_at");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i "
+                    + "JOIN pg_class c ON c.oid = i.inhrelid "
+                    + "JOIN pg_class p ON p.oid = i.inhparent "
+                    + "WHERE p.relname = ?";
+
+    private static final String EXPIRE_TRANSACTION_IDS_SQL =
+            "DELETE FROM transaction_ids WHERE stored_at < ?";
+
+    public enum RetentionMode {
+        DROP,    // detach and drop expired partitions
+        DETACH   // only detach them, leaving standalone tables to archive
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final Counter failures;
+    private final int aheadDays;
+    private final int retentionDays;
+    private final RetentionMode retentionMode;
+
+    public PartitionMaintenanceJob(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${fraud.partitions.ahead-days:7}") int aheadDays,
+                                   @Value("${fraud.partitions.retention-days:90}") int retentionDays,
+                                   @Value("${fraud.partitions.retention-mode:DETACH}") RetentionMode retentionMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.failures = Counter.builder("fraud.partitions.maintenance.failures").register(meterRegistry);
+        this.aheadDays = aheadDays;
+        this.retentionDays = retentionDays;
+        this.retentionMode = retentionMode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${fraud.partitions.cron:0 15 0 * * *}", zone = "UTC")
+    public void maintain() {
+        maintain(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    void maintain(LocalDate today) {
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                createUpcoming(table, today);
+                applyRetention(table, today.minusDays(retentionDays));
+            } catch (Exception e) {
+                // next run retries; the default partition catches rows of a missing day meanwhile
+                failures.increment();
+                log.error("Partition maintenance failed for {}", table, e);
+            }
+        }
+
+        try {
+            expireTransactionIds(today.minusDays(retentionDays));
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Expiring transaction_ids failed", e);
+        }
+    }
+
+    // A retry of an id older than the retention is no longer recognized as a duplicate
+
+    private void expireTransactionIds(LocalDate oldestKept) {
+        int expired = jdbcTemplate.update(EXPIRE_TRANSACTION_IDS_SQL, oldestKept.atStartOfDay().atOffset(ZoneOffset.UTC));
+        if (expired > 0) {
+            log.info("Expired {} transaction_ids stored before {}", expired, oldestKept);
+        }
+    }
+
+    private void createUpcoming(String table, LocalDate today) {
+        for (int i = 0; i <= aheadDays; i++) {
+            LocalDate day = today.plusDays(i);
+
+            if (defaultHoldsRowsOf(table, day)) {
+                tx.executeWithoutResult(status -> moveOutOfDefault(table, day));
+            } else {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, day)
+                        + " PARTITION OF " + table + " FOR VALUES " + bounds(day));
+            }
+        }
+    }
+
+    // A partition cannot be attached while the default partition holds rows of its range: they are
+    // moved into a standalone table that is then attached. Writes to the default partition wait.
+
+    private void moveOutOfDefault(String table, LocalDate day) {
+        String partition = partitionName(table, day);
+        String defaultPartition = table + "_default";
+        String column = PARTITION_COLUMNS.get(table);
+
+        jdbcTemplate.execute("LOCK TABLE " + defaultPartition + " IN EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + defaultPartition
+                + " WHERE " + column + " >= '" + day + " 00:00:00+00' AND " + column + " < '" + day.plusDays(1)
+                + " 00:00:00+00' RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved");
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + partition + " FOR VALUES " + bounds(day));
+
+        log.warn("Moved {} rows of {} from {} into the new partition {}", moved, day, defaultPartition, partition);
+    }
+
+    private boolean defaultHoldsRowsOf(String table, LocalDate day) {
+        String column = PARTITION_COLUMNS.get(table);
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + "_default WHERE " + column + " >= '" + day
+                        + " 00:00:00+00' AND " + column + " < '" + day.plusDays(1) + " 00:00:00+00')",
+                Boolean.class));
+    }
+
+    private static String bounds(LocalDate day) {
+        return "FROM ('" + day + " 00:00:00+00') TO ('" + day.plusDays(1) + " 00:00:00+00')";
+    }
+
+    // Removes every daily partition whose whole day is before 'oldestKept'.
+
+    private void applyRetention(String table, LocalDate oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table);
+
+        for (String partition : partitions) {
+            LocalDate day = dayOf(table, partition);
+            if (day == null || !day.isBefore(oldestKept)) {
+                continue; // default partition or still within retention
+            }
+
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+
+            if (retentionMode == RetentionMode.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+
+            log.info("Expired partition {} {}", partition, retentionMode == RetentionMode.DROP ? "dropped" : "detached");
+        }
+    }
+
+    private static String partitionName(String table, LocalDate day) {
+        return table + "_p" + SUFFIX.format(day);
+    }
+
+    // Day covered by a partition named <table>_pYYYYMMDD, null for any other partition
+
+    private static LocalDate dayOf(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 8) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(prefix.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.business.FraudDecision;
+import com.bankfraud.fraud_detection_service.business.FraudFeatureSource;
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.business.FraudRuleEngine;
+import com.bankfraud.fraud_detection_service.dtos.ScoreResponseDTO;
+import com.bankfraud.fraud_detection_service.dtos.TransactionMapper;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.transport.TransactionTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+ // Synchronous pre-authorization scoring for POST /score.
+ // Same rules, config snapshot and weights as FraudEvaluationService, but only against in-memory
+ // state: velocity windows and the profile cache. The one lookup that can be slow, a profile
+ // cache miss, is waited for at most until the latency budget runs out; after that the answer
+ // follows fraud.score.degrade-policy. The transaction is then handed to the normal transaction
+ // transport in the background, where it is persisted and alerted on as usual.
+
+@Service
+public class PreAuthScoringService {
+
+    private static final Logger log = LoggerFactory.getLogger(PreAuthScoringService.class);
+
+    public enum Decision {
+        APPROVE,
+        DECLINE,
+        REVIEW
+    }
+
+    // Answer when the account profile could not be fetched within the budget
+    public enum DegradePolicy {
+        PARTIAL,  // decide on the rules that could be evaluated (profile rules not applied)
+        APPROVE,  // fail open
+        DECLINE,  // fail closed
+        REVIEW    // hand to manual review
+    }
+
+    private final AccountProfileCache profileCache;
+    private final VelocityWindowStore velocityStore;
+    private final FraudRuleConfigRegistry ruleConfigs;
+    private final TransactionTransport transport;
+
+    private final FraudRuleEngine ruleEngine = new FraudRuleEngine();
+
+    private final long budgetNanos;
+    private final DegradePolicy degradePolicy;
+
+    private final ThreadPoolExecutor profileLoader;
+    private final ThreadPoolExecutor forwarder;
+
+    private final Timer latency;
+    private final Counter degraded;
+    private final Counter forwardDropped;
+
+    public PreAuthScoringService(AccountProfileCache profileCache,
+                                 VelocityWindowStore velocityStore,
+                                 FraudRuleConfigRegistry ruleConfigs,
+                                 TransactionTransport transport,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${fraud.score.budget-ms:5}") long budgetMillis,
+                                 @Value("${fraud.score.degrade-policy:PARTIAL}") DegradePolicy degradePolicy,
+                                 @Value("${fraud.score.profile-loader-threads:4}") int profileLoaderThreads,
+                                 @Value("${fraud.score.forward-queue-capacity:10000}") int forwardQueueCapacity) {
+
+        this.profileCache = profileCache;
+        this.velocityStore = velocityStore;
+        this.ruleConfigs = ruleConfigs;
+        this.transport = transport;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.degradePolicy = degradePolicy;
+
+        // Profile loads outlive a timed-out request and warm the cache for the next one
+        this.profileLoader = boundedExecutor("score-profile-loader-", profileLoaderThreads, 1000);
+        // send() can block (Kafka metadata while the broker is away, a full in-process queue), so it never runs on the request thread
+        this.forwarder = boundedExecutor("score-forwarder-", 1, forwardQueueCapacity);
+
+        this.latency = Timer.builder("fraud.score.latency")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.degraded = Counter.builder("fraud.score.degraded").register(meterRegistry);
+        this.forwardDropped = Counter.builder("fraud.score.forward.dropped").register(meterRegistry);
+    }
+
+    public ScoreResponseDTO score(TransactionRequestDTO dto) {
+        long start = System.nanoTime();
+
+        // Invalid input -> IllegalArgumentException (400); the forwarded transaction is stored after the answer
+        Transactions tx = TransactionMapper.toEntity(dto, LocalDateTime.now());
+        FraudRuleConfig config = ruleConfigs.current();
+
+        BudgetedFeatures features = new BudgetedFeatures(tx, config, start + budgetNanos);
+        // No short-circuit: the response lists every triggered rule, and the profile wait is bounded by the budget
+        int triggeredMask = ruleEngine.evaluateLazily(config, tx, features, false);
+
+        int score = config.getWeights().score(triggeredMask);
+        Decision decision = score >= config.getAlertScoreThreshold() ? Decision.DECLINE : Decision.APPROVE;
+
+        if (features.profileMissedBudget) {
+            degraded.increment();
+            decision = switch (degradePolicy) {
+                case PARTIAL -> decision;
+                case APPROVE -> Decision.APPROVE;
+                case DECLINE -> Decision.DECLINE;
+                case REVIEW -> Decision.REVIEW;
+            };
+        }
+
+        // Forward what was scored: a missing timestamp is now the one the rules used
+        forward(TransactionMapper.toDto(tx));
+
+        long elapsed = System.nanoTime() - start;
+        latency.record(elapsed, TimeUnit.NANOSECONDS);
+
+        return new ScoreResponseDTO(
+                tx.getTransactionId(),
+                decision.name(),
+                score,
+                FraudDecision.fromMask(triggeredMask).getTriggeredRules(),
+                config.getVersion(),
+                features.profileMissedBudget,
+                TimeUnit.NANOSECONDS.toMicros(elapsed)
+        );
+    }
+
+    private void forward(TransactionRequestDTO dto) {
+        try {
+            forwarder.execute(() -> {
+                try {
+                    transport.send(dto).whenComplete((sent, failure) -> {
+                        if (failure != null) {
+                            log.warn("Scored transaction {} could not be forwarded to the pipeline", dto.getTransactionId(), failure);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    log.warn("Scored transaction {} could not be forwarded to the pipeline", dto.getTransactionId(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            forwardDropped.increment();
+            log.warn("Forward queue full, scored transaction {} not sent to the pipeline", dto.getTransactionId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        profileLoader.shutdown();
+        forwarder.shutdown();
+    }
+
+    private static ThreadPoolExecutor boundedExecutor(String threadPrefix, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+
+     // Features of one scoring request. The transaction is not stored yet, so it is added to the
+     // window counts, as the pipeline does by recording it before evaluating.
+
+    private final class BudgetedFeatures implements FraudFeatureSource {
+
+        private final Transactions tx;
+        private final FraudRuleConfig config;
+        private final long deadlineNanos;
+
+        private VelocityWindowStore.VelocityCounts counts;
+        private boolean profileMissedBudget;
+
+        BudgetedFeatures(Transactions tx, FraudRuleConfig config, long deadlineNanos) {
+            this.tx = tx;
+            this.config = config;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public int velocityWindowCount() {
+            return counts().velocityWindowCount() + 1;
+        }
+
+        @Override
+        public int rapidWindowCount() {
+            return counts().rapidWindowCount() + 1;
+        }
+
+        private VelocityWindowStore.VelocityCounts counts() {
+            if (counts == null) {
+                counts = velocityStore.count(
+                        tx.getAccountId(),
+                        tx.getTimestamp(),
+                        config.getVelocityWindowSeconds(),
+                        config.getRapidTransferWindowSeconds()
+                );
+            }
+            return counts;
+        }
+
+        // Called at most once per evaluation; null (no profile rules) when it misses the budget
+
+        @Override
+        public AccountProfiles profile() {
+            try {
+                return profileCache.findAsync(tx.getAccountId(), profileLoader)
+                        .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | RejectedExecutionException | ExecutionException e) {
+                profileMissedBudget = true;
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                profileMissedBudget = true;
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.business.AccountStatistics;
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.repositories.AccountProfilesBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+ // Online account profiles, learned from the processed transactions instead of posted once.
+ // Each transaction updates its account's AccountStatistics in memory; a scheduled flush writes the
+ // accounts changed since the last flush to account_profiles in multi-row upserts (creating the
+ // rows of accounts that had none) and puts the new profiles in AccountProfileCache, so the rules
+ // follow real behavior within one flush interval and no transaction pays for an UPDATE.
+ // Learned state remembers the posted_at of the profile it started from; when the account was posted
+ // again since (on this or another instance) the write is skipped and the state is reloaded.
+
+@Component
+public class ProfileLearningService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileLearningService.class);
+
+    private final AccountProfileCache profileCache;
+    private final AccountProfilesBatchRepository batchRepo;
+
+    private final boolean enabled;
+    private final double alpha;
+    private final double dailyAlpha;
+    private final int minSamples;
+    private final long idleEvictionMillis;
+
+    private final ConcurrentHashMap<String, LearnedAccount> accounts = new ConcurrentHashMap<>();
+
+    private final Counter flushed;
+    private final Counter flushFailures;
+    private final Counter superseded;
+
+    public ProfileLearningService(AccountProfileCache profileCache,
+                                  AccountProfilesBatchRepository batchRepo,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${fraud.profiles.learning.enabled:true}") boolean enabled,
+                                  @Value("${fraud.profiles.learning.alpha:0.05}") double alpha,
+                                  @Value("${fraud.profiles.learning.daily-alpha:0.1}") double dailyAlpha,
+                                  @Value("${fraud.profiles.learning.min-samples:5}") int minSamples,
+                                  @Value("${fraud.profiles.learning.idle-eviction-minutes:30}") int idleEvictionMinutes) {
+
+        // Fail at startup rather than on the first transaction
+        new AccountStatistics(alpha, dailyAlpha);
+
+        this.profileCache = profileCache;
+        this.batchRepo = batchRepo;
+        this.enabled = enabled;
+        this.alpha = alpha;
+        this.dailyAlpha = dailyAlpha;
+        this.minSamples = Math.max(1, minSamples);
+        this.idleEvictionMillis = idleEvictionMinutes * 60_000L;
+
+        this.flushed = Counter.builder("fraud.profiles.flushed").register(meterRegistry);
+        this.flushFailures = Counter.builder("fraud.profiles.flush.failures").register(meterRegistry);
+        this.superseded = Counter.builder("fraud.profiles.flush.superseded").register(meterRegistry);
+        Gauge.builder("fraud.profiles.learned", accounts, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    // Called once per persisted (non-duplicate) transaction, after its evaluation, so a transaction
+    // never lowers the bar for itself.
+
+    public void observe(Transactions tx) {
+        if (!enabled || tx.getAccountId() == null || tx.getAmount() == null) {
+            return;
+        }
+
+        double amount = tx.getAmount().doubleValue();
+        LocalDate day = tx.getTimestamp() != null ? tx.getTimestamp().toLocalDate() : null;
+        long now = System.currentTimeMillis();
+
+        // Retried when the entry was evicted between lookup and update
+        while (true) {
+            LearnedAccount account = accounts.get(tx.getAccountId());
+            if (account == null) {
+                LearnedAccount loaded = load(tx);
+                account = accounts.putIfAbsent(tx.getAccountId(), loaded);
+                if (account == null) {
+                    account = loaded;
+                }
+            }
+            if (account.observe(amount, day, now)) {
+                return;
+            }
+        }
+    }
+
+    // Drops the learned state so a newly posted profile is picked up on the next transaction.
+
+    public void forget(String accountId) {
+        LearnedAccount account = accounts.remove(accountId);
+        if (account != null) {
+            account.evict();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.profiles.learning.flush-interval-ms:5000}")
+    public void flush() {
+        List<AccountProfiles> changed = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (LearnedAccount account : accounts.values()) {
+            AccountProfiles profile = account.takeIfDirty(now);
+            if (profile != null) {
+                changed.add(profile);
+            }
+        }
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Set<String> written;
+        try {
+            written = batchRepo.upsertLearned(changed);
+        } catch (Exception e) {
+            flushFailures.increment(changed.size());
+            log.error("Failed to flush {} learned account profiles", changed.size(), e);
+
+            // Written again with the next flush
+            for (AccountProfiles profile : changed) {
+                LearnedAccount account = accounts.get(profile.getAccountId());
+                if (account != null) {
+                    account.markDirty();
+                }
+            }
+            return;
+        }
+
+        for (AccountProfiles profile : changed) {
+            if (written.contains(profile.getAccountId())) {
+                profileCache.putLearned(profile);
+            } else {
+                discardSuperseded(profile);
+            }
+        }
+
+        flushed.increment(written.size());
+        log.debug("Flushed {} learned account profiles | superseded={}",
+                written.size(), changed.size() - written.size());
+    }
+
+    // Only flushed accounts are evicted; they are reloaded from account_profiles when they come back.
+
+    @Scheduled(fixedDelayString = "${fraud.profiles.learning.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        int before = accounts.size();
+
+        accounts.values().removeIf(account -> account.evictIfIdle(cutoff));
+
+        log.debug("Learned profile eviction | evicted={} remaining={}", before - accounts.size(), accounts.size());
+    }
+
+    // The account was posted since this state was loaded. The entry is only dropped when it is still
+    // the one the profile came from, not one already reloaded after a local forget().
+
+    private void discardSuperseded(AccountProfiles profile) {
+        superseded.increment();
+
+        LearnedAccount account = accounts.get(profile.getAccountId());
+        if (account != null && Objects.equals(account.postedAt, profile.getPostedAt())
+                && accounts.remove(profile.getAccountId(), account)) {
+            account.evict();
+            profileCache.invalidate(profile.getAccountId());
+        }
+    }
+
+    public int learnedAccounts() {
+        return accounts.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Resumes from the stored profile; an account without one starts empty, at home where it first transacts.
+
+    private LearnedAccount load(Transactions tx) {
+        AccountProfiles stored = profileCache.find(tx.getAccountId());
+        AccountStatistics stats = new AccountStatistics(alpha, dailyAlpha);
+
+        if (stored == null) {
+            return new LearnedAccount(tx.getAccountId(), tx.getLocation(), null, null, stats);
+        }
+
+        // A posted average without learned transactions weighs as much as a warmed-up one
+        long samples = Math.max(stored.getTxnCount(), minSamples);
+
+        stats.seed(
+                toDouble(stored.getAvgTxnAmount()),
+                samples,
+                stored.getTxnCount(),
+                toDouble(stored.getAvgDailySpend()),
+                stored.getSpendDay(),
+                stored.getDaySpend() != null ? stored.getDaySpend().doubleValue() : 0
+        );
+
+        return new LearnedAccount(stored.getAccountId(), stored.getHomeCountry(), stored.getRiskTier(),
+                stored.getPostedAt(), stats);
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    private static BigDecimal toAmount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+
+     // Statistics of one account plus what its profile row needs. Guarded by its own monitor.
+
+    private final class LearnedAccount {
+
+        private final String accountId;
+        private final String homeCountry;
+        private final String riskTier;
+        private final LocalDateTime postedAt;
+        private final AccountStatistics stats;
+
+        private boolean dirty;
+        private boolean evicted;
+        private volatile long lastTouchedMillis;
+
+        LearnedAccount(String accountId, String homeCountry, String riskTier, LocalDateTime postedAt,
+                       AccountStatistics stats) {
+            this.accountId = accountId;
+            this.homeCountry = homeCountry;
+            this.riskTier = riskTier;
+            this.postedAt = postedAt;
+            this.stats = stats;
+        }
+
+        // False when this entry is no longer in the map: the caller must load a fresh one.
+
+        synchronized boolean observe(double amount, LocalDate day, long nowMillis) {
+            if (evicted) {
+                return false;
+            }
+            stats.observe(amount, day);
+            dirty = true;
+            lastTouchedMillis = nowMillis;
+            return true;
+        }
+
+        // Profile to write when changed since the last call, else null. The average amount is
+        // withheld until enough transactions back it, so UNUSUAL_AMOUNT stays quiet on new accounts.
+
+        synchronized AccountProfiles takeIfDirty(LocalDateTime now) {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+
+            Double avgDailySpend = stats.avgDailySpend();
+            LocalDate day = stats.day();
+
+            AccountProfiles profile = new AccountProfiles();
+            profile.setAccountId(accountId);
+            profile.setAvgTxnAmount(stats.samples() >= minSamples ? toAmount(stats.avgTxnAmount()) : null);
+            profile.setAvgDailySpend(avgDailySpend != null ? toAmount(avgDailySpend) : null);
+            profile.setHomeCountry(homeCountry);
+            profile.setRiskTier(riskTier);
+            profile.setUpdatedAt(now);
+            profile.setTxnCount(stats.txnCount());
+            profile.setSpendDay(day);
+            profile.setDaySpend(day != null ? toAmount(stats.daySpend()) : null);
+            profile.setPostedAt(postedAt);
+            return profile;
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        synchronized boolean evictIfIdle(long cutoffMillis) {
+            if (dirty || lastTouchedMillis >= cutoffMillis) {
+                return false;
+            }
+            evicted = true;
+            return true;
+        }
+
+        synchronized void evict() {
+            evicted = true;
+        }
+    }
+}
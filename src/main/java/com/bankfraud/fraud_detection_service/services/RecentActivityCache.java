@@ -0,0 +1,220 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.dtos.FraudAlertDTO;
+import com.bankfraud.fraud_detection_service.dtos.FraudAlertMapper;
+import com.bankfraud.fraud_detection_service.dtos.PageCursor;
+import com.bankfraud.fraud_detection_service.dtos.TransactionMapper;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.repositories.InvestigationQueryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+ // Latest transactions and alerts per account, kept in memory for the investigation endpoints.
+ // A ring is seeded from the database the first time an account is read, then kept current by
+ // the pipeline (TransactionService after each insert, AlertSink after each persisted batch), so
+ // repeated refreshes during an incident are answered without a query or entity mapping.
+ // Accounts nobody reads are never cached; cold ones are evicted by size (near-LRU). A ring is only
+ // kept for a short TTL after it was seeded, pipeline updates included: rows stored by other
+ // instances never reach it, so it is reloaded from the database regularly.
+
+@Component
+public class RecentActivityCache {
+
+    private final InvestigationQueryRepository queryRepo;
+    private final int ringSize;
+
+    private final Cache<String, RecentRing<TransactionRequestDTO>> transactions;
+    private final Cache<String, RecentRing<FraudAlertDTO>> alerts;
+
+    public RecentActivityCache(InvestigationQueryRepository queryRepo,
+                               MeterRegistry meterRegistry,
+                               @Value("${fraud.recent-activity.ring-size:100}") int ringSize,
+                               @Value("${fraud.recent-activity.maximum-accounts:10000}") long maximumAccounts,
+                               @Value("${fraud.recent-activity.ttl-seconds:30}") long ttlSeconds) {
+        this.queryRepo = queryRepo;
+        this.ringSize = ringSize;
+
+        this.transactions = newCache(maximumAccounts, ttlSeconds);
+        this.alerts = newCache(maximumAccounts, ttlSeconds);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, transactions, "recent-transactions");
+        CaffeineCacheMetrics.monitor(meterRegistry, alerts, "recent-alerts");
+    }
+
+    /* ---------------- Reads ---------------- */
+
+    // First page of the account's transactions, or null when the ring cannot answer it
+    // (limit larger than what is held) and the caller must query the database.
+
+    public InvestigationQueryService.Page<TransactionRequestDTO> firstTransactionsPage(String accountId, int limit) {
+        if (limit > ringSize) {
+            return null;
+        }
+        return transactions.get(accountId, this::loadTransactions).firstPage(limit);
+    }
+
+    public InvestigationQueryService.Page<FraudAlertDTO> firstAlertsPage(String accountId, int limit) {
+        if (limit > ringSize) {
+            return null;
+        }
+        return alerts.get(accountId, this::loadAlerts).firstPage(limit);
+    }
+
+    /* ---------------- Writes from the pipeline ---------------- */
+
+    // Only accounts already cached are updated. computeIfPresent waits for a load of the same
+    // account in progress, so a row committed while its ring is being seeded is not lost.
+
+    public void recordTransaction(Transactions tx) {
+        transactions.asMap().computeIfPresent(tx.getAccountId(), (id, ring) -> {
+            ring.add(tx.getTimestamp(), tx.getId(), TransactionMapper.toDto(tx));
+            return ring;
+        });
+    }
+
+    public void recordAlert(FraudAlerts alert) {
+        alerts.asMap().computeIfPresent(alert.getAccountId(), (id, ring) -> {
+            ring.add(alert.getDetectedAt(), alert.getId(), FraudAlertMapper.toDto(alert));
+            return ring;
+        });
+    }
+
+    private RecentRing<TransactionRequestDTO> loadTransactions(String accountId) {
+        List<Transactions> rows = queryRepo.findTransactionsPage(accountId, null, ringSize + 1);
+
+        RecentRing<TransactionRequestDTO> ring = new RecentRing<>(ringSize, rows.size() <= ringSize);
+        for (Transactions tx : rows) {
+            ring.add(tx.getTimestamp(), tx.getId(), TransactionMapper.toDto(tx));
+        }
+        return ring;
+    }
+
+    private RecentRing<FraudAlertDTO> loadAlerts(String accountId) {
+        List<FraudAlerts> rows = queryRepo.findAlertsPage(accountId, null, ringSize + 1);
+
+        RecentRing<FraudAlertDTO> ring = new RecentRing<>(ringSize, rows.size() <= ringSize);
+        for (FraudAlerts alert : rows) {
+            ring.add(alert.getDetectedAt(), alert.getId(), FraudAlertMapper.toDto(alert));
+        }
+        return ring;
+    }
+
+    private static <T> Cache<String, RecentRing<T>> newCache(long maximumAccounts, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumAccounts)
+                .expireAfter(new ExpireAfterLoad<RecentRing<T>>(Duration.ofSeconds(ttlSeconds).toNanos()))
+                .recordStats()
+                .build();
+    }
+
+
+     // Like expireAfterWrite, except that the in-place updates of recordTransaction / recordAlert
+     // do not extend the life of a ring.
+
+    private static final class ExpireAfterLoad<V> implements Expiry<String, V> {
+
+        private final long ttlNanos;
+
+        ExpireAfterLoad(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, V value, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+
+     // Newest-first items of one account, ordered like the keyset pages: (time, id) descending.
+     // 'complete' stays true while the ring still holds the account's entire history.
+
+    static final class RecentRing<T> {
+
+        private record Item<T>(LocalDateTime at, long id, T value) {
+        }
+
+        private final int capacity;
+        private final List<Item<T>> items;
+        private boolean complete;
+
+        RecentRing(int capacity, boolean complete) {
+            this.capacity = capacity;
+            this.items = new ArrayList<>(capacity + 1);
+            this.complete = complete;
+        }
+
+        synchronized void add(LocalDateTime at, long id, T value) {
+            int position = items.size();
+            for (int i = 0; i < items.size(); i++) {
+                Item<T> item = items.get(i);
+                if (item.id() == id) {
+                    return; // already seeded from the database
+                }
+                if (position == items.size() && isNewer(at, id, item)) {
+                    position = i;
+                }
+            }
+
+            if (position == capacity) {
+                complete = false; // older than everything held
+                return;
+            }
+
+            items.add(position, new Item<>(at, id, value));
+
+            if (items.size() > capacity) {
+                items.remove(items.size() - 1);
+                complete = false;
+            }
+        }
+
+        synchronized InvestigationQueryService.Page<T> firstPage(int limit) {
+            if (items.size() < limit && !complete) {
+                return null; // older rows exist only in the database
+            }
+
+            int size = Math.min(limit, items.size());
+            List<T> page = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                page.add(items.get(i).value());
+            }
+
+            // More rows either in the ring or, once it has overflowed, in the database
+            String next = null;
+            if (size > 0 && (items.size() > limit || !complete)) {
+                Item<T> last = items.get(size - 1);
+                next = new PageCursor(last.at(), last.id()).encode();
+            }
+            return new InvestigationQueryService.Page<>(page, next);
+        }
+
+        private static boolean isNewer(LocalDateTime at, long id, Item<?> than) {
+            int byTime = at.compareTo(than.at());
+            return byTime > 0 || (byTime == 0 && id > than.id());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+ // In-memory duplicate filter for transactions, in front of the insert.
+ // Keeps the latest stored transaction_ids - unique whatever the timestamp, see transaction_ids (V10) -
+ // in a bounded exact set, so redelivered records and retries are dropped with no database access.
+ // Anything not in the set (older, or stored by another instance) still goes to the insert, which decides.
+
+@Component
+public class TransactionDeduplicator {
+
+    private static final Boolean SEEN = Boolean.TRUE;
+
+    private final Cache<String, Boolean> latestIds;
+
+    private final Counter droppedInMemory;
+    private final Counter droppedByDatabase;
+
+    public TransactionDeduplicator(MeterRegistry meterRegistry,
+                                   @Value("${fraud.dedup.exact-size:200000}") long exactSize) {
+
+        this.latestIds = Caffeine.newBuilder()
+                .maximumSize(exactSize)
+                .build();
+
+        this.droppedInMemory = Counter.builder("fraud.dedup.duplicates").tag("detected-by", "memory").register(meterRegistry);
+        this.droppedByDatabase = Counter.builder("fraud.dedup.duplicates").tag("detected-by", "database").register(meterRegistry);
+    }
+
+    // True when the transaction is known to be stored already; the record can be dropped.
+
+    public boolean isDuplicate(Transactions tx) {
+        if (tx.getTransactionId() == null || latestIds.getIfPresent(tx.getTransactionId()) == null) {
+            return false;
+        }
+        droppedInMemory.increment();
+        return true;
+    }
+
+    // Called for every transaction whose id is now stored, inserted by us or found there by the insert.
+
+    public void remember(Transactions tx) {
+        if (tx.getTransactionId() == null) {
+            return;
+        }
+        latestIds.put(tx.getTransactionId(), SEEN);
+    }
+
+    public void recordDatabaseDuplicate() {
+        droppedByDatabase.increment();
+    }
+}
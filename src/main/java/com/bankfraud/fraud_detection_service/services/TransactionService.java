@@ -1,11 +1,14 @@
 package com.bankfraud.fraud_detection_service.services;
 
 
-import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
 import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.repositories.TransactionsBatchRepository;
 import com.bankfraud.fraud_detection_service.repositories.TransactionsRepository;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 
  // Handles DB queries needed for fraud rules.
@@ -14,25 +17,78 @@ import java.time.LocalDateTime;
 public class TransactionService {
 
     private final TransactionsRepository txRepo;
+    private final TransactionsBatchRepository txBatchRepo;
+    private final VelocityWindowStore velocityStore;
+    private final RecentActivityCache recentActivity;
+    private final TransactionDeduplicator deduplicator;
 
-    public TransactionService(TransactionsRepository txRepo) {
+    public TransactionService(TransactionsRepository txRepo,
+                              TransactionsBatchRepository txBatchRepo,
+                              VelocityWindowStore velocityStore,
+                              RecentActivityCache recentActivity,
+                              TransactionDeduplicator deduplicator) {
         this.txRepo = txRepo;
+        this.txBatchRepo = txBatchRepo;
+        this.velocityStore = velocityStore;
+        this.recentActivity = recentActivity;
+        this.deduplicator = deduplicator;
+    }
+
+    // Idempotent save of the entity decoded from the Kafka message (MessageCodec.decodeTransactionEntity):
+    // empty when the transaction is already stored (redelivery or replay), so the caller can skip
+    // evaluation instead of failing on the unique constraint. Not in the velocity windows until track().
 
+    public Optional<Transactions> saveTransaction(Transactions tx) {
+        if (deduplicator.isDuplicate(tx)) {
+            return Optional.empty();
+        }
+        List<Transactions> saved = insert(List.of(tx));
+        return saved.isEmpty() ? Optional.empty() : Optional.of(saved.get(0));
     }
 
-    public Transactions saveTransaction(TransactionRequestDTO dto) {
-        Transactions tx = new Transactions();
-        tx.setTransactionId(dto.getTransactionId());
-        tx.setAccountId(dto.getAccountId());
-        tx.setTxnType(dto.getTxnType());
-        tx.setAmount(dto.getAmount());
-        tx.setCurrency(dto.getCurrency());
-        tx.setLocation(dto.getLocation());
-        tx.setMerchant(dto.getMerchant());
-        tx.setTimestamp(LocalDateTime.parse(dto.getTimestamp()));
-
-        return txRepo.save(tx);
+    // Batch variant: one multi-row insert, transactions already stored are skipped.
+    // Returns only the rows that were inserted, in input order.
+
+    public List<Transactions> saveTransactions(List<Transactions> txs) {
+        List<Transactions> fresh = new ArrayList<>(txs.size());
+        for (Transactions tx : txs) {
+            if (deduplicator.isDuplicate(tx)) {
+                continue; // seen recently, no need to ask the database
+            }
+            fresh.add(tx);
+        }
+
+        return insert(fresh);
     }
+
+    private List<Transactions> insert(List<Transactions> txs) {
+        if (txs.isEmpty()) {
+            return List.of();
+        }
+
+        int attempted = txs.size();
+        List<Transactions> saved = txBatchRepo.insertIgnoringDuplicates(txs);
+
+        // Every attempted id is stored now, whether this insert wrote it or found it already claimed
+        for (Transactions tx : txs) {
+            deduplicator.remember(tx);
+        }
+        for (int i = saved.size(); i < attempted; i++) {
+            deduplicator.recordDatabaseDuplicate();
+        }
+
+        return saved;
+    }
+
+    // Adds a stored transaction to the in-memory velocity windows and recent-activity rings.
+    // Called right before the transaction is evaluated, one at a time, so a batch sees the same
+    // window counts as transactions processed one by one.
+
+    public void track(Transactions tx) {
+        velocityStore.record(tx.getAccountId(), tx.getTimestamp());
+        recentActivity.recordTransaction(tx);
+    }
+
     // Count transactions since a given timestamp (helper for velocity/rapid transfers)
 
     public int countTransactionsSince(String accountId, LocalDateTime since) {
@@ -0,0 +1,208 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.repositories.TransactionsRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+ // In-memory per-account sliding windows for the VELOCITY and RAPID_TRANSFER rules.
+ // Each account keeps a ring of time buckets (by transaction timestamp), so both windows
+ // are answered with one lookup instead of two COUNT queries against the transactions table.
+
+@Component
+public class VelocityWindowStore {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(VelocityWindowStore.class);
+
+    private final TransactionsRepository txRepo;
+    private final int bucketSeconds;
+    private final int spanSeconds;
+    private final int bucketCount;
+    private final long idleEvictionMillis;
+
+    private final ConcurrentHashMap<String, AccountWindow> windows = new ConcurrentHashMap<>();
+
+    public VelocityWindowStore(TransactionsRepository txRepo,
+                               @Value("${fraud.velocity.bucket-seconds:1}") int bucketSeconds,
+                               @Value("${fraud.velocity.span-minutes:5}") int spanMinutes,
+                               @Value("${fraud.velocity.idle-eviction-minutes:10}") int idleEvictionMinutes) {
+        if (bucketSeconds < 1 || spanMinutes < 1) {
+            throw new IllegalArgumentException("fraud.velocity bucket-seconds and span-minutes must be positive");
+        }
+        this.txRepo = txRepo;
+        this.bucketSeconds = bucketSeconds;
+        this.spanSeconds = spanMinutes * 60;
+        this.bucketCount = (spanSeconds + bucketSeconds - 1) / bucketSeconds + 1;
+
+        // An account idle for longer than the span has only empty buckets left, so eviction never loses counts
+        this.idleEvictionMillis = Math.max(idleEvictionMinutes * 60_000L, spanSeconds * 1000L);
+    }
+
+    // Seed the windows from recent transactions before the Kafka listeners start.
+
+    @PostConstruct
+    public void seed() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(spanSeconds);
+        List<Transactions> recent = txRepo.findByTimestampAfter(since);
+
+        for (Transactions tx : recent) {
+            record(tx.getAccountId(), tx.getTimestamp());
+        }
+
+        log.info("Velocity windows seeded | transactions={} accounts={}", recent.size(), windows.size());
+    }
+
+    // Registers a persisted transaction in its account window.
+
+    public void record(String accountId, LocalDateTime timestamp) {
+        if (accountId == null || timestamp == null) {
+            return;
+        }
+        long bucket = bucketOf(timestamp);
+        long now = System.currentTimeMillis();
+
+        // compute() keeps the update atomic with respect to idle eviction
+        windows.compute(accountId, (id, window) -> {
+            AccountWindow target = window != null ? window : new AccountWindow(bucketCount);
+            target.record(bucket, now);
+            return target;
+        });
+    }
+
+    // Counts the account's transactions after (at - window) for the two windows in a single pass.
+    // Same semantics as countByAccountIdAndTimestampAfter, at bucket granularity.
+
+    public VelocityCounts count(String accountId,
+                                LocalDateTime at,
+                                int velocityWindowSeconds,
+                                int rapidWindowSeconds) {
+
+        if (velocityWindowSeconds > spanSeconds || rapidWindowSeconds > spanSeconds) {
+            throw new IllegalArgumentException(
+                    "Window exceeds fraud.velocity.span-minutes (" + spanSeconds + "s)");
+        }
+
+        AccountWindow window = windows.get(accountId);
+
+        if (window == null) {
+            return VelocityCounts.EMPTY;
+        }
+
+        return window.count(
+                firstBucketAfter(at.minusSeconds(velocityWindowSeconds)),
+                firstBucketAfter(at.minusSeconds(rapidWindowSeconds))
+        );
+    }
+
+    // Longest window count() can answer.
+
+    public int spanSeconds() {
+        return spanSeconds;
+    }
+
+    public int trackedAccounts() {
+        return windows.size();
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.velocity.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        int before = windows.size();
+
+        windows.values().removeIf(window -> window.lastTouchedMillis < cutoff);
+
+        log.debug("Velocity window eviction | evicted={} remaining={}", before - windows.size(), windows.size());
+    }
+
+    private long bucketOf(LocalDateTime timestamp) {
+        return Math.floorDiv(timestamp.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+
+    // First bucket that can hold a timestamp strictly after 'since' (exact for whole-second timestamps).
+
+    private long firstBucketAfter(LocalDateTime since) {
+        long epochSecond = since.toEpochSecond(ZoneOffset.UTC);
+        return Math.floorDiv(since.getNano() == 0 ? epochSecond + 1 : epochSecond, bucketSeconds);
+    }
+
+
+     // Result of a window lookup: transaction counts inside the velocity and rapid-transfer windows.
+
+    public record VelocityCounts(int velocityWindowCount, int rapidWindowCount) {
+
+        static final VelocityCounts EMPTY = new VelocityCounts(0, 0);
+    }
+
+
+     // Ring of per-bucket counters; headBucket is the newest bucket seen and the ring covers
+     // [headBucket - counts.length + 1, headBucket]. Guarded by its own monitor.
+
+    private static final class AccountWindow {
+
+        private final int[] counts;
+        private long headBucket = Long.MIN_VALUE;
+        private volatile long lastTouchedMillis;
+
+        AccountWindow(int bucketCount) {
+            this.counts = new int[bucketCount];
+        }
+
+        synchronized void record(long bucket, long nowMillis) {
+            lastTouchedMillis = nowMillis;
+            int n = counts.length;
+
+            if (headBucket == Long.MIN_VALUE) {
+                headBucket = bucket;
+            } else if (bucket > headBucket) {
+                if (bucket - headBucket >= n) {
+                    Arrays.fill(counts, 0);
+                } else {
+                    for (long b = headBucket + 1; b <= bucket; b++) {
+                        counts[slot(b)] = 0;
+                    }
+                }
+                headBucket = bucket;
+            } else if (bucket <= headBucket - n) {
+                return; // older than any window we answer for
+            }
+
+            counts[slot(bucket)]++;
+        }
+
+        synchronized VelocityCounts count(long velocityFirstBucket, long rapidFirstBucket) {
+            long oldest = Math.max(headBucket - counts.length + 1,
+                    Math.min(velocityFirstBucket, rapidFirstBucket));
+
+            int velocity = 0;
+            int rapid = 0;
+
+            for (long b = headBucket; b >= oldest; b--) {
+                int c = counts[slot(b)];
+                if (b >= velocityFirstBucket) {
+                    velocity += c;
+                }
+                if (b >= rapidFirstBucket) {
+                    rapid += c;
+                }
+            }
+
+            return new VelocityCounts(velocity, rapid);
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) counts.length);
+        }
+    }
+}
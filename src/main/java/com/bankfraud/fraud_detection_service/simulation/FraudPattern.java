@@ -0,0 +1,16 @@
+package com.bankfraud.fraud_detection_service.simulation;
+
+
+ // Kinds of episode the load generator injects. Each fraud pattern is built to trip one rule
+ // family under the current rule config; LEGITIMATE episodes should never raise an alert.
+
+public enum FraudPattern {
+
+    LEGITIMATE,
+    VELOCITY_BURST,    // more transactions than velocityMinCount within seconds (VELOCITY)
+    GEO_HOP,           // a home-country purchase followed by one abroad (GEO_MISMATCH)
+    NIGHT_HIGH_VALUE,  // above the night amount floor before the night end hour (NIGHT_TX)
+    LARGE_AMOUNT;      // above the absolute threshold and the profile multiple (UNUSUAL_AMOUNT)
+
+    static final FraudPattern[] FRAUD = {VELOCITY_BURST, GEO_HOP, NIGHT_HIGH_VALUE, LARGE_AMOUNT};
+}
@@ -0,0 +1,295 @@
+package com.bankfraud.fraud_detection_service.simulation;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.repositories.AccountProfilesRepository;
+import com.bankfraud.fraud_detection_service.services.FraudRuleConfigRegistry;
+import com.bankfraud.fraud_detection_service.simulation.SyntheticTransactionGenerator.Episode;
+import com.bankfraud.fraud_detection_service.transport.InProcessAlertTransport;
+import com.bankfraud.fraud_detection_service.transport.TransactionTransport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+
+ // Built-in load generator (fraud.loadgen.enabled=true, or the loadgen profile).
+ // Once the application is ready it creates a synthetic population, then sends transactions at
+ // fraud.loadgen.tps with open-loop pacing (the schedule never waits for the system under test)
+ // through the transaction transport or POST /transactions, injecting the fraud patterns of
+ // FraudPattern. Alerts come back from the fraud-alerts topic (LoadGeneratorAlertListener) or the
+ // in-process alert transport; the run ends with a LoadReport in the log.
+ // Profiles are written straight to the database, so an HTTP target must share it.
+
+@Component
+@ConditionalOnProperty(name = "fraud.loadgen.enabled", havingValue = "true")
+public class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final int PROFILE_CHUNK = 1000;
+
+    public enum Target {
+        TRANSPORT, // TransactionTransport: the Kafka producer or the in-process queues
+        HTTP       // POST to fraud.loadgen.http-url
+    }
+
+    private final TransactionTransport transport;
+    private final AccountProfilesRepository profileRepo;
+    private final FraudRuleConfigRegistry ruleConfigs;
+    private final ObjectProvider<InProcessAlertTransport> inProcessAlerts;
+    private final ObjectMapper objectMapper;
+
+    private final Target target;
+    private final URI httpUrl;
+    private final int accounts;
+    private final String homeCountries;
+    private final int tps;
+    private final long durationSeconds;
+    private final double fraudRatio;
+    private final long drainSeconds;
+    private final long seed;
+
+    private final HttpClient httpClient;
+
+    // Transactions of the running load test that have not raised an alert yet, by transaction id
+    private final ConcurrentHashMap<String, Sent> awaitingAlert = new ConcurrentHashMap<>();
+    private final AtomicLong undetectedEpisodes = new AtomicLong();
+    private volatile LoadReport report;
+
+    public LoadGenerator(TransactionTransport transport,
+                         AccountProfilesRepository profileRepo,
+                         FraudRuleConfigRegistry ruleConfigs,
+                         ObjectProvider<InProcessAlertTransport> inProcessAlerts,
+                         ObjectMapper objectMapper,
+                         @Value("${fraud.loadgen.target:TRANSPORT}") Target target,
+                         @Value("${fraud.loadgen.http-url:http://localhost:8080/transactions}") String httpUrl,
+                         @Value("${fraud.loadgen.accounts:50000}") int accounts,
+                         @Value("${fraud.loadgen.home-countries:PK:70,AE:10,GB:10,US:10}") String homeCountries,
+                         @Value("${fraud.loadgen.tps:200}") int tps,
+                         @Value("${fraud.loadgen.duration-seconds:60}") long durationSeconds,
+                         @Value("${fraud.loadgen.fraud-ratio:0.05}") double fraudRatio,
+                         @Value("${fraud.loadgen.drain-seconds:30}") long drainSeconds,
+                         @Value("${fraud.loadgen.seed:42}") long seed) {
+        if (tps < 1 || durationSeconds < 1) {
+            throw new IllegalArgumentException("fraud.loadgen tps and duration-seconds must be positive");
+        }
+        if (fraudRatio < 0 || fraudRatio > 1) {
+            throw new IllegalArgumentException("fraud.loadgen.fraud-ratio must be between 0 and 1");
+        }
+        this.transport = transport;
+        this.profileRepo = profileRepo;
+        this.ruleConfigs = ruleConfigs;
+        this.inProcessAlerts = inProcessAlerts;
+        this.objectMapper = objectMapper;
+        this.target = target;
+        this.httpUrl = URI.create(httpUrl);
+        this.accounts = accounts;
+        this.homeCountries = homeCountries;
+        this.tps = tps;
+        this.durationSeconds = durationSeconds;
+        this.fraudRatio = fraudRatio;
+        this.drainSeconds = drainSeconds;
+        this.seed = seed;
+        this.httpClient = target == Target.HTTP ? HttpClient.newHttpClient() : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        Thread runner = new Thread(() -> {
+            try {
+                LoadReport result = run();
+                log.info(result.summary());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Load generator run failed", e);
+            }
+        }, "loadgen");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    public LoadReport run() throws InterruptedException {
+        String runId = "sim-" + Long.toString(System.currentTimeMillis(), 36);
+        Random random = new Random(seed);
+
+        SyntheticPopulation population = SyntheticPopulation.build(runId, accounts, homeCountries, random);
+        saveProfiles(population.profiles());
+
+        FraudRuleConfig config = ruleConfigs.current();
+        SyntheticTransactionGenerator generator =
+                new SyntheticTransactionGenerator(population, config, fraudRatio, random, runId + "-tx");
+
+        // An account comes back every accounts / tps seconds; inside the velocity window that is legitimate velocity
+        if ((long) accounts * (config.getVelocityMinCount() - 1) < (long) tps * config.getVelocityWindowSeconds()) {
+            log.warn("Load generator: {} accounts at {} tx/s reuse accounts inside the velocity window;"
+                    + " expect VELOCITY false positives (raise fraud.loadgen.accounts)", accounts, tps);
+        }
+
+        LoadReport run = new LoadReport();
+        this.report = run;
+        awaitingAlert.clear();
+        undetectedEpisodes.set(0);
+
+        Consumer<FraudAlerts> alertListener = alert -> onAlert(alert.getRelatedTxnId());
+        InProcessAlertTransport alerts = inProcessAlerts.getIfAvailable();
+        if (alerts != null) {
+            alerts.subscribe(alertListener);
+        }
+
+        log.info("Load generator started | run={} target={} tps={} duration={}s accounts={} patterns={}",
+                runId, target, tps, durationSeconds, accounts, generator.fraudPatterns());
+
+        try {
+            send(generator, run);
+            awaitAlerts();
+        } finally {
+            if (alerts != null) {
+                alerts.unsubscribe(alertListener);
+            }
+            awaitingAlert.clear();
+        }
+
+        return run;
+    }
+
+    // Called for every alert seen downstream; alerts for transactions of other runs are ignored.
+
+    public void onAlert(String relatedTxnId) {
+        Sent sent = relatedTxnId == null ? null : awaitingAlert.remove(relatedTxnId);
+        if (sent == null) {
+            return;
+        }
+
+        report.recordAlertLatency(System.nanoTime() - sent.intendedNanos);
+
+        if (sent.episode.pattern == FraudPattern.LEGITIMATE) {
+            report.recordFalsePositive();
+        } else if (sent.episode.detected.compareAndSet(false, true)) {
+            report.recordDetection(sent.episode.pattern);
+            undetectedEpisodes.decrementAndGet();
+        }
+    }
+
+    // Open loop: transaction i is due at start + i / tps whatever happened to the earlier ones.
+
+    private void send(SyntheticTransactionGenerator generator, LoadReport run) {
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / tps;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        run.start(start);
+
+        ArrayDeque<TransactionRequestDTO> pending = new ArrayDeque<>();
+        EpisodeState episode = null;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * periodNanos;
+            if (intended - end >= 0) {
+                break;
+            }
+
+            if (pending.isEmpty()) {
+                Episode next = generator.next(LocalDateTime.now());
+                episode = new EpisodeState(next.pattern());
+                run.recordEpisode(next.pattern(), next.transactions().size());
+                if (next.pattern() != FraudPattern.LEGITIMATE) {
+                    undetectedEpisodes.incrementAndGet();
+                }
+                pending.addAll(next.transactions());
+            }
+
+            TransactionRequestDTO dto = pending.poll();
+
+            for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+
+            awaitingAlert.put(dto.getTransactionId(), new Sent(episode, intended));
+            dispatch(dto, run);
+        }
+
+        run.stop(System.nanoTime());
+    }
+
+    private void dispatch(TransactionRequestDTO dto, LoadReport run) {
+        try {
+            if (target == Target.HTTP) {
+                HttpRequest request = HttpRequest.newBuilder(httpUrl)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(dto)))
+                        .build();
+
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, failure) ->
+                                completed(dto, run, failure != null || response.statusCode() >= 300, failure));
+            } else {
+                transport.send(dto).whenComplete((ignored, failure) -> completed(dto, run, failure != null, failure));
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            completed(dto, run, true, e);
+        }
+    }
+
+    private void completed(TransactionRequestDTO dto, LoadReport run, boolean failed, Throwable failure) {
+        if (!failed) {
+            run.recordSent();
+            return;
+        }
+        run.recordSendFailure();
+        awaitingAlert.remove(dto.getTransactionId());
+        log.debug("Load generator send failed for {}", dto.getTransactionId(), failure);
+    }
+
+    // After the last send: until every injected episode has alerted, or drain-seconds pass.
+
+    private void awaitAlerts() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainSeconds);
+        while (undetectedEpisodes.get() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(100);
+        }
+    }
+
+    private void saveProfiles(List<AccountProfiles> profiles) {
+        for (int from = 0; from < profiles.size(); from += PROFILE_CHUNK) {
+            profileRepo.saveAll(profiles.subList(from, Math.min(from + PROFILE_CHUNK, profiles.size())));
+        }
+        log.info("Load generator population created | accounts={}", profiles.size());
+    }
+
+    private static final class EpisodeState {
+
+        private final FraudPattern pattern;
+        private final AtomicBoolean detected = new AtomicBoolean();
+
+        EpisodeState(FraudPattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    private record Sent(EpisodeState episode, long intendedNanos) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.bankfraud.fraud_detection_service.simulation;
+
+import com.bankfraud.fraud_detection_service.kafka.MessageCodec;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+
+ // Feeds the load generator with alerts read back from the 'fraud-alerts' topic (Kafka transport),
+ // so its latency covers the whole path up to the published alert. Own consumer group, latest offsets.
+
+@Component
+@ConditionalOnExpression("${fraud.loadgen.enabled:false} and '${fraud.transport.type:kafka}' == 'kafka'")
+public class LoadGeneratorAlertListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGeneratorAlertListener.class);
+
+    private final LoadGenerator loadGenerator;
+    private final MessageCodec codec;
+
+    public LoadGeneratorAlertListener(LoadGenerator loadGenerator, MessageCodec codec) {
+        this.loadGenerator = loadGenerator;
+        this.codec = codec;
+    }
+
+    @KafkaListener(topics = "fraud-alerts", groupId = "fraud-loadgen", properties = "auto.offset.reset=latest")
+    public void consume(ConsumerRecord<String, byte[]> record) {
+        try {
+            loadGenerator.onAlert(codec.decodeAlert(record.value()).getRelatedTxnId());
+        } catch (Exception e) {
+            log.warn("Failed to decode fraud alert at partition={} offset={}", record.partition(), record.offset(), e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.bankfraud.fraud_detection_service.simulation;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+ // Results of one load generator run: throughput, produce-to-alert latency and recall per pattern.
+ // Latency is measured from the transaction's intended send time (open loop), so a stalled sender
+ // shows up in the percentiles instead of being hidden by coordinated omission.
+
+public final class LoadReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+    private final LongAdder[] episodes = adders(FraudPattern.values().length);
+    private final LongAdder[] detected = adders(FraudPattern.values().length);
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder legitimateTransactions = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public void start(long nanos) {
+        this.startNanos = nanos;
+    }
+
+    public void stop(long nanos) {
+        this.endNanos = nanos;
+    }
+
+    public void recordEpisode(FraudPattern pattern, int transactions) {
+        episodes[pattern.ordinal()].increment();
+        if (pattern == FraudPattern.LEGITIMATE) {
+            legitimateTransactions.add(transactions);
+        }
+    }
+
+    public void recordSent() {
+        sent.increment();
+    }
+
+    public void recordSendFailure() {
+        sendFailures.increment();
+    }
+
+    // First alert for an injected episode.
+
+    public void recordDetection(FraudPattern pattern) {
+        detected[pattern.ordinal()].increment();
+    }
+
+    // Alert on a transaction that belongs to a legitimate episode.
+
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public void recordAlertLatency(long nanos) {
+        latencyMicros.recordValue(Math.min(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)), MAX_LATENCY_MICROS));
+    }
+
+    public long episodes(FraudPattern pattern) {
+        return episodes[pattern.ordinal()].sum();
+    }
+
+    public long detected(FraudPattern pattern) {
+        return detected[pattern.ordinal()].sum();
+    }
+
+    public long sent() {
+        return sent.sum();
+    }
+
+    public long sendFailures() {
+        return sendFailures.sum();
+    }
+
+    public long falsePositives() {
+        return falsePositives.sum();
+    }
+
+    public double throughputPerSecond() {
+        double seconds = (endNanos - startNanos) / 1e9;
+        return seconds > 0 ? sent.sum() / seconds : 0;
+    }
+
+    public double recall(FraudPattern pattern) {
+        long injected = episodes(pattern);
+        return injected == 0 ? Double.NaN : (double) detected(pattern) / injected;
+    }
+
+    // Latency percentile in milliseconds (NaN before the first alert).
+
+    public double latencyMillis(double percentile) {
+        return latencyMicros.getTotalCount() == 0
+                ? Double.NaN
+                : latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder("Load generator report");
+
+        out.append(String.format(Locale.ROOT,
+                "%n  duration %.1f s | sent %d (%.1f tx/s) | send failures %d",
+                (endNanos - startNanos) / 1e9, sent(), throughputPerSecond(), sendFailures()));
+
+        out.append(String.format(Locale.ROOT,
+                "%n  produce-to-alert latency ms | p50 %.2f | p90 %.2f | p99 %.2f | p99.9 %.2f | max %.2f | alerts %d",
+                latencyMillis(50), latencyMillis(90), latencyMillis(99), latencyMillis(99.9),
+                latencyMillis(100), latencyMicros.getTotalCount()));
+
+        for (FraudPattern pattern : FraudPattern.FRAUD) {
+            out.append(String.format(Locale.ROOT, "%n  recall %-16s %d / %d (%.1f%%)",
+                    pattern, detected(pattern), episodes(pattern), recall(pattern) * 100));
+        }
+
+        out.append(String.format(Locale.ROOT, "%n  false positives %d of %d legitimate transactions",
+                falsePositives(), legitimateTransactions.sum()));
+
+        return out.toString();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,128 @@
+package com.bankfraud.fraud_detection_service.simulation;
+
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+
+ // Synthetic accounts for the load generator.
+ // Home countries follow a weighted distribution such as "PK:70,AE:10,GB:10,US:10"; average
+ // transaction amounts are spread between MIN_AVG_TXN_AMOUNT and MAX_AVG_TXN_AMOUNT.
+
+public final class SyntheticPopulation {
+
+    private static final int MIN_AVG_TXN_AMOUNT = 2_000;
+    private static final int MAX_AVG_TXN_AMOUNT = 25_000;
+    private static final String[] RISK_TIERS = {"LOW", "LOW", "LOW", "MEDIUM", "HIGH"};
+
+    private final List<AccountProfiles> profiles;
+    private final List<String> countries;
+
+    private SyntheticPopulation(List<AccountProfiles> profiles, List<String> countries) {
+        this.profiles = profiles;
+        this.countries = countries;
+    }
+
+    // Account ids are "<prefix>-<n>", so runs with different prefixes never share accounts.
+
+    public static SyntheticPopulation build(String accountPrefix, int size, String homeCountries, Random random) {
+        if (size < 1) {
+            throw new IllegalArgumentException("population size must be positive");
+        }
+
+        Map<String, Integer> weights = parseDistribution(homeCountries);
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+
+        List<AccountProfiles> profiles = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < size; i++) {
+            BigDecimal avgTxnAmount = BigDecimal.valueOf(
+                    MIN_AVG_TXN_AMOUNT + random.nextInt(MAX_AVG_TXN_AMOUNT - MIN_AVG_TXN_AMOUNT + 1));
+
+            profiles.add(new AccountProfiles(
+                    accountPrefix + "-" + i,
+                    avgTxnAmount.multiply(BigDecimal.valueOf(3)).setScale(2, RoundingMode.UNNECESSARY),
+                    avgTxnAmount.setScale(2, RoundingMode.UNNECESSARY),
+                    pick(weights, totalWeight, random),
+                    RISK_TIERS[random.nextInt(RISK_TIERS.length)],
+                    now,
+                    0L,
+                    null,
+                    null,
+                    now
+            ));
+        }
+
+        return new SyntheticPopulation(profiles, List.copyOf(weights.keySet()));
+    }
+
+    public List<AccountProfiles> profiles() {
+        return profiles;
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    public AccountProfiles randomAccount(Random random) {
+        return profiles.get(random.nextInt(profiles.size()));
+    }
+
+    // A country from the distribution other than the given one (or a fixed foreign one if there is none).
+
+    public String foreignCountry(String homeCountry, Random random) {
+        List<String> others = new ArrayList<>(countries);
+        others.remove(homeCountry);
+        if (others.isEmpty()) {
+            return "PK".equals(homeCountry) ? "AE" : "PK";
+        }
+        return others.get(random.nextInt(others.size()));
+    }
+
+    static Map<String, Integer> parseDistribution(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            String country = (colon < 0 ? trimmed : trimmed.substring(0, colon)).trim().toUpperCase();
+            int weight;
+            try {
+                weight = colon < 0 ? 1 : Integer.parseInt(trimmed.substring(colon + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid home country weight: " + trimmed, e);
+            }
+            if (country.isEmpty() || weight < 0) {
+                throw new IllegalArgumentException("Invalid home country weight: " + trimmed);
+            }
+            weights.merge(country, weight, Integer::sum);
+        }
+
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Home country distribution is empty: " + spec);
+        }
+        return weights;
+    }
+
+    private static String pick(Map<String, Integer> weights, int totalWeight, Random random) {
+        int r = random.nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+}
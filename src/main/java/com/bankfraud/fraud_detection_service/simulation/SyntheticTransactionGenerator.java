@@ -0,0 +1,156 @@
+package com.bankfraud.fraud_detection_service.simulation;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.business.MinorUnits;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+
+ // Turns a synthetic population into episodes: one legitimate transaction, or a short run of
+ // transactions shaped to trip one fraud rule under the given rule config snapshot.
+ // Accounts are taken round-robin in a shuffled order, so an account comes back only after every
+ // other account has been used; with a large enough population legitimate traffic never builds
+ // up a velocity window on its own. Not thread-safe.
+
+public final class SyntheticTransactionGenerator {
+
+    private static final String[] MERCHANTS = {"ATM-123", "POS-GROCERY", "POS-FUEL", "ONLINE-RETAIL", "ONLINE-TRAVEL"};
+
+    private static final Map<String, String> CURRENCIES = Map.of(
+            "PK", "PKR",
+            "AE", "AED",
+            "GB", "GBP",
+            "US", "USD",
+            "SA", "SAR"
+    );
+
+    public record Episode(FraudPattern pattern, List<TransactionRequestDTO> transactions) {
+    }
+
+    private final SyntheticPopulation population;
+    private final FraudRuleConfig config;
+    private final double fraudRatio;
+    private final Random random;
+    private final String idPrefix;
+
+    private final List<FraudPattern> fraudPatterns = new ArrayList<>();
+    private final List<AccountProfiles> order;
+    private int nextAccount;
+    private long sequence;
+
+    public SyntheticTransactionGenerator(SyntheticPopulation population,
+                                         FraudRuleConfig config,
+                                         double fraudRatio,
+                                         Random random,
+                                         String idPrefix) {
+        this.population = population;
+        this.config = config;
+        this.fraudRatio = fraudRatio;
+        this.random = random;
+        this.idPrefix = idPrefix;
+
+        for (FraudPattern pattern : FraudPattern.FRAUD) {
+            // No night window configured: the pattern cannot be built
+            if (pattern != FraudPattern.NIGHT_HIGH_VALUE || config.getNightEndNanoOfDay() > 2_000_000_000L) {
+                fraudPatterns.add(pattern);
+            }
+        }
+
+        this.order = new ArrayList<>(population.profiles());
+        Collections.shuffle(order, random);
+    }
+
+    // Patterns this generator can inject under its config.
+
+    public List<FraudPattern> fraudPatterns() {
+        return List.copyOf(fraudPatterns);
+    }
+
+    public Episode next(LocalDateTime now) {
+        if (random.nextDouble() >= fraudRatio) {
+            return episode(FraudPattern.LEGITIMATE, legitimate(nextAccount(), now));
+        }
+
+        FraudPattern pattern = fraudPatterns.get(random.nextInt(fraudPatterns.size()));
+        AccountProfiles account = nextAccount();
+
+        return switch (pattern) {
+            case VELOCITY_BURST -> {
+                TransactionRequestDTO[] burst = new TransactionRequestDTO[config.getVelocityMinCount() + 1];
+                for (int i = 0; i < burst.length; i++) {
+                    burst[i] = legitimate(account, now);
+                }
+                yield episode(pattern, burst);
+            }
+            case GEO_HOP -> {
+                TransactionRequestDTO abroad = legitimate(account, now);
+                abroad.setLocation(population.foreignCountry(account.getHomeCountry(), random));
+                abroad.setMerchant("ONLINE-TRAVEL");
+                yield episode(pattern, legitimate(account, now), abroad);
+            }
+            case NIGHT_HIGH_VALUE -> {
+                // Strictly between midnight and the night end hour, today
+                long nanoOfDay = 1_000_000_000L
+                        + (long) (random.nextDouble() * (config.getNightEndNanoOfDay() - 2_000_000_000L));
+                LocalDateTime night = now.toLocalDate().atTime(LocalTime.ofNanoOfDay(nanoOfDay));
+                long amount = config.getNightAmountFloorMinor() + averageMinor(account);
+                yield episode(pattern, transaction(account, amount, account.getHomeCountry(), night));
+            }
+            case LARGE_AMOUNT -> {
+                long amount = Math.max(config.getAbsoluteAmountThresholdMinor(),
+                        averageMinor(account) * config.getUnusualAmountMultiplier()) + averageMinor(account);
+                yield episode(pattern, transaction(account, amount, account.getHomeCountry(), now));
+            }
+            case LEGITIMATE -> throw new IllegalStateException("not a fraud pattern");
+        };
+    }
+
+    // An everyday purchase: home country, a fraction of the account's average, below every amount rule.
+
+    private TransactionRequestDTO legitimate(AccountProfiles account, LocalDateTime now) {
+        long average = averageMinor(account);
+        long amount = Math.max(100, (long) (average * (0.2 + random.nextDouble() * 1.3)));
+
+        amount = Math.min(amount, average * config.getUnusualAmountMultiplier());
+        amount = Math.min(amount, config.getAbsoluteAmountThresholdMinor());
+        amount = Math.min(amount, config.getNightAmountFloorMinor());
+
+        return transaction(account, amount, account.getHomeCountry(), now);
+    }
+
+    private TransactionRequestDTO transaction(AccountProfiles account, long amountMinor, String location, LocalDateTime at) {
+        return new TransactionRequestDTO(
+                idPrefix + "-" + sequence++,
+                account.getAccountId(),
+                "DEBIT",
+                MinorUnits.toBigDecimal(amountMinor),
+                CURRENCIES.getOrDefault(account.getHomeCountry(), "USD"),
+                location,
+                MERCHANTS[random.nextInt(MERCHANTS.length)],
+                at.truncatedTo(ChronoUnit.SECONDS).toString()
+        );
+    }
+
+    private AccountProfiles nextAccount() {
+        AccountProfiles account = order.get(nextAccount);
+        nextAccount = (nextAccount + 1) % order.size();
+        return account;
+    }
+
+    private static long averageMinor(AccountProfiles account) {
+        return MinorUnits.of(account.getAvgTxnAmount());
+    }
+
+    private static Episode episode(FraudPattern pattern, TransactionRequestDTO... transactions) {
+        return new Episode(pattern, List.of(transactions));
+    }
+}
@@ -0,0 +1,380 @@
+package com.bankfraud.fraud_detection_service.sse;
+
+import com.bankfraud.fraud_detection_service.diagnostics.SseBroadcastEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+ // Fan-out engine for one SSE stream.
+ // publish() serializes the event once and only enqueues it on each client's bounded queue; a shared
+ // writer pool drains the queues, so callers (the Kafka consumer, the alert sink) never block on a
+ // client socket. A client that falls behind loses its oldest events and is disconnected after
+ // too many consecutive drops; a client whose socket write stays blocked longer than the write
+ // timeout is disconnected by evictStalled(). When the bounded writer pool rejects a client's
+ // write task, the client loses its oldest event instead, counted like any other drop.
+ // Emitters are completed on the writer pool, never on the publishing thread, since complete()
+ // waits for a send in progress.
+ // Recent frames are also kept in a ring with increasing ids, so a client reconnecting with
+ // Last-Event-ID gets what it missed replayed from memory instead of re-querying the database.
+ // Ids are <epoch>-<sequence>, the epoch being random per broadcaster instance: an id issued by
+ // another instance or before a restart cannot be mistaken for one of ours, and gets the whole buffer.
+
+public class SseBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    // Frames written per writer turn before yielding the thread to other clients
+    private static final int MAX_FRAMES_PER_TURN = 64;
+
+    private final String stream;
+    private final String eventName;
+    private final ObjectMapper objectMapper;
+    private final Executor writers;
+    private final int clientQueueCapacity;
+    private final int maxConsecutiveDrops;
+    private final long writeTimeoutNanos;
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    // Replay ring, guarded by its own monitor: frame with id n lives in slot n % length
+    private final Frame[] ring;
+    private long lastId;
+
+    private final ConcurrentHashMap<Long, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicLong clientIds = new AtomicLong();
+
+    private final Counter dropped;
+    private final Counter evicted;
+
+    public SseBroadcaster(String stream,
+                          String eventName,
+                          ObjectMapper objectMapper,
+                          Executor writers,
+                          MeterRegistry meterRegistry,
+                          int clientQueueCapacity,
+                          int maxConsecutiveDrops,
+                          long writeTimeoutMillis,
+                          int replayBufferSize) {
+        this.stream = stream;
+        this.eventName = eventName;
+        this.objectMapper = objectMapper;
+        this.writers = writers;
+        this.clientQueueCapacity = clientQueueCapacity;
+        this.maxConsecutiveDrops = maxConsecutiveDrops;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.ring = new Frame[Math.max(0, replayBufferSize)];
+
+        Gauge.builder("fraud.sse.subscribers", clients, ConcurrentHashMap::size)
+                .tag("stream", stream)
+                .register(meterRegistry);
+        // Events queued but not yet written, per stream: a per-client tag would be unbounded
+        Gauge.builder("fraud.sse.client.lag.max", this, SseBroadcaster::maxLag)
+                .tag("stream", stream)
+                .register(meterRegistry);
+        Gauge.builder("fraud.sse.client.lag.total", this, SseBroadcaster::totalLag)
+                .tag("stream", stream)
+                .register(meterRegistry);
+        this.dropped = Counter.builder("fraud.sse.dropped").tag("stream", stream).register(meterRegistry);
+        this.evicted = Counter.builder("fraud.sse.evicted").tag("stream", stream).register(meterRegistry);
+    }
+
+    // lastEventId is the Last-Event-ID header of a reconnecting client, null on a first connect.
+
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(Long.MAX_VALUE));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Client client = new Client(clientIds.incrementAndGet(), emitter);
+
+        emitter.onCompletion(() -> remove(client));
+        emitter.onTimeout(() -> remove(client));
+        emitter.onError(e -> remove(client));
+
+        int replayed = 0;
+
+        // Replay and registration under the ring lock: no event is missed or delivered twice
+        synchronized (ring) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replayed = replay(client, resumeAfter(lastEventId));
+            }
+            clients.put(client.id, client);
+        }
+
+        if (replayed > 0) {
+            log.info("Replayed {} {} events to SSE client {}", replayed, stream, client.id);
+        }
+
+        log.info("SSE client {} connected for {} ({} subscribers)", client.id, stream, clients.size());
+        return emitter;
+    }
+
+    public void publish(Object data) {
+        if (ring.length == 0 && clients.isEmpty()) {
+            return;
+        }
+
+        byte[] json;
+        try {
+            // Serialized once, shared by every client and the replay ring
+            json = objectMapper.writeValueAsBytes(data);
+        } catch (Exception e) {
+            log.warn("Failed to serialize {} SSE event", stream, e);
+            return;
+        }
+
+        SseBroadcastEvent event = new SseBroadcastEvent();
+        event.begin();
+        long waitStart = System.nanoTime();
+
+        synchronized (ring) {
+            event.blocked = System.nanoTime() - waitStart;
+
+            long id = ++lastId;
+            Frame frame = new Frame(id, SseEmitter.event()
+                    .id(epoch + '-' + id)
+                    .name(eventName)
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build());
+
+            if (ring.length > 0) {
+                ring[(int) (id % ring.length)] = frame;
+            }
+
+            log.debug("Publishing {} event {} to {} SSE clients", stream, id, clients.size());
+
+            // enqueue() never blocks, so holding the lock here is cheap
+            for (Client client : clients.values()) {
+                client.enqueue(frame.data());
+            }
+
+            event.eventId = id;
+            event.clients = clients.size();
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.stream = stream;
+            event.commit();
+        }
+    }
+
+    public int subscriberCount() {
+        return clients.size();
+    }
+
+    private double maxLag() {
+        int max = 0;
+        for (Client client : clients.values()) {
+            max = Math.max(max, client.queue.size());
+        }
+        return max;
+    }
+
+    private double totalLag() {
+        long total = 0;
+        for (Client client : clients.values()) {
+            total += client.queue.size();
+        }
+        return total;
+    }
+
+    // Disconnects clients whose current socket write has taken longer than the write timeout.
+    // Their writer thread stays blocked until the container times the write out; the other clients
+    // keep being served meanwhile. Returns the number of clients evicted.
+
+    public int evictStalled() {
+        return evictStalled(System.nanoTime());
+    }
+
+    int evictStalled(long nowNanos) {
+        int stalled = 0;
+        for (Client client : clients.values()) {
+            long started = client.sendStartedNanos;
+            if (started != 0 && nowNanos - started > writeTimeoutNanos) {
+                evict(client, "socket write blocked for more than "
+                        + TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos) + " ms");
+                stalled++;
+            }
+        }
+        return stalled;
+    }
+
+    // Caller holds the ring lock. Replays at most one client queue worth of events; a client whose
+    // id is unknown (resumeAfter 0, or newer than ours) gets the whole buffer.
+
+    private int replay(Client client, long resumeAfter) {
+        if (ring.length == 0 || lastId == 0) {
+            return 0;
+        }
+
+        long oldest = Math.max(1, lastId - ring.length + 1);
+        long from = resumeAfter <= lastId ? Math.max(resumeAfter + 1, oldest) : oldest;
+        from = Math.max(from, lastId - clientQueueCapacity + 1);
+
+        int replayed = 0;
+        for (long id = from; id <= lastId; id++) {
+            client.enqueue(ring[(int) (id % ring.length)].data());
+            replayed++;
+        }
+        return replayed;
+    }
+
+    // Sequence to resume after, 0 when the id was not issued by this instance since it started.
+
+    private long resumeAfter(String lastEventId) {
+        String id = lastEventId.trim();
+        int separator = id.lastIndexOf('-');
+        if (separator < 0 || !id.substring(0, separator).equals(epoch)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(id.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    String epoch() {
+        return epoch;
+    }
+
+    private void remove(Client client) {
+        client.closed = true;
+        if (clients.remove(client.id, client)) {
+            log.info("SSE client {} disconnected from {} ({} subscribers)", client.id, stream, clients.size());
+        }
+    }
+
+    private void evict(Client client, String reason) {
+        evicted.increment();
+        log.warn("Evicting SSE client {} from {}: {}", client.id, stream, reason);
+        remove(client);
+        try {
+            writers.execute(() -> {
+                try {
+                    client.emitter.complete();
+                } catch (Exception ignored) {
+                    // connection already gone
+                }
+            });
+        } catch (Exception e) {
+            log.debug("Could not complete evicted SSE client {}", client.id, e);
+        }
+    }
+
+
+     // A published event with its id, as written on the wire.
+
+    private record Frame(long id, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+    }
+
+
+     // One subscriber: a bounded frame queue drained by at most one writer task at a time.
+
+    private final class Client implements Runnable {
+
+        private final long id;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicInteger consecutiveDrops = new AtomicInteger();
+        private volatile long sendStartedNanos; // 0 while no send is in progress
+        private volatile boolean closed;
+
+        Client(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(clientQueueCapacity);
+        }
+
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+
+            // Full queue: drop the oldest event, the client only ever sees the latest ones
+            while (!queue.offer(frame)) {
+                if (queue.poll() != null && !countDrop()) {
+                    return;
+                }
+            }
+
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                writers.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Writer pool saturated: shed this client's oldest event rather than queue more work
+                scheduled.set(false);
+                if (queue.poll() != null) {
+                    countDrop();
+                }
+            }
+        }
+
+        // False when the drop got the client evicted
+        private boolean countDrop() {
+            dropped.increment();
+            int drops = consecutiveDrops.incrementAndGet();
+            if (drops > maxConsecutiveDrops) {
+                evict(this, drops + " events dropped");
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                int written = 0;
+
+                while (!closed && written < MAX_FRAMES_PER_TURN && (frame = queue.poll()) != null) {
+                    sendStartedNanos = System.nanoTime();
+                    emitter.send(frame);
+                    sendStartedNanos = 0;
+                    written++;
+                }
+
+                if (queue.isEmpty()) {
+                    consecutiveDrops.set(0); // caught up
+                }
+
+            } catch (Exception e) {
+                remove(this);
+                return;
+            } finally {
+                sendStartedNanos = 0;
+                scheduled.set(false);
+            }
+
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
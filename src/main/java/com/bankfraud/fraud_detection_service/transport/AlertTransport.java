@@ -0,0 +1,18 @@
+package com.bankfraud.fraud_detection_service.transport;
+
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+
+import java.util.List;
+
+
+ // Publishes persisted fraud alerts beyond this service (fraud.transport.type).
+ // AlertSink calls stage() inside the transaction that inserts the batch and published()
+ // after it committed, so a transport can either join the transaction (Kafka outbox) or
+ // deliver directly once the alerts are durable (in-process).
+
+public interface AlertTransport {
+
+    void stage(List<FraudAlerts> alerts);
+
+    void published(List<FraudAlerts> alerts);
+}
@@ -0,0 +1,50 @@
+package com.bankfraud.fraud_detection_service.transport;
+
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+
+ // Broker-less alerts: committed alerts are handed, as objects, to the listeners registered in
+ // this JVM (embedding code, benchmarks). Listeners run on the alert sink thread and must be quick.
+
+@Component
+@ConditionalOnProperty(name = "fraud.transport.type", havingValue = "in-process")
+public class InProcessAlertTransport implements AlertTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(InProcessAlertTransport.class);
+
+    private final List<Consumer<FraudAlerts>> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<FraudAlerts> listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Consumer<FraudAlerts> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void stage(List<FraudAlerts> alerts) {
+        // nothing to write: delivery happens after commit
+    }
+
+    @Override
+    public void published(List<FraudAlerts> alerts) {
+        for (Consumer<FraudAlerts> listener : listeners) {
+            for (FraudAlerts alert : alerts) {
+                try {
+                    listener.accept(alert);
+                } catch (Exception e) {
+                    log.warn("In-process alert listener failed for tx {}", alert.getRelatedTxnId(), e);
+                }
+            }
+        }
+    }
+}
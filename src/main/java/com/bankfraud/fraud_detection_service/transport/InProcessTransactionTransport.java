@@ -0,0 +1,196 @@
+package com.bankfraud.fraud_detection_service.transport;
+
+import com.bankfraud.fraud_detection_service.controllers.StreamController;
+import com.bankfraud.fraud_detection_service.dtos.TransactionMapper;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.facade.FraudDetectionFacade;
+import com.bankfraud.fraud_detection_service.pipeline.MpscArrayQueue;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Outcome;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+ // Broker-less transport for single-node deployments and local benchmarks.
+ // Transactions are handed over as objects (no serialization) through one bounded lock-free queue
+ // per lane; the lane is chosen by accountId and drained by its own thread, so an account's
+ // transactions are processed in order (like the Kafka partitioning) and accounts in parallel.
+ // send() waits up to offer-timeout-ms for room, then fails: backpressure on the caller.
+
+@Component
+@ConditionalOnProperty(name = "fraud.transport.type", havingValue = "in-process")
+public class InProcessTransactionTransport implements TransactionTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(InProcessTransactionTransport.class);
+
+    private static final int SPINS_BEFORE_PARK = 64;
+    private static final long FULL_QUEUE_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final FraudDetectionFacade facade;
+    private final StreamController streamController; // For SSE push
+    private final PipelineMetrics metrics;
+
+    private final Lane[] lanes;
+    private final long offerTimeoutNanos;
+
+    private final Counter rejected;
+
+    private volatile boolean running = true;
+
+    public InProcessTransactionTransport(FraudDetectionFacade facade,
+                                         StreamController streamController,
+                                         PipelineMetrics metrics,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${fraud.transport.in-process.lanes:8}") int laneCount,
+                                         @Value("${fraud.transport.in-process.queue-capacity:16384}") int queueCapacity,
+                                         @Value("${fraud.transport.in-process.offer-timeout-ms:1000}") long offerTimeoutMillis) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("fraud.transport.in-process.lanes must be positive");
+        }
+        this.facade = facade;
+        this.streamController = streamController;
+        this.metrics = metrics;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+        }
+
+        this.rejected = Counter.builder("fraud.transport.rejected").tag("transport", "in-process").register(meterRegistry);
+        Gauge.builder("fraud.transport.queue.depth", lanes, ls -> {
+            int depth = 0;
+            for (Lane lane : ls) {
+                depth += lane.queue.size();
+            }
+            return depth;
+        }).tag("transport", "in-process").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Lane lane : lanes) {
+            lane.thread.start();
+        }
+        log.info("In-process transport started | lanes={} capacity={}", lanes.length, lanes[0].queue.capacity());
+    }
+
+    @Override
+    public CompletableFuture<Void> send(TransactionRequestDTO dto) {
+        Transactions tx;
+        try {
+            tx = TransactionMapper.toEntity(dto);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        Lane lane = lanes[Math.floorMod(tx.getAccountId().hashCode(), lanes.length)];
+
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (!lane.queue.offer(tx)) {
+            if (!running || System.nanoTime() - deadline > 0) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("In-process transport queue full"));
+            }
+            LockSupport.parkNanos(FULL_QUEUE_BACKOFF_NANOS);
+        }
+        lane.wakeUp();
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void process(Transactions tx) {
+        try {
+            if (!facade.process(tx)) {
+                log.debug("Duplicate transaction {} ignored.", tx.getTransactionId());
+                return;
+            }
+
+            // Push live transaction to frontend via SSE
+
+            try {
+                long start = System.nanoTime();
+                streamController.pushTransaction(tx);
+                metrics.record(Stage.SSE_PUSH, start);
+            } catch (Exception ex) {
+                log.warn("Failed to push transaction SSE", ex);
+            }
+
+        } catch (Exception e) {
+            metrics.outcome(Outcome.FAILURE);
+            log.error("Failed to process transaction {}", tx.getTransactionId(), e);
+        }
+    }
+
+    // Stops accepting work and lets each lane drain what is already queued.
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Lane lane : lanes) {
+            LockSupport.unpark(lane.thread);
+        }
+        for (Lane lane : lanes) {
+            lane.thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+
+     // One queue and the thread that drains it. The thread spins briefly when idle, then parks
+     // until a producer wakes it. parked is set before the queue is re-checked and read by the
+     // producer after its offer, so one of the two always sees the other: no timed wake-up needed.
+
+    private final class Lane {
+
+        private final MpscArrayQueue<Transactions> queue;
+        private final Thread thread;
+        private volatile boolean parked;
+
+        Lane(int index, int capacity) {
+            this.queue = new MpscArrayQueue<>(capacity);
+            this.thread = new Thread(this::drain, "inproc-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void wakeUp() {
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private void drain() {
+            int idle = 0;
+            while (running || queue.size() > 0) {
+                Transactions tx = queue.poll();
+                if (tx != null) {
+                    idle = 0;
+                    process(tx);
+                } else if (++idle < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    parked = true;
+                    if (queue.size() == 0 && running) {
+                        LockSupport.park(this);
+                    }
+                    parked = false;
+                }
+            }
+        }
+    }
+}
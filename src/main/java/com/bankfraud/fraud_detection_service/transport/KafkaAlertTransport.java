@@ -0,0 +1,52 @@
+package com.bankfraud.fraud_detection_service.transport;
+
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.kafka.MessageCodec;
+import com.bankfraud.fraud_detection_service.repositories.OutboxRepository;
+import com.bankfraud.fraud_detection_service.repositories.OutboxRepository.OutboxMessage;
+import com.bankfraud.fraud_detection_service.services.OutboxRelay;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+ // Alerts to the 'fraud-alerts' topic through the transactional outbox: the messages are written
+ // with the alert batch and OutboxRelay publishes them once committed.
+
+@Component
+@ConditionalOnProperty(name = "fraud.transport.type", havingValue = "kafka", matchIfMissing = true)
+public class KafkaAlertTransport implements AlertTransport {
+
+    private static final String FRAUD_ALERTS_TOPIC = "fraud-alerts";
+
+    private final OutboxRepository outboxRepo;
+    private final OutboxRelay outboxRelay;
+    private final MessageCodec codec;
+
+    public KafkaAlertTransport(OutboxRepository outboxRepo,
+                               OutboxRelay outboxRelay,
+                               MessageCodec codec) {
+        this.outboxRepo = outboxRepo;
+        this.outboxRelay = outboxRelay;
+        this.codec = codec;
+    }
+
+    // Inside the alert batch transaction, after the insert, so the payloads carry the alert ids.
+    // Keyed by account so one account's alerts stay ordered.
+
+    @Override
+    public void stage(List<FraudAlerts> alerts) {
+        List<OutboxMessage> messages = new ArrayList<>(alerts.size());
+        for (FraudAlerts alert : alerts) {
+            messages.add(new OutboxMessage(FRAUD_ALERTS_TOPIC, alert.getAccountId(), codec.encodeAlert(alert)));
+        }
+        outboxRepo.insertAll(messages);
+    }
+
+    @Override
+    public void published(List<FraudAlerts> alerts) {
+        outboxRelay.signal();
+    }
+}
@@ -0,0 +1,27 @@
+package com.bankfraud.fraud_detection_service.transport;
+
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.kafka.TransactionsProducer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+
+ // Default transport: the 'transactions' topic, consumed by the listener selected with fraud.kafka.listener-mode.
+
+@Component
+@ConditionalOnProperty(name = "fraud.transport.type", havingValue = "kafka", matchIfMissing = true)
+public class KafkaTransactionTransport implements TransactionTransport {
+
+    private final TransactionsProducer producer;
+
+    public KafkaTransactionTransport(TransactionsProducer producer) {
+        this.producer = producer;
+    }
+
+    @Override
+    public CompletableFuture<Void> send(TransactionRequestDTO dto) {
+        return producer.sendTransactionAsync(dto).thenApply(result -> null);
+    }
+}
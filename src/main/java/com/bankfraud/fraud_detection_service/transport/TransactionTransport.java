@@ -0,0 +1,16 @@
+package com.bankfraud.fraud_detection_service.transport;
+
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+
+import java.util.concurrent.CompletableFuture;
+
+
+ // Hands submitted transactions to the processing pipeline (fraud.transport.type).
+ // kafka: the 'transactions' topic and its listeners; in-process: bounded queues inside this JVM.
+
+public interface TransactionTransport {
+
+    // Completes once the transport has taken responsibility for the transaction
+    // (broker ack, or enqueued in-process); completes exceptionally when it was not accepted.
+    CompletableFuture<Void> send(TransactionRequestDTO dto);
+}
@@ -0,0 +1,16 @@
+-- Every stored transaction_id, outside the partitioned table. transactions can only be unique on
+-- (transaction_id, timestamp) (V4), so a retry carrying another timestamp would be stored again;
+-- the insert claims the id here first and writes only the rows it claimed.
+-- Rows older than fraud.partitions.retention-days are removed by PartitionMaintenanceJob.
+
+CREATE TABLE transaction_ids (
+                                 transaction_id VARCHAR(64) PRIMARY KEY,
+                                 stored_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_transaction_ids_stored_at ON transaction_ids (stored_at);
+
+INSERT INTO transaction_ids (transaction_id, stored_at)
+SELECT transaction_id, min(COALESCE(created_at, timestamp))
+FROM transactions
+GROUP BY transaction_id;
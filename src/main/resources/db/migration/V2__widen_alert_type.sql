@@ -0,0 +1,4 @@
+-- alert_type is the comma-joined list of triggered rules; all five rules take 60 characters.
+
+ALTER TABLE fraud_alerts
+    ALTER COLUMN alert_type TYPE VARCHAR(128);
@@ -0,0 +1,31 @@
+CREATE TABLE fraud_rule_config (
+                                   version BIGSERIAL PRIMARY KEY,
+                                   config JSONB NOT NULL,
+                                   created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Version 1: the thresholds and weights the rules were written with
+
+INSERT INTO fraud_rule_config (config) VALUES ('{
+  "absoluteAmountThreshold": 100000,
+  "unusualAmountMultiplier": 3,
+  "nightAmountFloor": 50000,
+  "nightEndHour": 4,
+  "velocityMinCount": 3,
+  "velocityWindowSeconds": 120,
+  "rapidTransferMinCount": 10,
+  "rapidTransferWindowSeconds": 300,
+  "alertScoreThreshold": 40,
+  "weights": {
+    "UNUSUAL_AMOUNT": 50,
+    "VELOCITY": 40,
+    "GEO_MISMATCH": 45,
+    "NIGHT_TX": 40,
+    "RAPID_TRANSFER": 40
+  }
+}');
+
+--------------------------------------------------
+
+ALTER TABLE fraud_alerts
+    ADD COLUMN rule_config_version BIGINT;
@@ -0,0 +1,121 @@
+-- Daily range partitions for transactions (by timestamp) and fraud_alerts (by detected_at).
+-- Partitions are named <table>_pYYYYMMDD and cover one UTC day; PartitionMaintenanceJob creates
+-- upcoming days and applies retention. Rows outside every daily partition land in <table>_default.
+-- Ids keep coming from the existing sequences (fraud_alerts_id_seq is used by the batch insert).
+
+--------------------------------------------------
+-- transactions
+--------------------------------------------------
+
+ALTER TABLE transactions RENAME TO transactions_legacy;
+
+CREATE TABLE transactions (
+                              id BIGINT NOT NULL DEFAULT nextval('transactions_id_seq'),
+                              transaction_id VARCHAR(64) NOT NULL,
+                              account_id VARCHAR(64) NOT NULL,
+                              txn_type VARCHAR(20) NOT NULL,
+                              amount NUMERIC(18,2) NOT NULL,
+                              currency VARCHAR(10),
+                              location VARCHAR(100),
+                              merchant VARCHAR(100),
+                              timestamp TIMESTAMPTZ NOT NULL,
+                              created_at TIMESTAMPTZ DEFAULT now()
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+--------------------------------------------------
+-- fraud_alerts
+--------------------------------------------------
+
+ALTER TABLE fraud_alerts RENAME TO fraud_alerts_legacy;
+
+CREATE TABLE fraud_alerts (
+                              id BIGINT NOT NULL DEFAULT nextval('fraud_alerts_id_seq'),
+                              account_id VARCHAR(64) NOT NULL,
+                              alert_type VARCHAR(128) NOT NULL,
+                              alert_score NUMERIC(5,2) NOT NULL,
+                              related_txn_id VARCHAR(64),
+                              details JSONB,
+                              detected_at TIMESTAMPTZ NOT NULL,
+                              acknowledged BOOLEAN DEFAULT false,
+                              rule_config_version BIGINT
+) PARTITION BY RANGE (detected_at);
+
+ALTER SEQUENCE fraud_alerts_id_seq OWNED BY fraud_alerts.id;
+
+CREATE TABLE fraud_alerts_default PARTITION OF fraud_alerts DEFAULT;
+
+--------------------------------------------------
+-- Daily partitions from the oldest existing row up to a week ahead
+--------------------------------------------------
+
+DO $$
+DECLARE
+    parent TEXT;
+    first_day DATE;
+    last_day DATE := (now() AT TIME ZONE 'UTC')::date + 7;
+    d DATE;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['transactions', 'fraud_alerts'] LOOP
+
+        IF parent = 'transactions' THEN
+            SELECT min(timestamp AT TIME ZONE 'UTC')::date INTO first_day FROM transactions_legacy;
+        ELSE
+            SELECT min(detected_at AT TIME ZONE 'UTC')::date INTO first_day FROM fraud_alerts_legacy;
+        END IF;
+
+        d := LEAST(COALESCE(first_day, last_day), (now() AT TIME ZONE 'UTC')::date);
+
+        WHILE d <= last_day LOOP
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                parent || '_p' || to_char(d, 'YYYYMMDD'),
+                parent,
+                d::text || ' 00:00:00+00',
+                (d + 1)::text || ' 00:00:00+00');
+            d := d + 1;
+        END LOOP;
+
+    END LOOP;
+END $$;
+
+--------------------------------------------------
+-- Copy existing rows, then constraints and indexes on the partitioned tables.
+-- Unique constraints must contain the partition key.
+--------------------------------------------------
+
+INSERT INTO transactions (id, transaction_id, account_id, txn_type, amount, currency,
+                          location, merchant, timestamp, created_at)
+SELECT id, transaction_id, account_id, txn_type, amount, currency,
+       location, merchant, timestamp, created_at
+FROM transactions_legacy;
+
+INSERT INTO fraud_alerts (id, account_id, alert_type, alert_score, related_txn_id,
+                          details, detected_at, acknowledged, rule_config_version)
+SELECT id, account_id, alert_type, alert_score, related_txn_id,
+       details, detected_at, acknowledged, rule_config_version
+FROM fraud_alerts_legacy;
+
+DROP TABLE transactions_legacy;
+DROP TABLE fraud_alerts_legacy;
+
+ALTER TABLE transactions
+    ADD CONSTRAINT transactions_pkey PRIMARY KEY (id, timestamp);
+
+ALTER TABLE transactions
+    ADD CONSTRAINT transactions_transaction_id_timestamp_key UNIQUE (transaction_id, timestamp);
+
+CREATE INDEX idx_transactions_account_ts
+    ON transactions (account_id, timestamp DESC);
+
+CREATE INDEX idx_transactions_txn_id
+    ON transactions (transaction_id);
+
+ALTER TABLE fraud_alerts
+    ADD CONSTRAINT fraud_alerts_pkey PRIMARY KEY (id, detected_at);
+
+CREATE INDEX idx_fraud_alerts_account_detected
+    ON fraud_alerts (account_id, detected_at);
@@ -0,0 +1,17 @@
+-- Transactional outbox: alerts and their Kafka messages are written in one transaction,
+-- OutboxRelay publishes unsent rows and stamps sent_at.
+
+CREATE TABLE outbox_messages (
+                                 id BIGSERIAL PRIMARY KEY,
+                                 topic VARCHAR(255) NOT NULL,
+                                 message_key VARCHAR(255),
+                                 payload TEXT NOT NULL,
+                                 created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+                                 sent_at TIMESTAMPTZ
+);
+
+-- The relay only ever scans unsent rows, oldest first
+
+CREATE INDEX idx_outbox_messages_unsent ON outbox_messages (id) WHERE sent_at IS NULL;
+
+CREATE INDEX idx_outbox_messages_sent_at ON outbox_messages (sent_at) WHERE sent_at IS NOT NULL;
@@ -0,0 +1,20 @@
+-- Outbox rows are claimed with a lease (claimed_until) and sent outside the claiming transaction.
+-- Failed sends are counted; a row that keeps failing moves to outbox_dead_letters.
+
+ALTER TABLE outbox_messages
+    ADD COLUMN attempts INT NOT NULL DEFAULT 0,
+    ADD COLUMN claimed_until TIMESTAMPTZ;
+
+-- Rows of a key stay behind an older leased row of the same key (per-account order)
+
+CREATE INDEX idx_outbox_messages_unsent_key ON outbox_messages (message_key, id) WHERE sent_at IS NULL;
+
+CREATE TABLE outbox_dead_letters (
+                                     id BIGINT PRIMARY KEY,
+                                     topic VARCHAR(255) NOT NULL,
+                                     message_key VARCHAR(255),
+                                     payload TEXT NOT NULL,
+                                     created_at TIMESTAMPTZ NOT NULL,
+                                     attempts INT NOT NULL,
+                                     dead_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,7 @@
+-- Outbox payloads are encoded Kafka values (MessageCodec, JSON or binary wire format)
+
+ALTER TABLE outbox_messages
+    ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+
+ALTER TABLE outbox_dead_letters
+    ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
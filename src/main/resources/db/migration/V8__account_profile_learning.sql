@@ -0,0 +1,7 @@
+-- Online profile learning (ProfileLearningService): how many transactions a profile was learned from,
+-- and the running spend of its current day, so the statistics resume after a restart.
+
+ALTER TABLE account_profiles
+    ADD COLUMN txn_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN spend_day DATE,
+    ADD COLUMN day_spend NUMERIC(18,2);
@@ -0,0 +1,5 @@
+-- When the profile was last posted through the API. Learned flushes carry the posted_at they were
+-- learned from and only update a row that still has it, so they never overwrite a newer posted profile.
+
+ALTER TABLE account_profiles
+    ADD COLUMN posted_at TIMESTAMPTZ;
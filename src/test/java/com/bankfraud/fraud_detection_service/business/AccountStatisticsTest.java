@@ -0,0 +1,77 @@
+package com.bankfraud.fraud_detection_service.business;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AccountStatisticsTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 12, 29);
+
+	@Test
+	void averagesPlainlyWhileNewThenWeighsRecentAmountsMore() {
+		AccountStatistics stats = new AccountStatistics(0.1, 0.1);
+
+		stats.observe(100, DAY);
+		stats.observe(200, DAY);
+		stats.observe(300, DAY);
+
+		// 1/n >= alpha for the first samples: the plain mean
+		assertEquals(200, stats.avgTxnAmount(), 1e-9);
+
+		for (int i = 0; i < 20; i++) {
+			stats.observe(200, DAY);
+		}
+		stats.observe(1200, DAY);
+
+		// past warm-up a single outlier only moves the average by alpha of its distance
+		assertEquals(200 + 0.1 * 1000, stats.avgTxnAmount(), 1e-6);
+		assertEquals(24, stats.txnCount());
+	}
+
+	@Test
+	void foldsCompletedDaysIntoTheDailyAverage() {
+		AccountStatistics stats = new AccountStatistics(0.1, 0.5);
+
+		stats.observe(400, DAY);
+		stats.observe(600, DAY);
+		assertNull(stats.avgDailySpend());
+		assertEquals(1000, stats.daySpend(), 1e-9);
+
+		stats.observe(50, DAY.plusDays(1));
+		assertEquals(1000, stats.avgDailySpend(), 1e-9);
+
+		// day 2 (50) is folded, then day 3 had no transactions: 525 * 0.5
+		stats.observe(10, DAY.plusDays(3));
+		assertEquals(262.5, stats.avgDailySpend(), 1e-9);
+		assertEquals(10, stats.daySpend(), 1e-9);
+		assertEquals(DAY.plusDays(3), stats.day());
+	}
+
+	@Test
+	void aSeededPriorIsOnlyNudgedByTheNextTransaction() {
+		AccountStatistics stats = new AccountStatistics(0.05, 0.1);
+		stats.seed(20_000.0, 5, 0, 50_000.0, null, 0);
+
+		stats.observe(80_000, DAY);
+
+		// weighs as 5 samples: 1/6 of the distance
+		assertEquals(30_000, stats.avgTxnAmount(), 1e-6);
+		assertEquals(1, stats.txnCount());
+		assertEquals(50_000, stats.avgDailySpend(), 1e-9);
+	}
+
+	@Test
+	void lateTransactionsDoNotReopenAPastDay() {
+		AccountStatistics stats = new AccountStatistics(0.1, 0.1);
+
+		stats.observe(100, DAY.plusDays(1));
+		stats.observe(900, DAY);
+
+		assertEquals(100, stats.daySpend(), 1e-9);
+		assertNull(stats.avgDailySpend());
+	}
+}
@@ -0,0 +1,30 @@
+package com.bankfraud.fraud_detection_service.business;
+
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FraudDecisionTest {
+
+	@Test
+	void alertTypeOfEveryRuleFitsTheColumn() {
+		int allRules = 0;
+		for (FraudRuleType rule : FraudRuleType.values()) {
+			allRules |= rule.mask();
+		}
+
+		String alertType = FraudDecision.fromMask(allRules).getAlertType();
+
+		assertEquals("UNUSUAL_AMOUNT,VELOCITY,GEO_MISMATCH,NIGHT_TX,RAPID_TRANSFER", alertType);
+		assertTrue(alertType.length() <= FraudAlerts.ALERT_TYPE_MAX_LENGTH);
+	}
+
+	@Test
+	void alertTypeListsRulesInRuleOrder() {
+		int mask = FraudRuleType.RAPID_TRANSFER.mask() | FraudRuleType.VELOCITY.mask();
+
+		assertEquals("VELOCITY,RAPID_TRANSFER", FraudDecision.fromMask(mask).getAlertType());
+	}
+}
@@ -0,0 +1,230 @@
+package com.bankfraud.fraud_detection_service.business;
+
+import com.bankfraud.fraud_detection_service.dtos.RuleConfigDTO;
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FraudRuleEngineTest {
+
+	private final FraudRuleEngine ruleEngine = new FraudRuleEngine();
+	private final FraudScoringService scoringService = new FraudScoringService();
+
+	@Test
+	void allRulesFireForLargeNightTransferAbroadDuringBurst() {
+		Transactions tx = transaction("150000.00", LocalDateTime.of(2025, 12, 29, 1, 30));
+
+		FraudDecision decision = ruleEngine.evaluate(tx, profile("20000.00"), 12, true, true);
+
+		assertEquals(List.of(FraudRuleType.values()), decision.getTriggeredRules());
+		assertEquals(new BigDecimal("215"), scoringService.calculateScore(decision));
+	}
+
+	@Test
+	void normalDaytimeTransactionTriggersNothing() {
+		Transactions tx = transaction("15000.00", LocalDateTime.of(2025, 12, 29, 10, 30));
+
+		int mask = ruleEngine.evaluateMask(tx, profile("20000.00"), 0, false, false);
+
+		assertEquals(0, mask);
+		assertEquals(0, FraudRuleConfig.DEFAULT.getWeights().score(mask));
+	}
+
+	@Test
+	void unusualAmountUsesThreeTimesTheAverage() {
+		Transactions tx = transaction("60000.01", LocalDateTime.of(2025, 12, 29, 10, 30));
+
+		assertTrue(FraudRuleType.UNUSUAL_AMOUNT.isSetIn(
+				ruleEngine.evaluateMask(tx, profile("20000.00"), 0, false, false)));
+		assertEquals(0, ruleEngine.evaluateMask(
+				transaction("60000.00", tx.getTimestamp()), profile("20000.00"), 0, false, false));
+	}
+
+	@Test
+	void amountsWithMoreThanTwoDecimalsAreNotRoundedBelowTheLimit() {
+		LocalDateTime night = LocalDateTime.of(2025, 12, 29, 1, 30);
+
+		assertTrue(FraudRuleType.NIGHT_TX.isSetIn(
+				ruleEngine.evaluateMask(transaction("50000.001", night), null, 0, false, false)));
+		assertTrue(FraudRuleType.UNUSUAL_AMOUNT.isSetIn(ruleEngine.evaluateMask(
+				transaction("100000.001", night.withHour(10)), profile("90000.00"), 0, false, false)));
+	}
+
+	@Test
+	void unusualAmountNeedsAProfile() {
+		Transactions tx = transaction("150000.00", LocalDateTime.of(2025, 12, 29, 10, 30));
+
+		assertEquals(0, ruleEngine.evaluateMask(tx, null, 0, false, false));
+	}
+
+	@Test
+	void midnightItselfIsNotANightTransaction() {
+		Transactions tx = transaction("60000", LocalDateTime.of(2025, 12, 29, 0, 0));
+
+		assertEquals(0, ruleEngine.evaluateMask(tx, null, 0, false, false));
+	}
+
+	@Test
+	void thresholdsComeFromTheConfigSnapshot() {
+		Transactions tx = transaction("15000.00", LocalDateTime.of(2025, 12, 29, 10, 30));
+
+		RuleConfigDTO definition = FraudRuleConfig.DEFAULT.toDefinition();
+		definition.setVelocityMinCount(2);
+		definition.getWeights().put(FraudRuleType.VELOCITY, 25);
+		FraudRuleConfig config = FraudRuleConfig.compile(7, definition);
+
+		int mask = ruleEngine.evaluateMask(config, tx, profile("20000.00"), 2, false, false);
+
+		assertEquals(FraudRuleType.VELOCITY.mask(), mask);
+		assertEquals(25, config.getWeights().score(mask));
+		assertEquals(0, ruleEngine.evaluateMask(tx, profile("20000.00"), 2, false, false));
+	}
+
+	@Test
+	void defaultConfigRoundTripsThroughItsDefinition() {
+		FraudRuleConfig copy = FraudRuleConfig.compile(1, FraudRuleConfig.DEFAULT.toDefinition());
+
+		assertEquals(FraudRuleConfig.DEFAULT.getNightEndNanoOfDay(), copy.getNightEndNanoOfDay());
+		assertEquals(FraudRuleConfig.DEFAULT.getAbsoluteAmountThresholdMinor(), copy.getAbsoluteAmountThresholdMinor());
+		assertEquals(215, copy.getWeights().score((1 << FraudRuleType.values().length) - 1));
+	}
+
+	@Test
+	void incompleteConfigIsRejected() {
+		RuleConfigDTO definition = FraudRuleConfig.DEFAULT.toDefinition();
+		definition.getWeights().remove(FraudRuleType.GEO_MISMATCH);
+
+		assertThrows(IllegalArgumentException.class, () -> FraudRuleConfig.compile(2, definition));
+	}
+
+	@Test
+	void amountLimitsBetweenMinorUnitsAreRejected() {
+		RuleConfigDTO definition = FraudRuleConfig.DEFAULT.toDefinition();
+		definition.setAbsoluteAmountThreshold(new BigDecimal("100000.005"));
+
+		assertThrows(IllegalArgumentException.class, () -> FraudRuleConfig.compile(2, definition));
+	}
+
+	@Test
+	void lazyEvaluationCompletesTheMaskOnceTheThresholdIsReached() {
+		// NIGHT_TX alone reaches the default threshold of 40; the alert still lists every rule
+		Transactions tx = transaction("150000.00", LocalDateTime.of(2025, 12, 29, 1, 30));
+		tx.setLocation("AE");
+		CountingFeatures features = new CountingFeatures(12, 12, profile("20000.00"));
+
+		int mask = ruleEngine.evaluateLazily(FraudRuleConfig.DEFAULT, tx, features, true);
+
+		assertEquals(ruleEngine.evaluateMask(tx, profile("20000.00"), 12, true, true), mask);
+		assertEquals(1, features.profileCalls);
+	}
+
+	@Test
+	void lazyEvaluationWithoutShortCircuitMatchesFullEvaluation() {
+		Transactions tx = transaction("150000.00", LocalDateTime.of(2025, 12, 29, 1, 30));
+		tx.setLocation("AE");
+		CountingFeatures features = new CountingFeatures(12, 12, profile("20000.00"));
+
+		int mask = ruleEngine.evaluateLazily(FraudRuleConfig.DEFAULT, tx, features, false);
+
+		assertEquals(ruleEngine.evaluateMask(tx, profile("20000.00"), 12, true, true), mask);
+		assertEquals(1, features.profileCalls);
+	}
+
+	@Test
+	void lazyEvaluationFetchesTheProfileOnlyWhenItCanDecide() {
+		Transactions tx = transaction("15000.00", LocalDateTime.of(2025, 12, 29, 10, 30));
+		FraudRuleConfig config = FraudRuleConfig.compile(3, withProfileRuleWeights(FraudRuleConfig.DEFAULT.toDefinition(), 10));
+
+		CountingFeatures features = new CountingFeatures(0, 0, profile("20000.00"));
+
+		// no velocity and profile rules worth 20 in total: 40 is out of reach once velocity is known
+		assertEquals(0, ruleEngine.evaluateLazily(config, tx, features, true));
+		assertEquals(1, features.velocityCalls);
+		assertEquals(0, features.profileCalls);
+	}
+
+	@Test
+	void lazyEvaluationUsesACachedProfileEvenWhenTheThresholdIsOutOfReach() {
+		Transactions tx = transaction("15000.00", LocalDateTime.of(2025, 12, 29, 10, 30));
+		tx.setLocation("AE");
+		FraudRuleConfig config = FraudRuleConfig.compile(3, withProfileRuleWeights(FraudRuleConfig.DEFAULT.toDefinition(), 10));
+
+		CountingFeatures features = new CountingFeatures(0, 0, profile("20000.00"));
+		features.profileCached = true;
+
+		// GEO_MISMATCH is counted although the transaction cannot alert
+		assertEquals(FraudRuleType.GEO_MISMATCH.mask(), ruleEngine.evaluateLazily(config, tx, features, true));
+		assertEquals(1, features.profileCalls);
+	}
+
+	private static RuleConfigDTO withProfileRuleWeights(RuleConfigDTO definition, int weight) {
+		definition.getWeights().put(FraudRuleType.UNUSUAL_AMOUNT, weight);
+		definition.getWeights().put(FraudRuleType.GEO_MISMATCH, weight);
+		return definition;
+	}
+
+	private static final class CountingFeatures implements FraudFeatureSource {
+
+		private final int velocityWindowCount;
+		private final int rapidWindowCount;
+		private final AccountProfiles profile;
+		private int velocityCalls;
+		private int profileCalls;
+		private boolean profileCached;
+
+		CountingFeatures(int velocityWindowCount, int rapidWindowCount, AccountProfiles profile) {
+			this.velocityWindowCount = velocityWindowCount;
+			this.rapidWindowCount = rapidWindowCount;
+			this.profile = profile;
+		}
+
+		@Override
+		public int velocityWindowCount() {
+			velocityCalls++;
+			return velocityWindowCount;
+		}
+
+		@Override
+		public int rapidWindowCount() {
+			return rapidWindowCount;
+		}
+
+		@Override
+		public AccountProfiles profile() {
+			profileCalls++;
+			return profile;
+		}
+
+		@Override
+		public boolean isCached(FraudFeature feature) {
+			return feature == FraudFeature.PROFILE && profileCached;
+		}
+	}
+
+	private static Transactions transaction(String amount, LocalDateTime timestamp) {
+		Transactions tx = new Transactions();
+		tx.setTransactionId("tx-101");
+		tx.setAccountId("acc-101");
+		tx.setTxnType("DEBIT");
+		tx.setAmount(new BigDecimal(amount));
+		tx.setLocation("PK");
+		tx.setTimestamp(timestamp);
+		return tx;
+	}
+
+	private static AccountProfiles profile(String avgTxnAmount) {
+		AccountProfiles profile = new AccountProfiles();
+		profile.setAccountId("acc-101");
+		profile.setAvgTxnAmount(new BigDecimal(avgTxnAmount));
+		profile.setHomeCountry("PK");
+		return profile;
+	}
+}
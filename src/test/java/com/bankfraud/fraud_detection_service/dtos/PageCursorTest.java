@@ -0,0 +1,24 @@
+package com.bankfraud.fraud_detection_service.dtos;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+	@Test
+	void roundTripsThroughItsToken() {
+		PageCursor cursor = new PageCursor(LocalDateTime.of(2025, 12, 29, 10, 30, 15, 123_456_000), 42L);
+
+		assertEquals(cursor, PageCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void rejectsForeignTokens() {
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not-a-cursor"));
+		assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("!!"));
+	}
+}
@@ -0,0 +1,131 @@
+package com.bankfraud.fraud_detection_service.facade;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.repositories.TransactionsBatchRepository;
+import com.bankfraud.fraud_detection_service.repositories.TransactionsRepository;
+import com.bankfraud.fraud_detection_service.services.AccountProfileCache;
+import com.bankfraud.fraud_detection_service.services.AlertSink;
+import com.bankfraud.fraud_detection_service.services.FraudEvaluationService;
+import com.bankfraud.fraud_detection_service.services.FraudRuleConfigRegistry;
+import com.bankfraud.fraud_detection_service.services.ProfileLearningService;
+import com.bankfraud.fraud_detection_service.services.RecentActivityCache;
+import com.bankfraud.fraud_detection_service.services.TransactionDeduplicator;
+import com.bankfraud.fraud_detection_service.services.TransactionService;
+import com.bankfraud.fraud_detection_service.services.VelocityWindowStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FraudDetectionFacadeTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 29, 10, 30, 0);
+
+	@Test
+	void batchModeRaisesTheSameAlertsAsSingleMode() {
+		Pipeline single = new Pipeline();
+		for (Transactions tx : burst()) {
+			single.facade.process(tx);
+		}
+
+		Pipeline batch = new Pipeline();
+		batch.facade.processBatch(burst());
+
+		// VELOCITY (3 in 2 minutes) only from the third transaction on, in both modes
+		assertEquals(List.of("TXN-3", "TXN-4", "TXN-5"), single.alertedTxnIds);
+		assertEquals(single.alertedTxnIds, batch.alertedTxnIds);
+	}
+
+	@Test
+	void failedBatchInsertIsRetriedRowByRow() {
+		Pipeline pipeline = new Pipeline();
+		pipeline.poisonTxnId = "TXN-2";
+
+		List<Transactions> saved = pipeline.facade.processBatch(burst());
+
+		assertEquals(List.of("TXN-1", "TXN-3", "TXN-4", "TXN-5"),
+				saved.stream().map(Transactions::getTransactionId).toList());
+	}
+
+	private static List<Transactions> burst() {
+		List<Transactions> txs = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			Transactions tx = new Transactions();
+			tx.setTransactionId("TXN-" + i);
+			tx.setAccountId("acc-101");
+			tx.setTxnType("TRANSFER");
+			tx.setAmount(new BigDecimal("100.00"));
+			tx.setLocation("PK");
+			tx.setTimestamp(T0.plusSeconds(i * 10L));
+			txs.add(tx);
+		}
+		return txs;
+	}
+
+
+	 // Facade over the real services with in-memory state; the database and alert delivery are stubbed.
+
+	private static final class Pipeline {
+
+		final List<String> alertedTxnIds = new ArrayList<>();
+		final FraudDetectionFacade facade;
+		String poisonTxnId;
+
+		Pipeline() {
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			PipelineMetrics metrics = new PipelineMetrics(registry);
+			VelocityWindowStore velocityStore = new VelocityWindowStore(null, 1, 5, 10);
+
+			AtomicLong ids = new AtomicLong();
+			TransactionsBatchRepository batchRepo = mock(TransactionsBatchRepository.class);
+			when(batchRepo.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+				List<Transactions> txs = invocation.getArgument(0);
+				if (txs.stream().anyMatch(tx -> tx.getTransactionId().equals(poisonTxnId))) {
+					throw new IllegalStateException("value too long");
+				}
+				txs.forEach(tx -> tx.setId(ids.incrementAndGet()));
+				return new ArrayList<>(txs);
+			});
+
+			TransactionService transactionService = new TransactionService(
+					mock(TransactionsRepository.class),
+					batchRepo,
+					velocityStore,
+					mock(RecentActivityCache.class),
+					new TransactionDeduplicator(registry, 1000));
+
+			AlertSink alertSink = mock(AlertSink.class);
+			doAnswer(invocation -> alertedTxnIds.add(invocation.<FraudAlerts>getArgument(0).getRelatedTxnId()))
+					.when(alertSink).submit(any());
+
+			FraudRuleConfigRegistry ruleConfigs = mock(FraudRuleConfigRegistry.class);
+			when(ruleConfigs.current()).thenReturn(FraudRuleConfig.DEFAULT);
+
+			FraudEvaluationService fraudService = new FraudEvaluationService(
+					mock(AccountProfileCache.class),
+					alertSink,
+					velocityStore,
+					ruleConfigs,
+					metrics,
+					registry,
+					true);
+
+			facade = new FraudDetectionFacade(transactionService, fraudService,
+					mock(ProfileLearningService.class), metrics);
+		}
+	}
+}
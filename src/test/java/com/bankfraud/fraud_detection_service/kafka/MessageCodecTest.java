@@ -0,0 +1,142 @@
+package com.bankfraud.fraud_detection_service.kafka;
+
+import com.bankfraud.fraud_detection_service.configs.JacksonConfig;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.FraudAlerts;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageCodecTest {
+
+	private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+	private final MessageCodec binary = new MessageCodec(objectMapper, WireFormat.BINARY, WireFormat.BINARY);
+	private final MessageCodec json = new MessageCodec(objectMapper, WireFormat.JSON, WireFormat.JSON);
+
+	private static TransactionRequestDTO transaction(String timestamp) {
+		return new TransactionRequestDTO("TXN-1001", "acc-101", "TRANSFER", new BigDecimal("1250.75"),
+				"PKR", "PK", "Daraz", timestamp);
+	}
+
+	@Test
+	void transactionRoundTripsInBothFormats() throws IOException {
+		for (String timestamp : new String[]{"2025-12-29T10:30:15", "2025-12-29T10:30:00", "2025-12-29T10:30", "yesterday", null}) {
+			TransactionRequestDTO dto = transaction(timestamp);
+
+			assertEquals(dto, binary.decodeTransaction(binary.encodeTransaction(dto)));
+			assertEquals(dto, json.decodeTransaction(json.encodeTransaction(dto)));
+		}
+	}
+
+	@Test
+	void eitherCodecReadsBothFormats() throws IOException {
+		TransactionRequestDTO dto = transaction("2025-12-29T10:30:15");
+
+		byte[] binaryMessage = binary.encodeTransaction(dto);
+		byte[] jsonMessage = json.encodeTransaction(dto);
+
+		assertTrue(MessageCodec.isBinary(binaryMessage));
+		assertFalse(MessageCodec.isBinary(jsonMessage));
+		assertEquals(dto, json.decodeTransaction(binaryMessage));
+		assertEquals(dto, binary.decodeTransaction(jsonMessage));
+		assertTrue(binaryMessage.length * 2 < jsonMessage.length,
+				"binary " + binaryMessage.length + " bytes, json " + jsonMessage.length + " bytes");
+	}
+
+	@Test
+	void decodesStraightToTheEntityFromBothFormats() throws IOException {
+		TransactionRequestDTO dto = transaction("2025-12-29T10:30:15.25");
+
+		for (byte[] message : new byte[][]{binary.encodeTransaction(dto), json.encodeTransaction(dto)}) {
+			Transactions tx = binary.decodeTransactionEntity(message);
+
+			assertEquals("TXN-1001", tx.getTransactionId());
+			assertEquals("acc-101", tx.getAccountId());
+			assertEquals(new BigDecimal("1250.75"), tx.getAmount());
+			assertEquals("Daraz", tx.getMerchant());
+			assertEquals(LocalDateTime.of(2025, 12, 29, 10, 30, 15, 250_000_000), tx.getTimestamp());
+		}
+	}
+
+	@Test
+	void entityDecoderIgnoresUnknownFieldsAndRejectsBadTimestamps() throws IOException {
+		byte[] extra = ("{\"transactionId\":\"TXN-1\",\"accountId\":\"acc-101\",\"txnType\":\"TRANSFER\","
+				+ "\"channel\":{\"app\":\"ios\"},\"amount\":\"10.5\",\"timestamp\":\"2025-12-29T10:30\"}")
+				.getBytes(StandardCharsets.UTF_8);
+
+		Transactions tx = json.decodeTransactionEntity(extra);
+		assertEquals(new BigDecimal("10.5"), tx.getAmount());
+		assertEquals(LocalDateTime.of(2025, 12, 29, 10, 30), tx.getTimestamp());
+
+		assertThrows(IOException.class, () -> json.decodeTransactionEntity(
+				"{\"transactionId\":\"TXN-2\",\"timestamp\":\"2025-13-29T10:30:00\"}".getBytes(StandardCharsets.UTF_8)));
+		assertThrows(IOException.class, () -> json.decodeTransactionEntity(
+				"{\"transactionId\":\"TXN-3\"}".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void entityDecoderRejectsMissingNotNullFields() {
+		TransactionRequestDTO noType = transaction("2025-12-29T10:30:15");
+		noType.setTxnType(null);
+		TransactionRequestDTO noAmount = transaction("2025-12-29T10:30:15");
+		noAmount.setAmount(null);
+
+		for (TransactionRequestDTO dto : new TransactionRequestDTO[]{noType, noAmount}) {
+			assertThrows(IOException.class, () -> json.decodeTransactionEntity(json.encodeTransaction(dto)));
+			assertThrows(IOException.class, () -> binary.decodeTransactionEntity(binary.encodeTransaction(dto)));
+		}
+	}
+
+	@Test
+	void alertRoundTrips() throws IOException {
+		FraudAlerts alert = new FraudAlerts();
+		alert.setId(42L);
+		alert.setAccountId("acc-101");
+		alert.setAlertType("VELOCITY,NIGHT_TX");
+		alert.setAlertScore(new BigDecimal("80"));
+		alert.setRelatedTxnId("TXN-1001");
+		alert.setDetails(Map.of("rules", List.of("VELOCITY", "NIGHT_TX"), "ruleConfigVersion", 3));
+		alert.setDetectedAt(LocalDateTime.of(2025, 12, 29, 1, 30, 0, 123_000_000));
+		alert.setAcknowledged(false);
+		alert.setRuleConfigVersion(3L);
+
+		FraudAlerts decoded = binary.decodeAlert(binary.encodeAlert(alert));
+
+		// compared as JSON: the List type in details is whatever the registered modules pick
+		// (jackson-module-scala, pulled in by spring-kafka-test, returns Scala lists)
+		assertEquals(objectMapper.valueToTree(alert), objectMapper.valueToTree(decoded));
+	}
+
+	@Test
+	void alertFormatIsIndependentOfTheTransactionFormat() {
+		MessageCodec mixed = new MessageCodec(objectMapper, WireFormat.BINARY, WireFormat.JSON);
+
+		FraudAlerts alert = new FraudAlerts();
+		alert.setAccountId("acc-101");
+		alert.setAlertType("VELOCITY");
+
+		assertTrue(MessageCodec.isBinary(mixed.encodeTransaction(transaction("2025-12-29T10:30:15"))));
+		assertFalse(MessageCodec.isBinary(mixed.encodeAlert(alert)));
+	}
+
+	@Test
+	void truncatedBinaryMessageIsRejected() {
+		byte[] message = binary.encodeTransaction(transaction("2025-12-29T10:30:15"));
+
+		assertThrows(IOException.class,
+				() -> binary.decodeTransaction(Arrays.copyOf(message, message.length - 3)));
+	}
+}
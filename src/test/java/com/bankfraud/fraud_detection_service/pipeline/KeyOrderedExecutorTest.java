@@ -0,0 +1,96 @@
+package com.bankfraud.fraud_detection_service.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedExecutorTest {
+
+	@Test
+	void tasksOfEachKeyRunInSubmissionOrder() throws InterruptedException {
+		int keys = 16;
+		int tasksPerKey = 500;
+		Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+		CountDownLatch done = new CountDownLatch(keys * tasksPerKey);
+
+		try (KeyOrderedExecutor executor = new KeyOrderedExecutor("test-lane-", 4)) {
+			for (int i = 0; i < tasksPerKey; i++) {
+				for (int k = 0; k < keys; k++) {
+					String key = "acc-" + k;
+					int sequence = i;
+					executor.execute(key, () -> {
+						// one lane per key: no other thread appends to this list
+						seen.computeIfAbsent(key, ignored -> new ArrayList<>()).add(sequence);
+						done.countDown();
+					});
+				}
+			}
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+		}
+
+		assertEquals(keys, seen.size());
+		for (List<Integer> sequences : seen.values()) {
+			assertEquals(tasksPerKey, sequences.size());
+			for (int i = 0; i < tasksPerKey; i++) {
+				assertEquals(i, sequences.get(i));
+			}
+		}
+	}
+
+	@Test
+	void closeRunsTheQueuedTasksBeforeReturning() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger ran = new AtomicInteger();
+		KeyOrderedExecutor executor = new KeyOrderedExecutor("test-lane-", 2);
+
+		executor.execute("acc-1", () -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			ran.incrementAndGet();
+		});
+		for (int i = 0; i < 10; i++) {
+			executor.execute("acc-1", ran::incrementAndGet);
+			executor.execute(null, ran::incrementAndGet);
+		}
+
+		Thread closer = new Thread(executor::close);
+		closer.start();
+		// still waiting on the blocked lane
+		closer.join(100);
+		assertTrue(closer.isAlive());
+
+		release.countDown();
+		closer.join(TimeUnit.SECONDS.toMillis(10));
+
+		assertFalse(closer.isAlive());
+		assertEquals(21, ran.get());
+	}
+
+	@Test
+	void closedExecutorRejectsNewTasks() {
+		KeyOrderedExecutor executor = new KeyOrderedExecutor("test-lane-", 2);
+		executor.close();
+
+		assertThrows(RejectedExecutionException.class, () -> executor.execute("acc-1", () -> { }));
+	}
+
+	@Test
+	void laneCountMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> new KeyOrderedExecutor("test-lane-", 0));
+	}
+}
@@ -0,0 +1,73 @@
+package com.bankfraud.fraud_detection_service.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscArrayQueueTest {
+
+	@Test
+	void isFifoAndBounded() {
+		MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(3); // rounded up to 4
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(queue.offer(i));
+		}
+		assertFalse(queue.offer(4));
+		assertEquals(4, queue.size());
+
+		assertEquals(0, queue.poll());
+		assertTrue(queue.offer(4));
+
+		for (int i = 1; i <= 4; i++) {
+			assertEquals(i, queue.poll());
+		}
+		assertNull(queue.poll());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	void concurrentProducersLoseNothingAndKeepTheirOwnOrder() throws InterruptedException {
+		int producers = 4;
+		int perProducer = 100_000;
+		MpscArrayQueue<long[]> queue = new MpscArrayQueue<>(1024);
+
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			long producer = p;
+			Thread thread = new Thread(() -> {
+				for (long i = 0; i < perProducer; i++) {
+					long[] element = {producer, i};
+					while (!queue.offer(element)) {
+						Thread.yield();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		long[] next = new long[producers];
+		int received = 0;
+		while (received < producers * perProducer) {
+			long[] element = queue.poll();
+			if (element == null) {
+				Thread.yield();
+				continue;
+			}
+			assertEquals(next[(int) element[0]]++, element[1]);
+			received++;
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(queue.poll());
+	}
+}
@@ -0,0 +1,70 @@
+package com.bankfraud.fraud_detection_service.pipeline;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleType;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Outcome;
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final PipelineMetrics metrics = new PipelineMetrics(registry);
+
+	@Test
+	void countsEachTriggeredRule() {
+		metrics.ruleHits(FraudRuleType.VELOCITY.mask() | FraudRuleType.NIGHT_TX.mask());
+		metrics.ruleHits(FraudRuleType.VELOCITY.mask());
+
+		assertEquals(2.0, registry.get("fraud.rules.hits").tag("rule", "VELOCITY").counter().count());
+		assertEquals(1.0, registry.get("fraud.rules.hits").tag("rule", "NIGHT_TX").counter().count());
+		assertEquals(0.0, registry.get("fraud.rules.hits").tag("rule", "GEO_MISMATCH").counter().count());
+	}
+
+	@Test
+	void recordsStagesAndOutcomesUnderTheirTags() {
+		metrics.recordNanos(Stage.PROFILE_LOOKUP, TimeUnit.MILLISECONDS.toNanos(3));
+		metrics.outcome(Outcome.DUPLICATE, 4);
+
+		assertEquals(1, registry.get("fraud.pipeline.stage").tag("stage", "profile-lookup").timer().count());
+		assertEquals(3.0, registry.get("fraud.pipeline.stage").tag("stage", "profile-lookup").timer()
+				.totalTime(TimeUnit.MILLISECONDS));
+		assertEquals(4.0, registry.get("fraud.pipeline.outcome").tag("outcome", "duplicate").counter().count());
+	}
+
+	@Test
+	void traceCollectsTheStagesOfTheCurrentTransactionOnly() {
+		metrics.recordNanos(Stage.SAVE_TRANSACTION, 500);
+
+		PipelineMetrics.Trace trace = metrics.beginTrace();
+		metrics.recordNanos(Stage.VELOCITY_LOOKUP, 200);
+		metrics.recordNanos(Stage.VELOCITY_LOOKUP, 300);
+		metrics.evaluated(FraudRuleType.GEO_MISMATCH.mask(), 45, true);
+
+		assertEquals(0, trace.nanos(Stage.SAVE_TRANSACTION));
+		assertEquals(500, trace.nanos(Stage.VELOCITY_LOOKUP));
+		assertTrue(FraudRuleType.GEO_MISMATCH.isSetIn(trace.triggeredMask()));
+		assertEquals(45, trace.score());
+		assertTrue(trace.alert());
+		assertEquals(1.0, registry.get("fraud.pipeline.outcome").tag("outcome", "alert").counter().count());
+	}
+
+	@Test
+	void stagesOutsideATraceOnlyReachTheTimers() {
+		PipelineMetrics.Trace trace = metrics.beginTrace();
+		metrics.recordNanos(Stage.ALERT_PERSIST, 100);
+		metrics.endTrace();
+
+		metrics.recordNanos(Stage.ALERT_PERSIST, 900);
+		metrics.evaluated(FraudRuleType.VELOCITY.mask(), 40, true);
+
+		assertEquals(100, trace.nanos(Stage.ALERT_PERSIST));
+		assertEquals(0, trace.score());
+		assertEquals(2, registry.get("fraud.pipeline.stage").tag("stage", "alert-persist").timer().count());
+	}
+}
@@ -0,0 +1,95 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.configs.JacksonConfig;
+import com.bankfraud.fraud_detection_service.dtos.BulkIngestResultDTO;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.transport.TransactionTransport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkIngestServiceTest {
+
+	private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+	private final List<TransactionRequestDTO> sent = new ArrayList<>();
+
+	private final TransactionTransport acking = dto -> {
+		sent.add(dto);
+		return CompletableFuture.completedFuture(null);
+	};
+
+	@Test
+	void readsNdjsonAndArraysRecordByRecord() throws Exception {
+		BulkIngestService service = new BulkIngestService(acking, objectMapper, 10, 1000);
+
+		BulkIngestResultDTO ndjson = service.ingest(body(record("TXN-1") + "\n" + record("TXN-2") + "\n"));
+		BulkIngestResultDTO array = service.ingest(body("[" + record("TXN-3") + "," + record("TXN-4") + "]"));
+
+		assertEquals(2, ndjson.getAccepted());
+		assertEquals(2, array.getAccepted());
+		assertEquals(4, sent.size());
+		assertNull(array.getError());
+	}
+
+	@Test
+	void rejectsRecordsWithoutNotNullFields() throws Exception {
+		BulkIngestService service = new BulkIngestService(acking, objectMapper, 10, 1000);
+
+		String noAmount = "{\"transactionId\":\"TXN-2\",\"accountId\":\"acc-101\",\"txnType\":\"TRANSFER\","
+				+ "\"timestamp\":\"2025-12-29T10:30:00\"}";
+		String noType = "{\"transactionId\":\"TXN-3\",\"accountId\":\"acc-101\",\"amount\":10,"
+				+ "\"timestamp\":\"2025-12-29T10:30:00\"}";
+
+		BulkIngestResultDTO result = service.ingest(body(record("TXN-1") + "\n" + noAmount + "\n" + noType));
+
+		assertEquals(1, result.getAccepted());
+		assertEquals(2, result.getFailed());
+		assertFalse(result.getResults().get(1).isAccepted());
+		assertNotNull(result.getResults().get(2).getError());
+		assertEquals(1, sent.size());
+	}
+
+	@Test
+	void lateAckDoesNotChangeTheReturnedSummary() throws Exception {
+		CompletableFuture<Void> ack = new CompletableFuture<>();
+		BulkIngestService service = new BulkIngestService(dto -> ack, objectMapper, 10, 50);
+
+		BulkIngestResultDTO result = service.ingest(body(record("TXN-1")));
+		ack.complete(null);
+
+		assertEquals(0, result.getAccepted());
+		assertFalse(result.getResults().get(0).isAccepted());
+		assertEquals("No acknowledgement within the send timeout", result.getResults().get(0).getError());
+	}
+
+	@Test
+	void malformedBodyKeepsTheRecordsReadSoFar() throws Exception {
+		BulkIngestService service = new BulkIngestService(acking, objectMapper, 10, 1000);
+
+		BulkIngestResultDTO result = service.ingest(body(record("TXN-1") + "\n{\"transactionId\":"));
+
+		assertEquals(1, result.getAccepted());
+		assertTrue(result.getError().startsWith("Malformed body"));
+	}
+
+	private static String record(String transactionId) {
+		return "{\"transactionId\":\"" + transactionId + "\",\"accountId\":\"acc-101\",\"txnType\":\"TRANSFER\","
+				+ "\"amount\":1250.75,\"currency\":\"PKR\",\"location\":\"PK\",\"timestamp\":\"2025-12-29T10:30:00\"}";
+	}
+
+	private static InputStream body(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,100 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.dtos.RuleConfigDTO;
+import com.bankfraud.fraud_detection_service.repositories.FraudRuleConfigRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FraudRuleConfigRegistryTest {
+
+	private final FraudRuleConfigRepository configRepo = mock(FraudRuleConfigRepository.class);
+
+	// 5 minute span: windows up to 300s can be answered from memory
+	private final FraudRuleConfigRegistry registry = new FraudRuleConfigRegistry(
+			configRepo, new VelocityWindowStore(null, 1, 5, 10), new SimpleMeterRegistry());
+
+	@Test
+	void publishRejectsAnInvalidDefinition() {
+		RuleConfigDTO definition = FraudRuleConfig.DEFAULT.toDefinition();
+		definition.setAlertScoreThreshold(-1);
+
+		assertThrows(IllegalArgumentException.class, () -> registry.publish(definition));
+
+		verify(configRepo, never()).insert(any());
+		assertSame(FraudRuleConfig.DEFAULT, registry.current());
+	}
+
+	@Test
+	void publishRejectsAWindowLongerThanTheVelocitySpan() {
+		RuleConfigDTO definition = FraudRuleConfig.DEFAULT.toDefinition();
+		definition.setRapidTransferWindowSeconds(301);
+
+		assertThrows(IllegalArgumentException.class, () -> registry.publish(definition));
+
+		verify(configRepo, never()).insert(any());
+		assertSame(FraudRuleConfig.DEFAULT, registry.current());
+	}
+
+	@Test
+	void publishedVersionBecomesCurrent() {
+		RuleConfigDTO definition = FraudRuleConfig.DEFAULT.toDefinition();
+		definition.setAlertScoreThreshold(80);
+		when(configRepo.insert(any())).thenReturn(3L);
+
+		registry.publish(definition);
+
+		assertEquals(3, registry.current().getVersion());
+		assertEquals(80, registry.current().getAlertScoreThreshold());
+	}
+
+	@Test
+	void refreshPicksUpANewerStoredVersion() {
+		RuleConfigDTO definition = FraudRuleConfig.DEFAULT.toDefinition();
+		definition.setVelocityMinCount(5);
+		when(configRepo.findLatestVersion()).thenReturn(Optional.of(4L));
+		when(configRepo.findByVersion(4L)).thenReturn(Optional.of(definition));
+
+		registry.refresh();
+
+		assertEquals(4, registry.current().getVersion());
+		assertEquals(5, registry.current().getVelocityMinCount());
+	}
+
+	@Test
+	void refreshIgnoresAStaleVersion() {
+		when(configRepo.insert(any())).thenReturn(5L);
+		FraudRuleConfig published = registry.publish(FraudRuleConfig.DEFAULT.toDefinition());
+
+		// the poll reads an older maximum than the version just published
+		when(configRepo.findLatestVersion()).thenReturn(Optional.of(4L));
+		when(configRepo.findByVersion(4L)).thenReturn(Optional.of(FraudRuleConfig.DEFAULT.toDefinition()));
+
+		registry.refresh();
+
+		assertSame(published, registry.current());
+	}
+
+	@Test
+	void refreshKeepsTheLastGoodSnapshotWhenTheStoredVersionIsRejected() {
+		RuleConfigDTO definition = FraudRuleConfig.DEFAULT.toDefinition();
+		definition.setVelocityWindowSeconds(600);
+		when(configRepo.findLatestVersion()).thenReturn(Optional.of(6L));
+		when(configRepo.findByVersion(6L)).thenReturn(Optional.of(definition));
+
+		registry.refresh();
+
+		assertSame(FraudRuleConfig.DEFAULT, registry.current());
+	}
+}
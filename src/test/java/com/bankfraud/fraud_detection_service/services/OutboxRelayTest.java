@@ -0,0 +1,110 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.pipeline.PipelineMetrics;
+import com.bankfraud.fraud_detection_service.repositories.OutboxRepository;
+import com.bankfraud.fraud_detection_service.repositories.OutboxRepository.OutboxMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+	private final OutboxRepository outboxRepo = mock(OutboxRepository.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+
+	@Test
+	void acknowledgedRowsAreMarkedSent() {
+		claims(message(1, "acc-1"), message(2, "acc-2"));
+		brokerFails();
+
+		assertEquals(2, relay(10).relayBatch());
+
+		verify(outboxRepo).markSent(List.of(1L, 2L));
+		verify(outboxRepo, never()).markFailed(anyList(), anyLong());
+	}
+
+	@Test
+	void laterRowsOfAFailedKeyAreHeldBack() {
+		claims(message(1, "acc-1"), message(2, "acc-2"), message(3, "acc-1"), message(4, "acc-2"));
+		brokerFails(1L);
+
+		assertEquals(2, relay(10).relayBatch());
+
+		// 3 was acknowledged, but may not count as sent before 1
+		verify(outboxRepo).markSent(List.of(2L, 4L));
+		verify(outboxRepo).markFailed(List.of(1L), 5000);
+		verify(outboxRepo).release(List.of(3L));
+		assertEquals(1, registry.counter("fraud.outbox.publish.failures").count(), 1e-9);
+	}
+
+	@Test
+	void rowsThatKeepFailingAreDeadLettered() {
+		claims(message(1, "acc-1"), message(2, "acc-2"));
+		brokerFails(1L, 2L);
+		when(outboxRepo.deadLetter(anyList(), anyInt())).thenReturn(1);
+
+		assertEquals(0, relay(3).relayBatch());
+
+		verify(outboxRepo).markFailed(List.of(1L, 2L), 5000);
+		verify(outboxRepo).deadLetter(List.of(1L, 2L), 3);
+		assertEquals(1, registry.counter("fraud.outbox.dead-lettered").count(), 1e-9);
+	}
+
+	@Test
+	void emptyClaimSendsNothing() {
+		claims();
+
+		assertEquals(0, relay(10).relayBatch());
+
+		verify(outboxRepo, never()).markSent(anyList());
+	}
+
+	private OutboxRelay relay(int maxAttempts) {
+		return new OutboxRelay(outboxRepo, kafkaTemplate, new PipelineMetrics(registry), registry,
+				100, 500, 1000, 5000, maxAttempts, 24);
+	}
+
+	private void claims(OutboxMessage... messages) {
+		when(outboxRepo.claimUnsent(anyInt(), anyLong())).thenReturn(List.of(messages));
+	}
+
+	// The payload of each message is its id; sends of the given ids fail.
+
+	private void brokerFails(Long... failingIds) {
+		Set<Long> failing = Set.of(failingIds);
+		when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(invocation -> {
+			long id = Long.parseLong(new String(invocation.<byte[]>getArgument(2), StandardCharsets.UTF_8));
+			CompletableFuture<SendResult<String, byte[]>> ack = new CompletableFuture<>();
+			if (failing.contains(id)) {
+				ack.completeExceptionally(new IllegalStateException("broker unavailable"));
+			} else {
+				ack.complete(null);
+			}
+			return ack;
+		});
+	}
+
+	private static OutboxMessage message(long id, String key) {
+		return new OutboxMessage(id, "fraud-alerts", key, String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+	}
+}
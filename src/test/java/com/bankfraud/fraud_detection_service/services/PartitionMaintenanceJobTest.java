@@ -0,0 +1,109 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PartitionMaintenanceJobTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2025, 12, 29);
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void createsUpcomingDaysAsPlainPartitions() {
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(false);
+
+		job(PartitionMaintenanceJob.RetentionMode.DETACH).maintain(TODAY);
+
+		verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS transactions_p20251230 PARTITION OF transactions "
+				+ "FOR VALUES FROM ('2025-12-30 00:00:00+00') TO ('2025-12-31 00:00:00+00')");
+		verify(jdbcTemplate, never()).execute(contains("ATTACH PARTITION"));
+	}
+
+	@Test
+	void rowsAlreadyInTheDefaultPartitionAreMovedIntoTheNewOne() {
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(false);
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS (SELECT 1 FROM transactions_default WHERE timestamp >= '2025-12-29"),
+				eq(Boolean.class))).thenReturn(true);
+
+		job(PartitionMaintenanceJob.RetentionMode.DETACH).maintain(TODAY);
+
+		InOrder order = inOrder(jdbcTemplate);
+		order.verify(jdbcTemplate).execute("LOCK TABLE transactions_default IN EXCLUSIVE MODE");
+		order.verify(jdbcTemplate).execute(startsWith("CREATE TABLE transactions_p20251229 (LIKE transactions"));
+		order.verify(jdbcTemplate).update(startsWith("WITH moved AS (DELETE FROM transactions_default"));
+		order.verify(jdbcTemplate).execute("ALTER TABLE transactions ATTACH PARTITION transactions_p20251229 "
+				+ "FOR VALUES FROM ('2025-12-29 00:00:00+00') TO ('2025-12-30 00:00:00+00')");
+	}
+
+	@Test
+	void failedMaintenanceIsCounted() {
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(false);
+		doThrow(new IllegalStateException("permission denied")).when(jdbcTemplate).execute(startsWith("CREATE TABLE"));
+
+		job(PartitionMaintenanceJob.RetentionMode.DETACH).maintain(TODAY);
+
+		// once per table
+		assertEquals(2, registry.counter("fraud.partitions.maintenance.failures").count(), 1e-9);
+	}
+
+	@Test
+	void expiredPartitionsAreOnlyDetachedByDefault() {
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(false);
+		when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("transactions")))
+				.thenReturn(List.of("transactions_default", "transactions_p20250901", "transactions_p20251228"));
+
+		job(PartitionMaintenanceJob.RetentionMode.DETACH).maintain(TODAY);
+
+		verify(jdbcTemplate).execute("ALTER TABLE transactions DETACH PARTITION transactions_p20250901");
+		verify(jdbcTemplate, never()).execute("ALTER TABLE transactions DETACH PARTITION transactions_p20251228");
+		verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+	}
+
+	@Test
+	void dropModeAlsoDropsExpiredPartitions() {
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(false);
+		when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("transactions")))
+				.thenReturn(List.of("transactions_p20250901"));
+
+		job(PartitionMaintenanceJob.RetentionMode.DROP).maintain(TODAY);
+
+		verify(jdbcTemplate).execute("DROP TABLE transactions_p20250901");
+	}
+
+	@Test
+	void transactionIdsOlderThanTheRetentionAreDeleted() {
+		when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(false);
+
+		job(PartitionMaintenanceJob.RetentionMode.DETACH).maintain(TODAY);
+
+		verify(jdbcTemplate).update("DELETE FROM transaction_ids WHERE stored_at < ?",
+				OffsetDateTime.of(2025, 9, 30, 0, 0, 0, 0, ZoneOffset.UTC));
+	}
+
+	private PartitionMaintenanceJob job(PartitionMaintenanceJob.RetentionMode mode) {
+		return new PartitionMaintenanceJob(jdbcTemplate, mock(PlatformTransactionManager.class), registry,
+				7, 90, mode);
+	}
+}
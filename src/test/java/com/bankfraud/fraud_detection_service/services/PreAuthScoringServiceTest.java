@@ -0,0 +1,132 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.dtos.ScoreResponseDTO;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PreAuthScoringServiceTest {
+
+	private final AccountProfileCache profileCache = mock(AccountProfileCache.class);
+	private final FraudRuleConfigRegistry ruleConfigs = mock(FraudRuleConfigRegistry.class);
+	private final CompletableFuture<TransactionRequestDTO> forwarded = new CompletableFuture<>();
+
+	private PreAuthScoringService service;
+
+	@AfterEach
+	void shutdown() {
+		if (service != null) {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void profileWithinBudgetIsNotDegraded() {
+		AccountProfiles profile = new AccountProfiles();
+		profile.setAvgTxnAmount(new BigDecimal("1000.00"));
+		profile.setHomeCountry("PK");
+		when(profileCache.findAsync(anyString(), any())).thenReturn(CompletableFuture.completedFuture(profile));
+
+		ScoreResponseDTO response = service(PreAuthScoringService.DegradePolicy.DECLINE).score(request("5000.00"));
+
+		// 5000 > 3 x 1000: UNUSUAL_AMOUNT, decided on the full rule set
+		assertEquals("DECLINE", response.getDecision());
+		assertFalse(response.isDegraded());
+	}
+
+	@Test
+	void partialPolicyDecidesOnTheRulesThatRan() {
+		profileMissesBudget();
+
+		ScoreResponseDTO response = service(PreAuthScoringService.DegradePolicy.PARTIAL).score(request("50.00"));
+
+		assertEquals("APPROVE", response.getDecision());
+		assertTrue(response.isDegraded());
+	}
+
+	@Test
+	void declineAndReviewPoliciesOverrideTheDecision() {
+		profileMissesBudget();
+
+		assertEquals("DECLINE",
+				service(PreAuthScoringService.DegradePolicy.DECLINE).score(request("50.00")).getDecision());
+		service.shutdown();
+
+		assertEquals("REVIEW",
+				service(PreAuthScoringService.DegradePolicy.REVIEW).score(request("50.00")).getDecision());
+	}
+
+	@Test
+	void missingTimestampIsForwardedAsTheOneUsedForScoring() throws Exception {
+		profileMissesBudget();
+		TransactionRequestDTO request = request("50.00");
+		request.setTimestamp(null);
+
+		LocalDateTime before = LocalDateTime.now();
+		service(PreAuthScoringService.DegradePolicy.PARTIAL).score(request);
+
+		TransactionRequestDTO sent = forwarded.get(5, TimeUnit.SECONDS);
+		assertNotNull(sent.getTimestamp());
+		assertFalse(LocalDateTime.parse(sent.getTimestamp()).isBefore(before.withNano(0)));
+		assertEquals("TXN-1", sent.getTransactionId());
+	}
+
+	@Test
+	void rejectsRequestsWithoutNotNullFields() {
+		PreAuthScoringService scoring = service(PreAuthScoringService.DegradePolicy.PARTIAL);
+
+		TransactionRequestDTO noType = request("50.00");
+		noType.setTxnType(null);
+		TransactionRequestDTO noAmount = request("50.00");
+		noAmount.setAmount(null);
+
+		assertThrows(IllegalArgumentException.class, () -> scoring.score(noType));
+		assertThrows(IllegalArgumentException.class, () -> scoring.score(noAmount));
+	}
+
+	private void profileMissesBudget() {
+		when(profileCache.findAsync(anyString(), any())).thenReturn(new CompletableFuture<>());
+	}
+
+	private PreAuthScoringService service(PreAuthScoringService.DegradePolicy policy) {
+		when(ruleConfigs.current()).thenReturn(FraudRuleConfig.DEFAULT);
+
+		service = new PreAuthScoringService(
+				profileCache,
+				new VelocityWindowStore(null, 1, 5, 10),
+				ruleConfigs,
+				dto -> {
+					forwarded.complete(dto);
+					return CompletableFuture.completedFuture(null);
+				},
+				new SimpleMeterRegistry(),
+				5,
+				policy,
+				1,
+				10);
+		return service;
+	}
+
+	private static TransactionRequestDTO request(String amount) {
+		return new TransactionRequestDTO("TXN-1", "acc-101", "TRANSFER", new BigDecimal(amount),
+				"PKR", "PK", "merchant-1", "2025-12-29T10:30:00");
+	}
+}
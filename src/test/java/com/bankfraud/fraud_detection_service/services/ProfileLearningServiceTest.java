@@ -0,0 +1,172 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.repositories.AccountProfilesBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProfileLearningServiceTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 29, 10, 30, 0);
+	private static final LocalDateTime POSTED = LocalDateTime.of(2025, 12, 1, 9, 0, 0);
+
+	private final AccountProfileCache profileCache = mock(AccountProfileCache.class);
+	private final AccountProfilesBatchRepository batchRepo = mock(AccountProfilesBatchRepository.class);
+
+	@Test
+	void flushWritesChangedAccountsOnceWithTheirPostedAt() {
+		when(profileCache.find("acc-101")).thenReturn(posted("acc-101"));
+		writesEverything();
+		ProfileLearningService learning = service();
+
+		learning.observe(tx("acc-101", "100.00"));
+		learning.observe(tx("acc-202", "50.00"));
+		learning.flush();
+		learning.flush();
+
+		List<AccountProfiles> written = flushedProfiles(1).get(0);
+		assertEquals(2, written.size());
+		AccountProfiles acc101 = byAccount(written, "acc-101");
+		assertEquals(POSTED, acc101.getPostedAt());
+		assertEquals("PK", acc101.getHomeCountry());
+		assertNull(byAccount(written, "acc-202").getPostedAt());
+		verify(profileCache).putLearned(acc101);
+	}
+
+	@Test
+	void flushSupersededByANewerPostDropsTheLearnedState() {
+		when(profileCache.find("acc-101")).thenReturn(posted("acc-101"));
+		when(batchRepo.upsertLearned(anyList())).thenReturn(Set.of());
+		ProfileLearningService learning = service();
+
+		learning.observe(tx("acc-101", "100.00"));
+		learning.flush();
+
+		assertEquals(0, learning.learnedAccounts());
+		verify(profileCache, never()).putLearned(any());
+		verify(profileCache).invalidate("acc-101");
+
+		// the next transaction starts again from the stored (newly posted) profile
+		learning.observe(tx("acc-101", "100.00"));
+		verify(profileCache, times(2)).find("acc-101");
+	}
+
+	@Test
+	void forgottenAccountIsNotFlushed() {
+		when(profileCache.find("acc-101")).thenReturn(posted("acc-101"));
+		writesEverything();
+		ProfileLearningService learning = service();
+
+		learning.observe(tx("acc-101", "100.00"));
+		learning.forget("acc-101");
+		learning.flush();
+
+		verify(batchRepo, never()).upsertLearned(anyList());
+		assertEquals(0, learning.learnedAccounts());
+	}
+
+	@Test
+	void failedFlushIsWrittenAgainWithTheNextOne() {
+		when(batchRepo.upsertLearned(anyList()))
+				.thenThrow(new IllegalStateException("connection refused"))
+				.thenAnswer(invocation -> ids(invocation.getArgument(0)));
+		ProfileLearningService learning = service();
+
+		learning.observe(tx("acc-101", "100.00"));
+		learning.flush();
+		verify(profileCache, never()).putLearned(any());
+
+		learning.flush();
+
+		assertEquals(2, flushedProfiles(2).size());
+		verify(profileCache).putLearned(any());
+	}
+
+	@Test
+	void onlyFlushedIdleAccountsAreEvicted() throws InterruptedException {
+		writesEverything();
+		ProfileLearningService learning = service();
+
+		learning.observe(tx("acc-101", "100.00"));
+		learning.flush();
+		learning.observe(tx("acc-202", "50.00"));
+		Thread.sleep(5);
+
+		learning.evictIdle();
+
+		// acc-202 has not been written yet
+		assertEquals(1, learning.learnedAccounts());
+
+		learning.flush();
+		learning.evictIdle();
+
+		assertEquals(0, learning.learnedAccounts());
+	}
+
+	private ProfileLearningService service() {
+		// idle eviction after 0 minutes: anything not touched in this millisecond
+		return new ProfileLearningService(profileCache, batchRepo, new SimpleMeterRegistry(),
+				true, 0.05, 0.1, 5, 0);
+	}
+
+	private void writesEverything() {
+		when(batchRepo.upsertLearned(anyList())).thenAnswer(invocation -> ids(invocation.getArgument(0)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<List<AccountProfiles>> flushedProfiles(int flushes) {
+		ArgumentCaptor<List<AccountProfiles>> captor = ArgumentCaptor.forClass(List.class);
+		verify(batchRepo, times(flushes)).upsertLearned(captor.capture());
+		return captor.getAllValues();
+	}
+
+	private static Set<String> ids(List<AccountProfiles> profiles) {
+		Set<String> ids = new HashSet<>();
+		profiles.forEach(profile -> ids.add(profile.getAccountId()));
+		return ids;
+	}
+
+	private static AccountProfiles byAccount(List<AccountProfiles> profiles, String accountId) {
+		return profiles.stream().filter(p -> p.getAccountId().equals(accountId)).findFirst().orElseThrow();
+	}
+
+	private static AccountProfiles posted(String accountId) {
+		AccountProfiles profile = new AccountProfiles();
+		profile.setAccountId(accountId);
+		profile.setAvgTxnAmount(new BigDecimal("1000.00"));
+		profile.setHomeCountry("PK");
+		profile.setRiskTier("LOW");
+		profile.setTxnCount(0L);
+		profile.setPostedAt(POSTED);
+		return profile;
+	}
+
+	private static Transactions tx(String accountId, String amount) {
+		Transactions tx = new Transactions();
+		tx.setTransactionId("TXN-" + accountId);
+		tx.setAccountId(accountId);
+		tx.setTxnType("TRANSFER");
+		tx.setAmount(new BigDecimal(amount));
+		tx.setLocation("PK");
+		tx.setTimestamp(T0);
+		return tx;
+	}
+}
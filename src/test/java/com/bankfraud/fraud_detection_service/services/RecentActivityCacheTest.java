@@ -0,0 +1,58 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.dtos.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RecentActivityCacheTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 29, 10, 30, 0);
+
+	@Test
+	void keepsTheNewestItemsInKeysetOrder() {
+		RecentActivityCache.RecentRing<String> ring = new RecentActivityCache.RecentRing<>(3, true);
+
+		ring.add(T0.plusSeconds(10), 1, "tx-1");
+		ring.add(T0.plusSeconds(30), 3, "tx-3");
+		ring.add(T0.plusSeconds(20), 2, "tx-2");
+		ring.add(T0.plusSeconds(30), 4, "tx-4"); // same time, higher id is newer
+		ring.add(T0.plusSeconds(30), 4, "tx-4"); // duplicate
+
+		InvestigationQueryService.Page<String> page = ring.firstPage(3);
+
+		assertEquals(List.of("tx-4", "tx-3", "tx-2"), page.items());
+		// tx-1 fell out of the ring, so there is more history in the database
+		assertEquals(new PageCursor(T0.plusSeconds(20), 2), PageCursor.decode(page.nextCursor()));
+	}
+
+	@Test
+	void completeHistoryHasNoNextPage() {
+		RecentActivityCache.RecentRing<String> ring = new RecentActivityCache.RecentRing<>(3, true);
+
+		ring.add(T0, 1, "tx-1");
+		ring.add(T0.plusSeconds(1), 2, "tx-2");
+
+		InvestigationQueryService.Page<String> page = ring.firstPage(3);
+
+		assertEquals(List.of("tx-2", "tx-1"), page.items());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	void smallerPageLinksToTheRestOfTheRing() {
+		RecentActivityCache.RecentRing<String> ring = new RecentActivityCache.RecentRing<>(3, true);
+
+		ring.add(T0, 1, "tx-1");
+		ring.add(T0.plusSeconds(1), 2, "tx-2");
+
+		InvestigationQueryService.Page<String> page = ring.firstPage(1);
+
+		assertEquals(List.of("tx-2"), page.items());
+		assertEquals(new PageCursor(T0.plusSeconds(1), 2), PageCursor.decode(page.nextCursor()));
+	}
+}
@@ -0,0 +1,34 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionDeduplicatorTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 29, 10, 30, 0);
+
+	@Test
+	void duplicatesAreMatchedOnTheTransactionIdAlone() {
+		TransactionDeduplicator deduplicator = new TransactionDeduplicator(new SimpleMeterRegistry(), 100);
+
+		deduplicator.remember(tx("TXN-1", T0));
+
+		assertTrue(deduplicator.isDuplicate(tx("TXN-1", T0)));
+		// a retry stamped with another timestamp is still the same transaction
+		assertTrue(deduplicator.isDuplicate(tx("TXN-1", T0.plusSeconds(1))));
+		assertFalse(deduplicator.isDuplicate(tx("TXN-2", T0)));
+	}
+
+	private static Transactions tx(String transactionId, LocalDateTime timestamp) {
+		Transactions tx = new Transactions();
+		tx.setTransactionId(transactionId);
+		tx.setTimestamp(timestamp);
+		return tx;
+	}
+}
@@ -0,0 +1,50 @@
+package com.bankfraud.fraud_detection_service.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VelocityWindowStoreTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 29, 10, 30, 0);
+
+	private final VelocityWindowStore store = new VelocityWindowStore(null, 1, 5, 10);
+
+	@Test
+	void countsBothWindowsLikeTheCountQuery() {
+		for (int i = 0; i < 12; i++) {
+			store.record("acc-101", T0.plusSeconds(i * 30L));
+		}
+
+		VelocityWindowStore.VelocityCounts counts =
+				store.count("acc-101", T0.plusSeconds(330), 120, 300);
+
+		// strictly after T-2m: 240s..330s
+		assertEquals(4, counts.velocityWindowCount());
+		// strictly after T-5m: 60s..330s
+		assertEquals(10, counts.rapidWindowCount());
+	}
+
+	@Test
+	void unknownAccountHasEmptyWindows() {
+		VelocityWindowStore.VelocityCounts counts =
+				store.count("acc-unknown", T0, 120, 300);
+
+		assertEquals(0, counts.velocityWindowCount());
+		assertEquals(0, counts.rapidWindowCount());
+	}
+
+	@Test
+	void bucketsAreClearedWhenTheRingAdvances() {
+		store.record("acc-101", T0);
+		store.record("acc-101", T0.plusMinutes(30));
+
+		VelocityWindowStore.VelocityCounts counts =
+				store.count("acc-101", T0.plusMinutes(30), 120, 300);
+
+		assertEquals(1, counts.velocityWindowCount());
+		assertEquals(1, counts.rapidWindowCount());
+	}
+}
@@ -0,0 +1,110 @@
+package com.bankfraud.fraud_detection_service.simulation;
+
+import com.bankfraud.fraud_detection_service.business.FraudRuleConfig;
+import com.bankfraud.fraud_detection_service.business.FraudRuleEngine;
+import com.bankfraud.fraud_detection_service.business.FraudRuleType;
+import com.bankfraud.fraud_detection_service.dtos.TransactionRequestDTO;
+import com.bankfraud.fraud_detection_service.entities.AccountProfiles;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import com.bankfraud.fraud_detection_service.simulation.SyntheticTransactionGenerator.Episode;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticTransactionGeneratorTest {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2025, 12, 29, 12, 0);
+
+	private final FraudRuleEngine ruleEngine = new FraudRuleEngine();
+
+	private final SyntheticPopulation population =
+			SyntheticPopulation.build("sim-test", 1000, "PK:70,AE:10,GB:10,US:10", new Random(7));
+
+	private final Map<String, AccountProfiles> profiles = new HashMap<>();
+
+	{
+		for (AccountProfiles profile : population.profiles()) {
+			profiles.put(profile.getAccountId(), profile);
+		}
+	}
+
+	@Test
+	void legitimateTransactionsTriggerNoRule() {
+		SyntheticTransactionGenerator generator = generator(0.0);
+
+		for (int i = 0; i < 1000; i++) {
+			Episode episode = generator.next(NOON);
+
+			assertEquals(FraudPattern.LEGITIMATE, episode.pattern());
+			assertEquals(1, episode.transactions().size());
+			assertEquals(0, mask(episode.transactions().get(0), 1));
+		}
+	}
+
+	@Test
+	void everyFraudPatternTripsItsRule() {
+		SyntheticTransactionGenerator generator = generator(1.0);
+		Map<FraudPattern, Integer> seen = new EnumMap<>(FraudPattern.class);
+
+		for (int i = 0; i < 400; i++) {
+			Episode episode = generator.next(NOON);
+			List<TransactionRequestDTO> txs = episode.transactions();
+			TransactionRequestDTO last = txs.get(txs.size() - 1);
+			seen.merge(episode.pattern(), 1, Integer::sum);
+
+			switch (episode.pattern()) {
+				case VELOCITY_BURST -> {
+					assertTrue(txs.size() > FraudRuleConfig.DEFAULT.getVelocityMinCount());
+					assertTrue(txs.stream().allMatch(tx -> tx.getAccountId().equals(last.getAccountId())));
+					assertTrue(FraudRuleType.VELOCITY.isSetIn(mask(last, txs.size())));
+				}
+				case GEO_HOP -> {
+					assertEquals(0, mask(txs.get(0), 1));
+					assertTrue(FraudRuleType.GEO_MISMATCH.isSetIn(mask(last, 1)));
+				}
+				case NIGHT_HIGH_VALUE -> assertTrue(FraudRuleType.NIGHT_TX.isSetIn(mask(last, 1)));
+				case LARGE_AMOUNT -> assertTrue(FraudRuleType.UNUSUAL_AMOUNT.isSetIn(mask(last, 1)));
+				case LEGITIMATE -> throw new AssertionError("fraud ratio 1 produced a legitimate episode");
+			}
+		}
+
+		assertEquals(4, seen.size());
+	}
+
+	@Test
+	void homeCountriesFollowTheDistribution() {
+		long pk = population.profiles().stream().filter(p -> "PK".equals(p.getHomeCountry())).count();
+
+		assertTrue(pk > 600 && pk < 800, "PK accounts: " + pk);
+		assertEquals(Map.of("PK", 3, "AE", 1), SyntheticPopulation.parseDistribution("pk:2, AE, PK:1"));
+		assertThrows(IllegalArgumentException.class, () -> SyntheticPopulation.parseDistribution("PK:x"));
+	}
+
+	private SyntheticTransactionGenerator generator(double fraudRatio) {
+		return new SyntheticTransactionGenerator(population, FraudRuleConfig.DEFAULT, fraudRatio, new Random(11), "sim-test-tx");
+	}
+
+	// Rules the transaction trips given the account's count in the velocity window
+
+	private int mask(TransactionRequestDTO dto, int recentTxCount) {
+		Transactions tx = new Transactions();
+		tx.setTransactionId(dto.getTransactionId());
+		tx.setAccountId(dto.getAccountId());
+		tx.setAmount(dto.getAmount());
+		tx.setLocation(dto.getLocation());
+		tx.setTimestamp(LocalDateTime.parse(dto.getTimestamp()));
+
+		AccountProfiles profile = profiles.get(dto.getAccountId());
+
+		return ruleEngine.evaluateMask(tx, profile, recentTxCount, FraudRuleEngine.isGeoMismatch(tx, profile), false);
+	}
+}
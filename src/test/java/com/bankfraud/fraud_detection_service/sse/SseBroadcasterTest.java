@@ -0,0 +1,226 @@
+package com.bankfraud.fraud_detection_service.sse;
+
+import com.bankfraud.fraud_detection_service.configs.JacksonConfig;
+import com.bankfraud.fraud_detection_service.entities.Transactions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SseBroadcasterTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void clientThatKeepsFallingBehindIsEvicted() {
+		// writer tasks are never run: the client never catches up
+		List<Runnable> pending = new ArrayList<>();
+		SseBroadcaster broadcaster = broadcaster(pending::add, 10_000, 0);
+		broadcaster.subscribe(null);
+
+		for (int i = 0; i < 5; i++) {
+			broadcaster.publish(i);
+		}
+		// queue of 2: the 3 oldest were dropped, still within the limit of 3
+		assertEquals(1, broadcaster.subscriberCount());
+		assertEquals(3, registry.counter("fraud.sse.dropped", "stream", "test").count(), 1e-9);
+
+		broadcaster.publish(5);
+
+		assertEquals(0, broadcaster.subscriberCount());
+		assertEquals(1, registry.counter("fraud.sse.evicted", "stream", "test").count(), 1e-9);
+	}
+
+	@Test
+	void rejectedWriteTaskIsCountedAsADrop() {
+		// saturated writer pool: every write task is rejected
+		SseBroadcaster broadcaster = broadcaster(task -> {
+			throw new RejectedExecutionException("pool full");
+		}, 10_000, 0);
+		broadcaster.subscribe(null);
+
+		for (int i = 0; i < 3; i++) {
+			broadcaster.publish(i);
+		}
+		assertEquals(1, broadcaster.subscriberCount());
+		assertEquals(3, registry.counter("fraud.sse.dropped", "stream", "test").count(), 1e-9);
+
+		broadcaster.publish(3);
+
+		assertEquals(0, broadcaster.subscriberCount());
+		assertEquals(1, registry.counter("fraud.sse.evicted", "stream", "test").count(), 1e-9);
+	}
+
+	@Test
+	void lagIsReportedPerStream() {
+		List<Runnable> pending = new ArrayList<>();
+		SseBroadcaster broadcaster = broadcaster(pending::add, 10_000, 0);
+		broadcaster.subscribe(null);
+		broadcaster.publish(0);
+		broadcaster.subscribe(null);
+		broadcaster.publish(1);
+
+		assertEquals(2, registry.get("fraud.sse.client.lag.max").tag("stream", "test").gauge().value(), 1e-9);
+		assertEquals(3, registry.get("fraud.sse.client.lag.total").tag("stream", "test").gauge().value(), 1e-9);
+
+		pending.forEach(Runnable::run);
+
+		assertEquals(0, registry.get("fraud.sse.client.lag.total").tag("stream", "test").gauge().value(), 1e-9);
+	}
+
+	@Test
+	void clientWhoseWriteFailsIsDisconnected() {
+		SseBroadcaster broadcaster = broadcaster(Runnable::run, 10_000, 0);
+		broadcaster.subscribe(null, new SseEmitter(Long.MAX_VALUE) {
+			@Override
+			public void send(Set<DataWithMediaType> items) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+		});
+
+		broadcaster.publish("event");
+
+		assertEquals(0, broadcaster.subscriberCount());
+	}
+
+	@Test
+	void stalledWriteIsEvictedWithoutHoldingUpOtherClients() throws Exception {
+		ExecutorService writers = Executors.newCachedThreadPool();
+		CountDownLatch sending = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// only the healthy client's writer task can finish
+		CountDownLatch otherWritten = new CountDownLatch(1);
+		Executor tracked = task -> writers.execute(() -> {
+			task.run();
+			otherWritten.countDown();
+		});
+
+		try {
+			SseBroadcaster broadcaster = broadcaster(tracked, 10_000, 0);
+			broadcaster.subscribe(null, new SseEmitter(Long.MAX_VALUE) {
+				@Override
+				public void send(Set<DataWithMediaType> items) throws IOException {
+					sending.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						throw new IOException(e);
+					}
+				}
+			});
+			broadcaster.subscribe(null, new SseEmitter(Long.MAX_VALUE) {
+				@Override
+				public void send(Set<DataWithMediaType> items) {
+				}
+			});
+
+			broadcaster.publish("event");
+
+			assertTrue(sending.await(5, TimeUnit.SECONDS));
+			assertTrue(otherWritten.await(5, TimeUnit.SECONDS));
+
+			assertEquals(0, broadcaster.evictStalled(System.nanoTime()));
+			assertEquals(1, broadcaster.evictStalled(System.nanoTime() + TimeUnit.SECONDS.toNanos(20)));
+			assertEquals(1, broadcaster.subscriberCount());
+		} finally {
+			release.countDown();
+			writers.shutdownNow();
+		}
+	}
+
+	@Test
+	void reconnectWithinTheSameEpochReplaysOnlyTheMissedEvents() {
+		List<Runnable> pending = new ArrayList<>();
+		SseBroadcaster broadcaster = replaying(pending);
+		for (int i = 0; i < 5; i++) {
+			broadcaster.publish(i);
+		}
+
+		List<Set<?>> received = new ArrayList<>();
+		broadcaster.subscribe(broadcaster.epoch() + "-3", recording(received));
+		pending.forEach(Runnable::run);
+
+		assertEquals(2, received.size());
+	}
+
+	@Test
+	void idFromAnotherEpochGetsTheWholeBuffer() {
+		List<Runnable> pending = new ArrayList<>();
+		SseBroadcaster broadcaster = replaying(pending);
+		for (int i = 0; i < 5; i++) {
+			broadcaster.publish(i);
+		}
+
+		// issued by another instance, or by this one before a restart
+		List<Set<?>> otherEpoch = new ArrayList<>();
+		broadcaster.subscribe("0123abcd-4", recording(otherEpoch));
+		List<Set<?>> legacy = new ArrayList<>();
+		broadcaster.subscribe("4", recording(legacy));
+		List<Set<?>> firstConnect = new ArrayList<>();
+		broadcaster.subscribe(null, recording(firstConnect));
+		pending.forEach(Runnable::run);
+
+		assertEquals(5, otherEpoch.size());
+		assertEquals(5, legacy.size());
+		assertEquals(0, firstConnect.size());
+	}
+
+	@Test
+	void transactionEntityIsStreamedWithoutItsStorageFields() {
+		List<Runnable> pending = new ArrayList<>();
+		SseBroadcaster broadcaster = broadcaster(pending::add, 10_000, 0);
+		List<Set<?>> received = new ArrayList<>();
+		broadcaster.subscribe(null, recording(received));
+
+		Transactions tx = new Transactions();
+		tx.setId(42L);
+		tx.setTransactionId("TXN-1");
+		tx.setAmount(new BigDecimal("100.00"));
+		broadcaster.publish(tx);
+		pending.forEach(Runnable::run);
+
+		StringBuilder wire = new StringBuilder();
+		for (Object item : received.get(0)) {
+			Object data = ((SseEmitter.DataWithMediaType) item).getData();
+			wire.append(data instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : data);
+		}
+		assertTrue(wire.toString().contains("\"transactionId\":\"TXN-1\""));
+		assertFalse(wire.toString().contains("\"id\""));
+		assertFalse(wire.toString().contains("createdAt"));
+	}
+
+	private SseBroadcaster replaying(List<Runnable> pending) {
+		return new SseBroadcaster("test", "test-event", new JacksonConfig().objectMapper(), pending::add, registry,
+				16, 3, 10_000, 10);
+	}
+
+	private static SseEmitter recording(List<Set<?>> received) {
+		return new SseEmitter(Long.MAX_VALUE) {
+			@Override
+			public void send(Set<DataWithMediaType> items) {
+				received.add(items);
+			}
+		};
+	}
+
+	private SseBroadcaster broadcaster(Executor writers, long writeTimeoutMillis, int replayBufferSize) {
+		return new SseBroadcaster("test", "test-event", new JacksonConfig().objectMapper(), writers, registry,
+				2, 3, writeTimeoutMillis, replayBufferSize);
+	}
+}